@@ -37,10 +37,23 @@ android {
     buildFeatures {
         viewBinding = true
     }
+    testOptions {
+        unitTests {
+            // Robolectric 基准需要真实的资源和布局
+            isIncludeAndroidResources = true
+            // 把 -Pbenchmark.xxx 传给测试进程，见 BenchmarkReport
+            all { test ->
+                project.properties.filterKeys { it.startsWith("benchmark.") }
+                    .forEach { (key, value) -> test.systemProperty(key, value.toString()) }
+            }
+        }
+    }
 }
 
 // 为了上传而做出的修改
 dependencies {
+    implementation(project(":core"))
+
     implementation(libs.firebase.crashlytics.buildtools)
     // 核心库脱糖依赖
     coreLibraryDesugaring("com.android.tools:desugar_jdk_libs:2.0.4")
@@ -60,6 +73,8 @@ dependencies {
     annotationProcessor("androidx.room:room-compiler:$roomVersion")
 
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
+    testImplementation(libs.test.core)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
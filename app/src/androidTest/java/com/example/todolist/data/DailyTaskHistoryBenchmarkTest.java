@@ -0,0 +1,181 @@
+package com.example.todolist.data;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.todolist.model.DailyTask;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 每日任务历史表基准：1000 个任务的加载（含最近 10 周统计）与打卡写入，
+ * 以及 300 个任务 × 3 年历史下"最近一年完成率"查询的耗时。
+ */
+@RunWith(AndroidJUnit4.class)
+public class DailyTaskHistoryBenchmarkTest {
+    private static final String TAG = "DailyTaskHistoryBench";
+    private static final String DB_NAME = "dailytasks_benchmark.db";
+    private static final int TASK_COUNT = 1000;
+    private static final int HISTORY_TASKS = 300;
+    private static final int HISTORY_DAYS = 3 * 365;
+    private static final int RUNS = 10;
+
+    private Context context;
+    private DailyTaskDao dao;
+    private long today;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        dao = new DailyTaskDao(context, DB_NAME);
+        today = LocalDate.now().toEpochDay();
+    }
+
+    @After
+    public void tearDown() {
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void benchmarkLoadAndCheckIn() {
+        Random random = new Random(42);
+        for (int i = 0; i < TASK_COUNT; i++) {
+            dao.insertTask(new DailyTask(-1, "习惯 " + i));
+        }
+        List<DailyTask> tasks = dao.getAllTasks();
+        // 每个任务在最近 70 天里随机打卡，同时记下每周应有的总次数
+        long lastDayOfWeek = DailyTaskDao.weekStartOf(today) + 6;
+        Map<Integer, int[]> expected = new HashMap<>();
+        for (DailyTask task : tasks) {
+            int[] weeks = new int[DailyTask.WEEKS];
+            for (int offset = 1; offset < 70; offset++) {
+                if (random.nextInt(3) != 0) continue;
+                long day = today - offset;
+                dao.updateCompletion(task, day, 1);
+                int week = (int) ((lastDayOfWeek - day) / 7);
+                if (week < DailyTask.WEEKS) weeks[week]++;
+            }
+            weeks[0]++; // 下面的今天打卡
+            expected.put(task.getId(), weeks);
+        }
+
+        long start = SystemClock.elapsedRealtimeNanos();
+        for (DailyTask task : tasks) {
+            task.setCompletedToday(true);
+            dao.updateCompletion(task, today, 1);
+        }
+        double checkInMs = (SystemClock.elapsedRealtimeNanos() - start) / 1e6;
+
+        start = SystemClock.elapsedRealtimeNanos();
+        List<DailyTask> loaded = null;
+        for (int i = 0; i < RUNS; i++) {
+            loaded = dao.getAllTasks();
+            dao.fillRecentWeeks(loaded, today);
+        }
+        double loadMs = (SystemClock.elapsedRealtimeNanos() - start) / 1e6 / RUNS;
+
+        Log.i(TAG, String.format("%d tasks: load with 10-week strip %.2f ms, one check-in each %.2f ms total",
+                TASK_COUNT, loadMs, checkInMs));
+
+        // 从历史表统计出的每周次数与写入时记下的一致
+        assertEquals(TASK_COUNT, loaded.size());
+        for (DailyTask task : loaded) {
+            int[] weeks = expected.get(task.getId());
+            for (int week = 0; week < DailyTask.WEEKS; week++) {
+                assertEquals(weeks[week], task.getWeekTotalCompletionCount(week));
+            }
+        }
+    }
+
+    @Test
+    public void benchmarkYearlyCompletionRate() {
+        DailyTaskDbHelper helper = new DailyTaskDbHelper(context, DB_NAME);
+        SQLiteDatabase db = helper.getWritableDatabase();
+        Random random = new Random(7);
+        db.beginTransaction();
+        try {
+            SQLiteStatement insert = db.compileStatement("INSERT INTO " + DailyTaskDbHelper.TABLE_HISTORY +
+                    " (task_id, epoch_day, count) VALUES (?, ?, 1)");
+            for (int task = 1; task <= HISTORY_TASKS; task++) {
+                for (int day = 0; day < HISTORY_DAYS; day++) {
+                    if (random.nextBoolean()) {
+                        insert.bindLong(1, task);
+                        insert.bindLong(2, today - day);
+                        insert.executeInsert();
+                    }
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        helper.close();
+
+        long start = SystemClock.elapsedRealtimeNanos();
+        Map<Integer, Integer> all = null;
+        for (int i = 0; i < RUNS; i++) {
+            all = dao.getCompletedDaysForAll(today - 364, today);
+        }
+        double allMs = (SystemClock.elapsedRealtimeNanos() - start) / 1e6 / RUNS;
+
+        start = SystemClock.elapsedRealtimeNanos();
+        int single = 0;
+        for (int i = 0; i < RUNS; i++) {
+            single = dao.getCompletedDays(1, today - 364, today);
+        }
+        double singleMs = (SystemClock.elapsedRealtimeNanos() - start) / 1e6 / RUNS;
+
+        Log.i(TAG, String.format("%d tasks x %d days: yearly rate for all tasks %.2f ms, for one task %.3f ms",
+                HISTORY_TASKS, HISTORY_DAYS, allMs, singleMs));
+
+        assertEquals(HISTORY_TASKS, all.size());
+        assertEquals(all.get(1).intValue(), single);
+    }
+
+    @Test
+    public void uncheckNeverGoesBelowZero() {
+        DailyTask task = new DailyTask(-1, "习惯");
+        task.setId((int) dao.insertTask(task));
+        dao.updateCompletion(task, today, -1);
+        dao.updateCompletion(task, today, 1);
+        assertEquals(1, dao.getCompletedDays(task.getId(), today, today));
+        dao.updateCompletion(task, today, -1);
+        assertEquals(0, dao.getCompletedDays(task.getId(), today, today));
+    }
+
+    @Test
+    public void codecSaturatesAndRoundTrips() {
+        int[] counts = new int[WeeklyCompletionCodec.SIZE];
+        counts[0] = 300;
+        counts[1] = -1;
+        counts[69] = 7;
+        int[] decoded = WeeklyCompletionCodec.decode(WeeklyCompletionCodec.encode(counts));
+        assertEquals(255, decoded[0]);
+        assertEquals(0, decoded[1]);
+        assertEquals(7, decoded[69]);
+
+        assertArrayEquals(new int[WeeklyCompletionCodec.SIZE], WeeklyCompletionCodec.decode(null));
+        int[] legacy = WeeklyCompletionCodec.decodeLegacyJson("[[1,0,0,0,0,0,2],[0,3]]");
+        assertEquals(1, legacy[0]);
+        assertEquals(2, legacy[6]);
+        assertEquals(3, legacy[8]);
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.todolist.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 全文搜索基准：课表 30000 条、待办 10000 条、每日任务 10000 条，共 50000 行建立索引，
+ * 对比 FTS 前缀查询与 LIKE 全表扫描的耗时，并检查结果的排序与同步触发器。
+ */
+@RunWith(AndroidJUnit4.class)
+public class SearchBenchmarkTest {
+    private static final String TAG = "SearchBenchmark";
+    private static final String TODO_DB = "todotasks_search_benchmark.db";
+    private static final String DAILY_DB = "dailytasks_search_benchmark.db";
+    private static final int SCHEDULE_ROWS = 30000;
+    private static final int TODO_ROWS = 10000;
+    private static final int DAILY_ROWS = 10000;
+    private static final int DAYS = 300;
+    private static final int RUNS = 20;
+    private static final int LIMIT = 20;
+
+    private static final String[] COURSES = {"高数", "线代", "大物", "英语", "体育", "概率论", "数据结构", "操作系统"};
+    private static final String[] WORDS = {"algebra", "algorithm", "alpha", "lab", "lecture", "homework",
+            "review", "exam", "project", "reading", "quiz", "meeting"};
+
+    private Context context;
+    private AppDatabase scheduleDb;
+    private TodoDbHelper todoHelper;
+    private DailyTaskDbHelper dailyHelper;
+    private SearchRepository repository;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(TODO_DB);
+        context.deleteDatabase(DAILY_DB);
+
+        scheduleDb = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+                .addCallback(AppDatabase.SEARCH_INDEX_CALLBACK)
+                .allowMainThreadQueries()
+                .build();
+        todoHelper = new TodoDbHelper(context, TODO_DB);
+        dailyHelper = new DailyTaskDbHelper(context, DAILY_DB);
+        repository = new SearchRepository(scheduleDb.getOpenHelper(), todoHelper, dailyHelper);
+
+        Random random = new Random(42);
+        long start = SystemClock.elapsedRealtimeNanos();
+        fillSchedules(random);
+        fillTodos(random);
+        fillDailyTasks(random);
+        Log.i(TAG, String.format("indexed %d rows in %.0f ms",
+                SCHEDULE_ROWS + TODO_ROWS + DAILY_ROWS, (SystemClock.elapsedRealtimeNanos() - start) / 1e6));
+    }
+
+    @After
+    public void tearDown() {
+        scheduleDb.close();
+        todoHelper.close();
+        dailyHelper.close();
+        context.deleteDatabase(TODO_DB);
+        context.deleteDatabase(DAILY_DB);
+    }
+
+    @Test
+    public void benchmarkPrefixSearch() {
+        String[] queries = {"高数", "al", "algo", "lecture 高数", "exam rev"};
+        for (String query : queries) {
+            List<SearchResult> results = repository.search(query, LIMIT); // 预热
+            assertFalse("no results for " + query, results.isEmpty());
+            assertTrue(results.size() <= LIMIT);
+            for (int i = 1; i < results.size(); i++) {
+                assertTrue(results.get(i - 1).getScore() >= results.get(i).getScore());
+            }
+
+            long start = SystemClock.elapsedRealtimeNanos();
+            for (int i = 0; i < RUNS; i++) {
+                repository.search(query, LIMIT);
+            }
+            double ftsMs = (SystemClock.elapsedRealtimeNanos() - start) / 1e6 / RUNS;
+
+            start = SystemClock.elapsedRealtimeNanos();
+            for (int i = 0; i < RUNS; i++) {
+                likeScan(query.split(" ")[0]);
+            }
+            double likeMs = (SystemClock.elapsedRealtimeNanos() - start) / 1e6 / RUNS;
+
+            Log.i(TAG, String.format("query \"%s\": fts %.2f ms, like scan %.2f ms, top score %.3f",
+                    query, ftsMs, likeMs, results.get(0).getScore()));
+        }
+    }
+
+    @Test
+    public void triggersKeepIndexInSync() {
+        SQLiteDatabase db = todoHelper.getWritableDatabase();
+        ContentValues values = new ContentValues();
+        values.put(TodoDbHelper.COLUMN_CONTENT, "zzmarker 新任务");
+        values.put(TodoDbHelper.COLUMN_PRIORITY, 0);
+        values.put(TodoDbHelper.COLUMN_CREATED_TIME, 0);
+        long id = db.insert(TodoDbHelper.TABLE_TODO_TASKS, null, values);
+
+        List<SearchResult> results = repository.search("zzmark", LIMIT);
+        assertEquals(1, results.size());
+        assertEquals(SearchResult.Type.TODO, results.get(0).getType());
+        assertEquals(id, results.get(0).getId());
+
+        // 只改排序值不应影响索引；改内容后旧词搜不到、新词能搜到
+        values.clear();
+        values.put(TodoDbHelper.COLUMN_PRIORITY, 5);
+        db.update(TodoDbHelper.TABLE_TODO_TASKS, values, TodoDbHelper.COLUMN_ID + " = " + id, null);
+        assertEquals(1, repository.search("zzmark", LIMIT).size());
+
+        values.clear();
+        values.put(TodoDbHelper.COLUMN_CONTENT, "yymarker");
+        db.update(TodoDbHelper.TABLE_TODO_TASKS, values, TodoDbHelper.COLUMN_ID + " = " + id, null);
+        assertTrue(repository.search("zzmark", LIMIT).isEmpty());
+        assertEquals(1, repository.search("yymark", LIMIT).size());
+
+        db.delete(TodoDbHelper.TABLE_TODO_TASKS, TodoDbHelper.COLUMN_ID + " = " + id, null);
+        assertTrue(repository.search("yymark", LIMIT).isEmpty());
+    }
+
+    private void fillSchedules(Random random) {
+        ScheduleStrings strings = new ScheduleStrings(scheduleDb.scheduleStringDao());
+        scheduleDb.runInTransaction(() -> {
+            long[] dayIds = new long[DAYS];
+            for (int i = 0; i < DAYS; i++) {
+                DayEntity day = new DayEntity();
+                day.originDate = LocalDate.of(2024, 1, 1).plusDays(i);
+                day.activeStartHour = 8;
+                day.activeEndHour = 22;
+                dayIds[i] = scheduleDb.dayDao().insert(day);
+            }
+            for (int i = 0; i < SCHEDULE_ROWS; i++) {
+                String name = COURSES[random.nextInt(COURSES.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+                String noteContent = "教室 " + (100 + random.nextInt(400)) + " " + WORDS[random.nextInt(WORDS.length)];
+                scheduleDb.scheduleDao().insert(new ScheduleEntity(480 + random.nextInt(600), 1200,
+                        strings.id(name), strings.id("备注"), noteContent, 0xFF2196F3, false, dayIds[random.nextInt(DAYS)]));
+            }
+        });
+    }
+
+    private void fillTodos(Random random) {
+        SQLiteDatabase db = todoHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            ContentValues values = new ContentValues();
+            for (int i = 0; i < TODO_ROWS; i++) {
+                values.put(TodoDbHelper.COLUMN_CONTENT, WORDS[random.nextInt(WORDS.length)] + " " +
+                        COURSES[random.nextInt(COURSES.length)] + " " + i);
+                values.put(TodoDbHelper.COLUMN_PRIORITY, TodoRank.spread(i));
+                values.put(TodoDbHelper.COLUMN_CREATED_TIME, i);
+                db.insert(TodoDbHelper.TABLE_TODO_TASKS, null, values);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private void fillDailyTasks(Random random) {
+        SQLiteDatabase db = dailyHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            ContentValues values = new ContentValues();
+            for (int i = 0; i < DAILY_ROWS; i++) {
+                values.put(DailyTaskDbHelper.COLUMN_CONTENT, WORDS[random.nextInt(WORDS.length)] + " 打卡 " + i);
+                values.put(DailyTaskDbHelper.COLUMN_CREATED_DATE, "2024-01-01 00:00:00");
+                db.insert(DailyTaskDbHelper.TABLE_DAILY_TASKS, null, values);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // 对照组：不用索引，在课表和待办上做 LIKE 扫描
+    private int likeScan(String term) {
+        String pattern = "%" + term + "%";
+        int count = 0;
+        Cursor cursor = scheduleDb.getOpenHelper().getReadableDatabase().query(
+                "SELECT s.id FROM schedules s LEFT JOIN schedule_strings n ON n.id = s.name_id" +
+                        " LEFT JOIN schedule_strings nn ON nn.id = s.note_name_id" +
+                        " WHERE n.text LIKE ? OR nn.text LIKE ? OR s.note_content LIKE ?",
+                new Object[]{pattern, pattern, pattern});
+        try {
+            count += cursor.getCount();
+        } finally {
+            cursor.close();
+        }
+        cursor = todoHelper.getReadableDatabase().rawQuery(
+                "SELECT _id FROM todo_tasks WHERE content LIKE ?", new String[]{pattern});
+        try {
+            count += cursor.getCount();
+        } finally {
+            cursor.close();
+        }
+        return count;
+    }
+}
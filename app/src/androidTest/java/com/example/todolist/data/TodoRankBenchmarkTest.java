@@ -0,0 +1,99 @@
+package com.example.todolist.data;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.todolist.model.TodoTask;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 1000 条待办的拖拽持久化基准：旧做法（整表重写 priority）对比新做法（只写被移动的一行）。
+ * 只记录耗时；TodoRank 的取值和重排条件由 JVM 单元测试 TodoRankTest 覆盖。
+ */
+@RunWith(AndroidJUnit4.class)
+public class TodoRankBenchmarkTest {
+    private static final String TAG = "TodoRankBenchmark";
+    private static final String DB_NAME = "todotasks_benchmark.db";
+    private static final int TASK_COUNT = 1000;
+    private static final int MOVES = 200;
+
+    private Context context;
+    private TodoDao dao;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        dao = new TodoDao(context, DB_NAME);
+        for (int i = 0; i < TASK_COUNT; i++) {
+            dao.insertTask(new TodoTask(-1, "任务 " + i, TodoRank.spread(i), i));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void benchmarkMovePersistence() {
+        List<TodoTask> tasks = dao.getAllTasks();
+        Random random = new Random(42);
+
+        // 旧做法：每次移动后把整张表的 priority 连续重写一遍
+        long start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < MOVES; i++) {
+            int from = random.nextInt(TASK_COUNT);
+            int to = random.nextInt(TASK_COUNT);
+            tasks.add(to, tasks.remove(from));
+            for (int j = 0; j < tasks.size(); j++) {
+                tasks.get(j).setPriority(j);
+            }
+            dao.updateTasksInTransaction(tasks);
+        }
+        long fullRewriteNanos = SystemClock.elapsedRealtimeNanos() - start;
+
+        // 新做法：只为被移动的任务取前后两项的中间值
+        for (int j = 0; j < tasks.size(); j++) {
+            tasks.get(j).setPriority(TodoRank.spread(j));
+        }
+        dao.updateTasksInTransaction(tasks);
+        int rebalances = 0;
+        start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < MOVES; i++) {
+            int from = random.nextInt(TASK_COUNT);
+            int to = random.nextInt(TASK_COUNT);
+            TodoTask moved = tasks.remove(from);
+            tasks.add(to, moved);
+            Long before = to > 0 ? tasks.get(to - 1).getPriority() : null;
+            Long after = to < tasks.size() - 1 ? tasks.get(to + 1).getPriority() : null;
+            Long rank = TodoRank.between(before, after);
+            if (rank == null) {
+                rebalances++;
+                for (int j = 0; j < tasks.size(); j++) {
+                    tasks.get(j).setPriority(TodoRank.spread(j));
+                }
+                dao.updateTasksInTransaction(tasks);
+            } else {
+                moved.setPriority(rank);
+                dao.updateTaskPriority(moved.getId(), rank);
+            }
+        }
+        long singleRowNanos = SystemClock.elapsedRealtimeNanos() - start;
+
+        Log.i(TAG, String.format("%d moves over %d tasks: full rewrite %.2f ms/move, single row %.3f ms/move, rebalances %d",
+                MOVES, TASK_COUNT,
+                fullRewriteNanos / 1e6 / MOVES, singleRowNanos / 1e6 / MOVES, rebalances));
+    }
+}
@@ -8,15 +8,19 @@ import android.widget.Button;
 import android.widget.EditText;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
+import com.example.todolist.data.AppStartup;
+import com.example.todolist.util.MainThreadWatchdog;
 
 public class LockScreenActivity extends AppCompatActivity {
     private EditText passwordInput;
     private Button unlockButton;
     private SharedPreferences sharedPreferences;
+    private boolean unlocking = false; // 正在进入主界面，离开时不取消预热
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        MainThreadWatchdog.install(this);
         setContentView(R.layout.activity_lock_screen);
 
         passwordInput = findViewById(R.id.passwordInput);
@@ -45,7 +49,27 @@ public class LockScreenActivity extends AppCompatActivity {
         });
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // 等待输入密码的同时在后台打开数据库、加载本周课表、待办和每日任务；
+        // 从后台回到锁屏时也会重新开始（已经在预热时不会重复开始）
+        if (!unlocking) {
+            AppStartup.start(this);
+        }
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // 没有解锁就退到了后台，放弃预热，不在后台占用资源
+        if (!unlocking) {
+            AppStartup.cancel();
+        }
+    }
+
     private void startMainActivity() {
+        unlocking = true;
         Intent intent = new Intent(LockScreenActivity.this, MainActivity.class);
         startActivity(intent);
         finish();
@@ -4,19 +4,26 @@ import android.app.AlertDialog;
 import android.content.DialogInterface;
 import android.content.Intent;
 import android.os.Bundle;
+import android.util.Log;
+import android.view.Choreographer;
 import android.view.View;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.FrameLayout;
 import android.widget.ImageButton;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
+import androidx.core.content.ContextCompat;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentManager;
 import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.todolist.adapter.DailyTaskAdapter;
 import com.example.todolist.adapter.TodoAdapter;
 import com.example.todolist.adapter.TodoItemTouchHelperCallback;
+import com.example.todolist.data.AppStartup;
 import com.example.todolist.data.DailyTaskManager;
 import com.example.todolist.data.Data;
 import com.example.todolist.data.TodoManager;
@@ -26,8 +33,15 @@ import com.example.todolist.ui.ScheduleFragment;
 import com.example.todolist.ui.dialog.ConfirmDeleteDialog;
 import com.example.todolist.ui.dialog.DailyTaskDialog;
 import com.example.todolist.ui.dialog.TodoTaskDialog;
+import com.example.todolist.util.MainThreadWatchdog;
+import com.example.todolist.util.PerfTracker;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class MainActivity extends AppCompatActivity implements
         DailyTaskAdapter.OnTaskClickListener,
@@ -35,45 +49,87 @@ public class MainActivity extends AppCompatActivity implements
         DailyTaskDialog.DailyTaskListener,
         TodoTaskDialog.TodoTaskListener,
         ConfirmDeleteDialog.ConfirmDeleteListener {
+    private static final String TAG = "MainActivity";
+    private static final String TAG_SCHEDULE = "schedule";
+
     private ImageButton btnSettings;
     private Button btnSchedule, btnTodo, btnDaily, btnOther;
     private FrameLayout contentFrame;
     private Toolbar toolbar;
 
     // 每日任务相关
+    private View dailyView; // 数据还没加载完时先显示空布局，加载完成后再初始化列表
     private RecyclerView dailyTasksRecyclerView;
     private DailyTaskAdapter dailyTaskAdapter;
     private DailyTaskManager dailyTaskManager;
     private List<DailyTask> dailyTaskList;
 
     // 待办事项相关变量
+    private View todoView;
     private RecyclerView todoTasksRecyclerView;
     private TodoAdapter todoAdapter;
     private TodoManager todoManager;
     private List<TodoTask> todoTaskList;
     private ItemTouchHelper itemTouchHelper;
+    private boolean todoPageLoading = false; // 上一页/下一页还没有显示出来时不再加载
+    private static final int TODO_PREFETCH_DISTANCE = 10; // 距离窗口边缘多少项时开始加载
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        // 进程被回收后可能直接恢复到这里，不经过锁屏界面
+        MainThreadWatchdog.install(this);
         setContentView(R.layout.activity_main);
 
-        // 1. 初始化数据库
+        // 1. 初始化数据库（只创建 Room 实例，真正打开数据库在后台）
         Data.init(getApplicationContext());
 
-        // 初始化每日任务数据管理器
-        dailyTaskManager = new DailyTaskManager(this);
-        dailyTaskList = dailyTaskManager.getDailyTasks();
-
-        // 初始化待办事项数据管理器
-        todoManager = new TodoManager(this);
-        todoTaskList = todoManager.getTodoTasks();
+        // 2. 在后台并行加载课表、待办事项和每日任务，哪个先好哪个先显示
+        AppStartup.start(this);
 
         initViews();
         setupClickListeners();
 
         // 默认显示课表界面
         showScheduleView();
+
+        Executor mainExecutor = ContextCompat.getMainExecutor(this);
+        whenReady(AppStartup.takeTodoManager(), mainExecutor, this::onTodoManagerReady,
+                () -> new TodoManager(getApplicationContext()));
+        whenReady(AppStartup.takeDailyTaskManager(), mainExecutor, this::onDailyTaskManagerReady,
+                () -> new DailyTaskManager(getApplicationContext()));
+    }
+
+    // 后台结果在主线程上交给界面；后台加载失败或者已经被取走时，退回到主线程同步创建
+    private <T> void whenReady(CompletableFuture<T> future, Executor mainExecutor,
+                               Consumer<T> onReady, Supplier<T> fallback) {
+        // 预热结果在界面需要时已经准备好才算命中
+        PerfTracker.cacheResult(PerfTracker.CACHE_STARTUP, future != null && future.isDone());
+        if (future == null) {
+            onReady.accept(fallback.get());
+            return;
+        }
+        future.handleAsync((result, error) -> {
+            if (isDestroyed()) return null;
+            onReady.accept(error == null ? result : fallback.get());
+            return null;
+        }, mainExecutor);
+    }
+
+    private void onTodoManagerReady(TodoManager manager) {
+        todoManager = manager;
+        todoTaskList = manager.getTodoTasks();
+        if (todoView != null) {
+            initTodoRecyclerView(todoView);
+        }
+    }
+
+    private void onDailyTaskManagerReady(DailyTaskManager manager) {
+        dailyTaskManager = manager;
+        dailyTaskList = manager.getDailyTasks();
+        if (dailyView != null) {
+            initDailyRecyclerView(dailyView);
+        }
     }
 
     private void initViews() {
@@ -138,49 +194,121 @@ public class MainActivity extends AppCompatActivity implements
 
     // ================= 日程表逻辑 (Schedule) =================
 
+    // 三个 Tab 只创建一次，切换时只改变可见性；列表的适配器和滚动位置都保留
     private void showScheduleView() {
-        // 切换到 ScheduleFragment
-        contentFrame.removeAllViews();
-        
-        getSupportFragmentManager().beginTransaction()
-                .replace(R.id.contentFrame, new ScheduleFragment())
-                .commit();
-                
+        long start = System.nanoTime();
+        setTabViewVisible(todoView, false);
+        setTabViewVisible(dailyView, false);
+
+        FragmentManager fragmentManager = getSupportFragmentManager();
+        Fragment schedule = fragmentManager.findFragmentByTag(TAG_SCHEDULE);
+        if (schedule == null) {
+            fragmentManager.beginTransaction()
+                    .add(R.id.contentFrame, new ScheduleFragment(), TAG_SCHEDULE)
+                    .commitNow();
+        } else if (schedule.isHidden()) {
+            fragmentManager.beginTransaction().show(schedule).commitNow();
+        }
+
         updateTabStates(btnSchedule);
+        trackTabSwitch("schedule", start);
+    }
+
+    private void hideScheduleView() {
+        FragmentManager fragmentManager = getSupportFragmentManager();
+        Fragment schedule = fragmentManager.findFragmentByTag(TAG_SCHEDULE);
+        if (schedule != null && !schedule.isHidden()) {
+            fragmentManager.beginTransaction().hide(schedule).commitNow();
+        }
     }
 
     // ================= 其他 Tab 逻辑 =================
 
     private void showTodoView() {
-        // 清理 Fragment 容器
-        androidx.fragment.app.Fragment currentFragment = getSupportFragmentManager().findFragmentById(R.id.contentFrame);
-        if (currentFragment != null) {
-            getSupportFragmentManager().beginTransaction().remove(currentFragment).commitNow();
+        long start = System.nanoTime();
+        hideScheduleView();
+        setTabViewVisible(dailyView, false);
+
+        if (todoView == null) {
+            todoView = getLayoutInflater().inflate(R.layout.layout_todo, contentFrame, false);
+            contentFrame.addView(todoView);
+            // 初始化待办事项RecyclerView；数据还在加载时由 onTodoManagerReady 完成
+            if (todoManager != null) {
+                initTodoRecyclerView(todoView);
+            }
+        } else {
+            setTabViewVisible(todoView, true);
         }
-        contentFrame.removeAllViews();
-        
-        View todoView = getLayoutInflater().inflate(R.layout.layout_todo, contentFrame, false);
-        contentFrame.addView(todoView);
-        updateTabStates(btnTodo);
 
-        // 初始化待办事项RecyclerView
-        initTodoRecyclerView(todoView);
+        updateTabStates(btnTodo);
+        trackTabSwitch("todo", start);
     }
 
     private void showDailyView() {
-        // 清理 Fragment
-        androidx.fragment.app.Fragment currentFragment = getSupportFragmentManager().findFragmentById(R.id.contentFrame);
-        if (currentFragment != null) {
-            getSupportFragmentManager().beginTransaction().remove(currentFragment).commitNow();
+        long start = System.nanoTime();
+        hideScheduleView();
+        setTabViewVisible(todoView, false);
+
+        if (dailyView == null) {
+            dailyView = getLayoutInflater().inflate(R.layout.layout_daily, contentFrame, false);
+            contentFrame.addView(dailyView);
+            // 初始化每日任务RecyclerView；数据还在加载时由 onDailyTaskManagerReady 完成
+            if (dailyTaskManager != null) {
+                initDailyRecyclerView(dailyView);
+            }
+        } else {
+            setTabViewVisible(dailyView, true);
         }
-        contentFrame.removeAllViews();
-        
-        View dailyView = getLayoutInflater().inflate(R.layout.layout_daily, contentFrame, false);
-        contentFrame.addView(dailyView);
+
         updateTabStates(btnDaily);
+        trackTabSwitch("daily", start);
+    }
+
+    private static void setTabViewVisible(View tabView, boolean visible) {
+        if (tabView != null) {
+            tabView.setVisibility(visible ? View.VISIBLE : View.GONE);
+        }
+    }
 
-        // 初始化每日任务RecyclerView
-        initDailyRecyclerView(dailyView);
+    // 之后的查询记在这个 Tab 名下；记录从点击到切换后第一帧画完的耗时
+    private void trackTabSwitch(String tab, long startNanos) {
+        PerfTracker.setScreen(tab);
+        Choreographer.getInstance().postFrameCallback(frameTimeNanos ->
+                contentFrame.post(() -> {
+                    long elapsed = System.nanoTime() - startNanos;
+                    PerfTracker.record(PerfTracker.TAB_SWITCH + tab, elapsed);
+                    Log.d(TAG, String.format(Locale.US, "switch to %s tab: %.1f ms", tab, elapsed / 1e6));
+                }));
+    }
+
+    /**
+     * 内存紧张时释放当前看不见的 Tab，下次切换过去时再重新创建。
+     * 只是退到后台（UI_HIDDEN）时不释放，回来时仍然可以直接切换。
+     */
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (level < TRIM_MEMORY_RUNNING_LOW || level == TRIM_MEMORY_UI_HIDDEN) return;
+
+        if (!btnTodo.isSelected() && todoView != null) {
+            contentFrame.removeView(todoView);
+            todoView = null;
+            todoTasksRecyclerView = null;
+            todoAdapter = null;
+            itemTouchHelper = null;
+        }
+        if (!btnDaily.isSelected() && dailyView != null) {
+            contentFrame.removeView(dailyView);
+            dailyView = null;
+            dailyTasksRecyclerView = null;
+            dailyTaskAdapter = null;
+        }
+        FragmentManager fragmentManager = getSupportFragmentManager();
+        Fragment schedule = fragmentManager.findFragmentByTag(TAG_SCHEDULE);
+        if (!btnSchedule.isSelected() && schedule != null && !fragmentManager.isStateSaved()) {
+            fragmentManager.beginTransaction().remove(schedule).commitNow();
+        }
+        Log.d(TAG, "trimmed hidden tabs, level " + level);
     }
 
     private void initDailyRecyclerView(View dailyView) {
@@ -195,6 +323,7 @@ public class MainActivity extends AppCompatActivity implements
     private void initTodoRecyclerView(View todoView) {
         todoTasksRecyclerView = todoView.findViewById(R.id.todoTasksRecyclerView);
         todoAdapter = new TodoAdapter(todoTaskList, this);
+        todoAdapter.setNumberOffset(todoManager.getWindowOffset());
 
         LinearLayoutManager layoutManager = new LinearLayoutManager(this);
         todoTasksRecyclerView.setLayoutManager(layoutManager);
@@ -207,6 +336,49 @@ public class MainActivity extends AppCompatActivity implements
 
         // 将touchHelper传递给适配器
         todoAdapter.setTouchHelper(itemTouchHelper);
+
+        // 滚动到已加载窗口的边缘时，按页加载前后的任务
+        Executor mainExecutor = ContextCompat.getMainExecutor(this);
+        todoTasksRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (todoPageLoading || todoAdapter.isDragging() || dy == 0) return;
+
+                CompletableFuture<Boolean> page;
+                if (dy > 0 && todoManager.hasMoreAfter()
+                        && layoutManager.findLastVisibleItemPosition() >= todoTaskList.size() - TODO_PREFETCH_DISTANCE) {
+                    page = todoManager.loadNextPage(mainExecutor);
+                } else if (dy < 0 && todoManager.hasMoreBefore()
+                        && layoutManager.findFirstVisibleItemPosition() <= TODO_PREFETCH_DISTANCE) {
+                    page = todoManager.loadPreviousPage(mainExecutor);
+                } else {
+                    return;
+                }
+
+                // 查询在后台进行，直到新窗口提交给适配器之前都不再发起下一次加载；
+                // 加载期间 Tab 被释放时，submitTodoWindow 跳过提交并直接清除标记
+                todoPageLoading = true;
+                page.whenCompleteAsync((changed, error) -> {
+                    if (isDestroyed()) return;
+                    if (error == null && changed) {
+                        submitTodoWindow(() -> todoPageLoading = false);
+                    } else {
+                        todoPageLoading = false;
+                    }
+                }, mainExecutor);
+            }
+        });
+    }
+
+    // 把当前窗口提交给适配器，并同步序号偏移。待办 Tab 已被 onTrimMemory 释放时没有适配器，
+    // 下次创建时直接用当前窗口，这里只执行回调
+    private void submitTodoWindow(Runnable commitCallback) {
+        if (todoAdapter == null) {
+            if (commitCallback != null) commitCallback.run();
+            return;
+        }
+        todoAdapter.setNumberOffset(todoManager.getWindowOffset());
+        todoAdapter.submitList(todoTaskList, commitCallback);
     }
 
     private void updateTabStates(Button activeTab) {
@@ -235,10 +407,8 @@ public class MainActivity extends AppCompatActivity implements
             return; // 如果出错，提前返回
         }
 
-        try {
-            dailyTaskAdapter.notifyDataSetChanged();
-        } catch (Exception ignored) {
-        }
+        // 只刷新被点击的这一行
+        dailyTaskAdapter.notifyTaskChanged(task);
     }
 
     @Override
@@ -263,9 +433,9 @@ public class MainActivity extends AppCompatActivity implements
     }
 
     @Override
-    public void Todo_onPriorityChange(List<TodoTask> tasks) {
-        // 当优先级改变时，更新到数据库
-        todoManager.updateTasksPriorities(tasks);
+    public void Todo_onTaskMoved(TodoTask task, int toPosition) {
+        // 只为被移动的任务写入新的排序值
+        todoManager.moveTask(task, toPosition);
     }
 
     // DailyTaskDialog接口实现
@@ -273,18 +443,14 @@ public class MainActivity extends AppCompatActivity implements
     public void onDailyTaskAdded(String content) {
         DailyTask newTask = new DailyTask(-1, content);
         dailyTaskManager.addTask(newTask);
-        dailyTaskAdapter.notifyItemInserted(0);
+        dailyTaskAdapter.submitList(dailyTaskList);
     }
 
     @Override
     public void onDailyTaskEdited(DailyTask task, String newContent) {
         task.setContent(newContent);
         dailyTaskManager.updateTask(task);
-
-        int position = dailyTaskList.indexOf(task);
-        if (position != -1) {
-            dailyTaskAdapter.notifyItemChanged(position);
-        }
+        dailyTaskAdapter.notifyTaskChanged(task);
     }
 
     // TodoTaskDialog接口实现
@@ -292,19 +458,14 @@ public class MainActivity extends AppCompatActivity implements
     public void onTodoTaskAdded(String content) {
         TodoTask newTask = new TodoTask(-1, content);
         todoManager.addTask(newTask);
-        todoTaskList = todoManager.getTodoTasks();
-        todoAdapter.updateData(todoTaskList);
+        submitTodoWindow(null);
     }
 
     @Override
     public void onTodoTaskEdited(TodoTask task, String newContent) {
         task.setContent(newContent);
         todoManager.updateTask(task);
-
-        int position = todoTaskList.indexOf(task);
-        if (position != -1) {
-            todoAdapter.notifyItemChanged(position);
-        }
+        todoAdapter.notifyTaskChanged(task);
     }
 
     // ConfirmDeleteDialog接口实现
@@ -335,11 +496,8 @@ public class MainActivity extends AppCompatActivity implements
         dialog.setListener(new ConfirmDeleteDialog.ConfirmDeleteListener() {
             @Override
             public void onConfirmDelete() {
-                int position = dailyTaskList.indexOf(task);
-                if (position != -1) {
-                    dailyTaskManager.deleteTask(task);
-                    dailyTaskAdapter.notifyItemRemoved(position);
-                }
+                dailyTaskManager.deleteTask(task);
+                dailyTaskAdapter.submitList(dailyTaskList);
             }
         });
         dialog.show(getSupportFragmentManager(), "delete_daily_task");
@@ -366,13 +524,19 @@ public class MainActivity extends AppCompatActivity implements
             @Override
             public void onConfirmDelete() {
                 todoManager.deleteTask(task);
-                todoTaskList = todoManager.getTodoTasks();
-                todoAdapter.updateData(todoTaskList);
+                submitTodoWindow(null);
             }
         });
         dialog.show(getSupportFragmentManager(), "delete_todo_task");
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // 从编辑页等其他页面回来后，查询重新记在当前 Tab 名下
+        PerfTracker.setScreen(btnTodo.isSelected() ? "todo" : btnDaily.isSelected() ? "daily" : "schedule");
+    }
+
     @Override
     protected void onPause() {
         super.onPause();
@@ -0,0 +1,90 @@
+package com.example.todolist;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.CheckBox;
+import android.widget.EditText;
+import android.widget.TextView;
+import android.widget.Toast;
+import androidx.appcompat.app.AppCompatActivity;
+import com.example.todolist.data.QueryLog;
+import com.example.todolist.util.MainThreadWatchdog;
+import com.example.todolist.util.PerfTracker;
+
+/**
+ * 性能数据页面：显示 {@link PerfTracker} 收集的各段耗时 p50 / p95、各页面的查询次数、
+ * 缓存命中率和内存占用，{@link QueryLog} 按语句形状汇总的查询，以及 {@link MainThreadWatchdog} 记录的主线程卡顿。
+ * 课表页变慢时，可以先在这里清零，重现一次操作后再刷新查看，或者导出分享给开发者。
+ */
+public class PerfActivity extends AppCompatActivity {
+    private static final int TOP_QUERIES = 15;
+
+    private TextView tvReport;
+    private EditText etSlowQuery;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_perf);
+
+        tvReport = findViewById(R.id.tv_perf_report);
+
+        Button btnRefresh = findViewById(R.id.btn_perf_refresh);
+        btnRefresh.setOnClickListener(v -> showReport());
+
+        Button btnReset = findViewById(R.id.btn_perf_reset);
+        btnReset.setOnClickListener(v -> {
+            PerfTracker.reset();
+            QueryLog.clear();
+            MainThreadWatchdog.clear();
+            showReport();
+        });
+
+        Button btnExport = findViewById(R.id.btn_perf_export);
+        btnExport.setOnClickListener(v -> exportReport());
+
+        etSlowQuery = findViewById(R.id.et_slow_query_ms);
+        etSlowQuery.setText(String.valueOf(QueryLog.getSlowThresholdMillis()));
+        Button btnSaveSlowQuery = findViewById(R.id.btn_save_slow_query);
+        btnSaveSlowQuery.setOnClickListener(v -> {
+            try {
+                QueryLog.setSlowThresholdMillis(this, Long.parseLong(etSlowQuery.getText().toString().trim()));
+                Toast.makeText(this, "已保存", Toast.LENGTH_SHORT).show();
+            } catch (NumberFormatException e) {
+                etSlowQuery.setText(String.valueOf(QueryLog.getSlowThresholdMillis()));
+            }
+        });
+
+        CheckBox cbWatchdog = findViewById(R.id.cb_stall_watchdog);
+        cbWatchdog.setChecked(MainThreadWatchdog.isEnabled(this));
+        cbWatchdog.setOnCheckedChangeListener((button, checked) -> MainThreadWatchdog.setEnabled(this, checked));
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        showReport();
+    }
+
+    private void showReport() {
+        tvReport.setText(buildReport());
+    }
+
+    private String buildReport() {
+        return PerfTracker.report() +
+                "\n== 查询（按语句汇总，最近 " + QueryLog.CAPACITY + " 条）==\n" +
+                QueryLog.summary(TOP_QUERIES) +
+                "\n== 主线程卡顿（超过 " + MainThreadWatchdog.STALL_THRESHOLD_MS + " ms，按栈顶归类）==\n" +
+                MainThreadWatchdog.report();
+    }
+
+    // 报告和完整的查询日志（CSV）作为文本分享出去
+    private void exportReport() {
+        Intent send = new Intent(Intent.ACTION_SEND);
+        send.setType("text/plain");
+        send.putExtra(Intent.EXTRA_SUBJECT, "日程表性能数据");
+        send.putExtra(Intent.EXTRA_TEXT, buildReport() + "\n== 查询日志 (CSV) ==\n" + QueryLog.exportCsv());
+        startActivity(Intent.createChooser(send, "导出性能数据"));
+    }
+}
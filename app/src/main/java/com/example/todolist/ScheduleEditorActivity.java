@@ -12,6 +12,7 @@ import android.widget.NumberPicker;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
 import com.example.todolist.data.Data;
 import com.example.todolist.model.Day;
 import com.example.todolist.model.RepeatRule;
@@ -19,6 +20,7 @@ import com.example.todolist.model.Schedule;
 import com.example.todolist.model.Week;
 import com.example.todolist.ui.dialog.ColorPickerDialogFragment;
 import com.example.todolist.ui.dialog.NoteEditorDialogFragment;
+import com.example.todolist.util.PerfTracker;
 import java.time.LocalDate;
 import java.util.Locale;
 
@@ -42,18 +44,18 @@ public class ScheduleEditorActivity extends AppCompatActivity
     
     // 临时存储的数据
     private String tempNoteName = "备注";
-    private String tempNoteContent = "";
+    private String tempNoteContent = ""; // 为 null 表示正文还在从数据库读取
+    private long scheduleId = 0;
     private int tempColor = 0xFF2196F3; // 默认蓝色
     
     private boolean isEditMode = false;
     private String targetDateStr;
-    private String oldName;
-    private int oldStartTime, oldEndTime;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_schedule_editor);
+        PerfTracker.setScreen("editor");
 
         try {
             initViews();
@@ -113,23 +115,30 @@ public class ScheduleEditorActivity extends AppCompatActivity
             if (tvEditorTitle != null) tvEditorTitle.setText("编辑行程");
             
             targetDateStr = intent.getStringExtra("targetDate");
-            oldName = intent.getStringExtra("name");
-            if (etScheduleName != null) etScheduleName.setText(oldName);
-            
-            oldStartTime = intent.getIntExtra("start", 480);
-            oldEndTime = intent.getIntExtra("end", 600);
-            
+            // 只传行程 ID：通常直接取内存里已经显示的那个行程，不在时从数据库读这一行
+            scheduleId = intent.getLongExtra("scheduleId", 0);
+            Schedule schedule = Data.getInstance().getSchedule(scheduleId);
+            if (schedule == null) {
+                throw new IllegalStateException("行程不存在: " + scheduleId);
+            }
+            if (etScheduleName != null) etScheduleName.setText(schedule.getName());
+
+            int startTime = schedule.getStartTime();
+            int endTime = schedule.getEndTime();
             if (npStartHour != null) {
-                npStartHour.setValue(oldStartTime / 60);
-                npStartMinute.setValue(oldStartTime % 60);
-                npEndHour.setValue(oldEndTime / 60);
-                npEndMinute.setValue(oldEndTime % 60);
+                npStartHour.setValue(startTime / 60);
+                npStartMinute.setValue(startTime % 60);
+                npEndHour.setValue(endTime / 60);
+                npEndMinute.setValue(endTime % 60);
             }
             
-            tempColor = intent.getIntExtra("color", 0xFF2196F3);
-            if (intent.hasExtra("noteName")) {
-                tempNoteName = intent.getStringExtra("noteName");
-                tempNoteContent = intent.getStringExtra("noteContent");
+            tempColor = schedule.getColorArgb();
+            if (schedule.getNote().getName() != null) {
+                tempNoteName = schedule.getNote().getName();
+            }
+            tempNoteContent = schedule.getNote().getContent();
+            if (tempNoteContent == null) {
+                loadNoteContent();
             }
         } else {
             // 新建模式
@@ -143,6 +152,10 @@ public class ScheduleEditorActivity extends AppCompatActivity
     private void setupListeners() {
         if (btnEditNote != null) {
             btnEditNote.setOnClickListener(v -> {
+                if (tempNoteContent == null) {
+                    // 后台还没读完，直接读（通常已经在缓存里）
+                    tempNoteContent = Data.getInstance().getNoteContent(scheduleId);
+                }
                 NoteEditorDialogFragment dialog = NoteEditorDialogFragment.newInstance(tempNoteName, tempNoteContent);
                 dialog.show(getSupportFragmentManager(), "NoteEditor");
             });
@@ -188,10 +201,26 @@ public class ScheduleEditorActivity extends AppCompatActivity
         
         if (startTime >= endTime) endTime = startTime + 60;
         
+        if (tempNoteContent == null) {
+            tempNoteContent = Data.getInstance().getNoteContent(scheduleId);
+        }
         Schedule schedule = new Schedule(startTime, endTime, name);
         schedule.setColorArgb(tempColor);
         schedule.setNote(new Schedule.Note(tempNoteName, tempNoteContent));
         
+        if (isEditMode) {
+            // 只更新这一行，课表页里已经显示的那一天由 Data 直接改掉，不重新加载
+            if (!Data.getInstance().updateSchedule(scheduleId, schedule)) {
+                Toast.makeText(this, "行程已被删除", Toast.LENGTH_SHORT).show();
+                setResult(RESULT_CANCELED);
+                finish();
+                return;
+            }
+            setResult(RESULT_OK, new Intent().putExtra("scheduleId", scheduleId));
+            finish();
+            return;
+        }
+
         LocalDate date = (targetDateStr != null) ? LocalDate.parse(targetDateStr) : LocalDate.now();
         
         // 为了避免 Data.loadAllDataToWeek(week) 在 load 时就直接操作 week 导致逻辑复杂，
@@ -206,27 +235,27 @@ public class ScheduleEditorActivity extends AppCompatActivity
             day = new Day(date, false, rule);
         }
         
-        if (isEditMode) {
-            // 根据旧数据找到并删除旧行程
-            // 注意：Schedule 需要正确实现 equals() 方法，或者我们需要更可靠的查找方式
-            // 目前 Schedule.equals 比较 startTime, endTime, name。如果用户只改了颜色，可以匹配到。
-            // 但如果用户改了时间或名称，oldName/oldStartTime 就是用来匹配的钥匙。
-            Schedule oldSchedule = new Schedule(oldStartTime, oldEndTime, oldName);
-            // 这里的 removeSchedule 依赖于 Schedule.equals
-            // 如果 Schedule 类没有重写 equals，这里会失效。
-            // 让我们确认 Schedule.java 是否重写了 equals。
-            day.removeSchedule(oldSchedule); 
-        }
-        
         day.addSchedule(schedule);
         Data.getInstance().saveDay(day);
         setResult(RESULT_OK);
         finish();
     }
 
+    // 编辑已有行程时，备注正文没有随 Intent 传过来，在后台读取后刷新预览
+    private void loadNoteContent() {
+        Data.getInstance().loadNoteContent(scheduleId).thenAcceptAsync(content -> {
+            if (tempNoteContent == null) {
+                tempNoteContent = content;
+                updateNotePreview();
+            }
+        }, ContextCompat.getMainExecutor(this));
+    }
+
     private void updateNotePreview() {
         if (tvNotePreview != null) {
-            if (tempNoteContent.isEmpty() && (tempNoteName.equals("备注") || tempNoteName.isEmpty())) {
+            if (tempNoteContent == null) {
+                tvNotePreview.setText(tempNoteName + " - 加载中…");
+            } else if (tempNoteContent.isEmpty() && (tempNoteName.equals("备注") || tempNoteName.isEmpty())) {
                 tvNotePreview.setText("无备注");
             } else {
                 String preview = tempNoteName;
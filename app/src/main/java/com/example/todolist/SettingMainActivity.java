@@ -19,6 +19,13 @@ public class SettingMainActivity extends AppCompatActivity {
             startActivity(intent);
         });
 
+        // 性能数据页面：课表卡顿时可以把这里的数字提供给开发者
+        Button btnGoPerf = findViewById(R.id.btn_go_perf);
+        btnGoPerf.setOnClickListener(v -> {
+            Intent intent = new Intent(SettingMainActivity.this, PerfActivity.class);
+            startActivity(intent);
+        });
+
         // 返回主页按钮逻辑
         Button btnBackMain = findViewById(R.id.btn_back_main);
         btnBackMain.setOnClickListener(v -> {
@@ -0,0 +1,109 @@
+package com.example.todolist.adapter;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * 在后台线程计算新旧列表的差异，再回到主线程把增删改派发给 Adapter。
+ * <p>
+ * 与 AsyncListDiffer 的作用相同，但当前列表是可变的：拖拽排序时 Adapter 可以直接在上面移动并
+ * notifyItemMoved，不必等待一次异步 diff。列表项在 Adapter 末尾之前排列（末尾的"添加"按钮不参与 diff）。
+ */
+class BackgroundListDiffer<T> {
+    private static final Executor DIFF_EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private final RecyclerView.Adapter<?> adapter;
+    private final DiffUtil.ItemCallback<T> itemCallback;
+    private final List<T> items = new ArrayList<>();
+    private int generation = 0;
+
+    BackgroundListDiffer(@NonNull RecyclerView.Adapter<?> adapter, @NonNull DiffUtil.ItemCallback<T> itemCallback) {
+        this.adapter = adapter;
+        this.itemCallback = itemCallback;
+    }
+
+    // 当前显示的列表（可变，仅在主线程访问）
+    List<T> getItems() {
+        return items;
+    }
+
+    void submitList(List<T> newList) {
+        submitList(newList, null);
+    }
+
+    /**
+     * 提交新列表。差异在后台计算，完成后在主线程应用并执行 commitCallback。
+     * 如果期间又提交了更新的列表，旧的结果会被丢弃。
+     */
+    void submitList(List<T> newList, Runnable commitCallback) {
+        final int runGeneration = ++generation;
+        final List<T> oldSnapshot = new ArrayList<>(items);
+        final List<T> newSnapshot = newList == null ? new ArrayList<>() : new ArrayList<>(newList);
+
+        // 空列表不需要计算差异，直接整段插入或删除
+        if (oldSnapshot.isEmpty() || newSnapshot.isEmpty()) {
+            items.clear();
+            items.addAll(newSnapshot);
+            if (!oldSnapshot.isEmpty()) adapter.notifyItemRangeRemoved(0, oldSnapshot.size());
+            if (!newSnapshot.isEmpty()) adapter.notifyItemRangeInserted(0, newSnapshot.size());
+            if (commitCallback != null) commitCallback.run();
+            return;
+        }
+
+        DIFF_EXECUTOR.execute(() -> {
+            DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+                @Override
+                public int getOldListSize() {
+                    return oldSnapshot.size();
+                }
+
+                @Override
+                public int getNewListSize() {
+                    return newSnapshot.size();
+                }
+
+                @Override
+                public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                    return itemCallback.areItemsTheSame(oldSnapshot.get(oldPosition), newSnapshot.get(newPosition));
+                }
+
+                @Override
+                public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                    return itemCallback.areContentsTheSame(oldSnapshot.get(oldPosition), newSnapshot.get(newPosition));
+                }
+            });
+
+            MAIN_HANDLER.post(() -> {
+                if (runGeneration != generation) return; // 已有更新的列表
+
+                if (!sameItems(items, oldSnapshot)) {
+                    // 计算期间列表被拖拽改动过，差异已经失效，直接整体替换
+                    items.clear();
+                    items.addAll(newSnapshot);
+                    adapter.notifyDataSetChanged();
+                } else {
+                    items.clear();
+                    items.addAll(newSnapshot);
+                    result.dispatchUpdatesTo(adapter);
+                }
+                if (commitCallback != null) commitCallback.run();
+            });
+        });
+    }
+
+    private static <T> boolean sameItems(List<T> a, List<T> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) return false;
+        }
+        return true;
+    }
+}
@@ -5,24 +5,47 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.CheckBox;
-import android.widget.LinearLayout;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.todolist.R;
 import com.example.todolist.model.DailyTask;
+import com.example.todolist.model.HabitStats;
+import com.example.todolist.ui.WeekStripView;
+import com.example.todolist.util.PerfTracker;
 import java.util.List;
+import java.util.Objects;
 
 public class DailyTaskAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
     private static final int TYPE_ADD_BUTTON = 0;
     private static final int TYPE_TASK_ITEM = 1;
 
-    private List<DailyTask> taskList;
+    private static final long ADD_BUTTON_ID = Long.MIN_VALUE;
+
+    private static final DiffUtil.ItemCallback<DailyTask> DIFF_CALLBACK = new DiffUtil.ItemCallback<DailyTask>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull DailyTask oldItem, @NonNull DailyTask newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull DailyTask oldItem, @NonNull DailyTask newItem) {
+            return Objects.equals(oldItem.getContent(), newItem.getContent())
+                    && oldItem.isCompletedToday() == newItem.isCompletedToday();
+        }
+    };
+
+    private final BackgroundListDiffer<DailyTask> differ;
+    private final List<DailyTask> taskList; // 当前显示的列表，由 differ 维护
     private OnTaskClickListener listener;
 
-    public DailyTaskAdapter(List<DailyTask> taskList, OnTaskClickListener listener) {
-        this.taskList = taskList;
+    public DailyTaskAdapter(List<DailyTask> tasks, OnTaskClickListener listener) {
         this.listener = listener;
+        this.differ = new BackgroundListDiffer<>(this, DIFF_CALLBACK);
+        this.taskList = differ.getItems();
+        setHasStableIds(true);
+        differ.submitList(tasks);
     }
 
     @Override
@@ -30,6 +53,26 @@ public class DailyTaskAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
         return position == taskList.size() ? TYPE_ADD_BUTTON : TYPE_TASK_ITEM;
     }
 
+    @Override
+    public long getItemId(int position) {
+        return position < taskList.size() ? taskList.get(position).getId() : ADD_BUTTON_ID;
+    }
+
+    // 提交新的列表：差异在后台计算，只刷新真正变化的行
+    public void submitList(List<DailyTask> newTaskList) {
+        differ.submitList(newTaskList);
+    }
+
+    // 某个任务被修改（内容、勾选）后只刷新这一行
+    public void notifyTaskChanged(DailyTask task) {
+        for (int i = 0; i < taskList.size(); i++) {
+            if (taskList.get(i).getId() == task.getId()) {
+                notifyItemChanged(i);
+                return;
+            }
+        }
+    }
+
     @NonNull
     @Override
     public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -46,11 +89,16 @@ public class DailyTaskAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
-        if (holder.getItemViewType() == TYPE_ADD_BUTTON) {
-            ((AddButtonViewHolder) holder).bind();
-        } else {
-            DailyTask task = taskList.get(position);
-            ((TaskViewHolder) holder).bind(task);
+        long start = PerfTracker.begin(PerfTracker.BIND_DAILY);
+        try {
+            if (holder.getItemViewType() == TYPE_ADD_BUTTON) {
+                ((AddButtonViewHolder) holder).bind();
+            } else {
+                DailyTask task = taskList.get(position);
+                ((TaskViewHolder) holder).bind(task);
+            }
+        } finally {
+            PerfTracker.end(PerfTracker.BIND_DAILY, start);
         }
     }
 
@@ -84,14 +132,21 @@ public class DailyTaskAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
         TextView taskContent;
         CheckBox completionCheckbox;
         Button deleteButton;
-        LinearLayout weekIndicatorLayout;
+        WeekStripView weekStrip;
+        TextView statsText;
+        TextView weekdayText;
+        final String[] weekdayLabels;
+        final StringBuilder weekdayBuilder = new StringBuilder();
 
         TaskViewHolder(View itemView) {
             super(itemView);
             taskContent = itemView.findViewById(R.id.taskContent);
             completionCheckbox = itemView.findViewById(R.id.completionCheckbox);
             deleteButton = itemView.findViewById(R.id.deleteButton);
-            weekIndicatorLayout = itemView.findViewById(R.id.weekIndicatorLayout);
+            weekStrip = itemView.findViewById(R.id.weekIndicatorStrip);
+            statsText = itemView.findViewById(R.id.habitStatsText);
+            weekdayText = itemView.findViewById(R.id.habitWeekdayText);
+            weekdayLabels = itemView.getResources().getStringArray(R.array.daily_task_weekdays);
 
             // 设置任务内容的点击监听（用于编辑）
             taskContent.setOnClickListener(v -> {
@@ -153,105 +208,33 @@ public class DailyTaskAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
             });
 
             updateWeekIndicators(task);
+            bindStats(task.getStats());
         }
 
-        private void updateWeekIndicators(DailyTask task) {
-            weekIndicatorLayout.removeAllViews();
-
-            for (int i = 0; i < 10; i++) {
-                View weekView = new View(itemView.getContext());
-                int totalCompletionCount = task.getWeekTotalCompletionCount(i);
-
-                LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
-                        0, // width will be set by weight
-                        20, // height in dp
-                        1.0f // weight
-                );
-                params.setMargins(2, 0, 2, 0);
-                weekView.setLayoutParams(params);
-
-                // 根据完成次数设置颜色
-                int color = getColorForCompletion(totalCompletionCount);
-                weekView.setBackgroundColor(color);
-
-                weekIndicatorLayout.addView(weekView);
+        // 统计值已经由 DailyTaskManager 增量维护好，这里只做格式化
+        private void bindStats(HabitStats stats) {
+            if (stats == null) {
+                statsText.setText("");
+                weekdayText.setText("");
+                return;
             }
-        }
-
-        /**
-         * 根据完成次数返回不同的颜色
-         * 0次: 灰色 (#E0E0E0)
-         * 1-3次: 蓝色渐变，从浅蓝到深蓝
-         * 4-6次: 绿色渐变，从浅绿到深绿
-         * 7次及以上: 金色
-         */
-        private int getColorForCompletion(int totalCompletionCount) {
-            if (totalCompletionCount <= 0) {
-                return 0xFFE0E0E0; // 灰色
-            } else if (totalCompletionCount <= 3) {
-                // 蓝色渐变：1-3次
-                return getBlueColorForCount(totalCompletionCount, 3);
-            } else if (totalCompletionCount <= 6) {
-                // 绿色渐变：4-6次
-                return getGreenColorForCount(totalCompletionCount, 3, 6);
-            } else {
-                return 0xFFFFD700; // 金色
+            statsText.setText(itemView.getContext().getString(R.string.daily_task_stats,
+                    stats.getCurrentStreak(),
+                    stats.getLongestStreak(),
+                    Math.round(stats.getMovingAverage() * 100)));
+
+            // 形如"日 80% 一 60% 二 100% …"，周日在前
+            weekdayBuilder.setLength(0);
+            for (int weekday = 0; weekday < 7; weekday++) {
+                if (weekday > 0) weekdayBuilder.append("  ");
+                weekdayBuilder.append(weekdayLabels[weekday]).append(' ')
+                        .append(Math.round(stats.getWeekdayRate(weekday) * 100)).append('%');
             }
+            weekdayText.setText(weekdayBuilder.toString());
         }
 
-        /**
-         * 获取蓝色渐变颜色
-         * @param count 当前完成次数
-         * @param maxCount 最大次数
-         */
-        private int getBlueColorForCount(int count, int maxCount) {
-            // 蓝色基础颜色：从浅蓝(0xFF81D4FA)到深蓝(0xFF1976D2)
-            float ratio = (float) count / maxCount;
-
-            int startColor = 0xFF81D4FA; // 浅蓝色
-            int endColor = 0xFF1976D2;   // 深蓝色
-
-            int startRed = (startColor >> 16) & 0xFF;
-            int startGreen = (startColor >> 8) & 0xFF;
-            int startBlue = startColor & 0xFF;
-
-            int endRed = (endColor >> 16) & 0xFF;
-            int endGreen = (endColor >> 8) & 0xFF;
-            int endBlue = endColor & 0xFF;
-
-            int red = (int) (startRed + (endRed - startRed) * ratio);
-            int green = (int) (startGreen + (endGreen - startGreen) * ratio);
-            int blue = (int) (startBlue + (endBlue - startBlue) * ratio);
-
-            return 0xFF000000 | (red << 16) | (green << 8) | blue;
-        }
-
-        /**
-         * 获取绿色渐变颜色
-         * @param count 当前完成次数
-         * @param minCount 最小次数
-         * @param maxCount 最大次数
-         */
-        private int getGreenColorForCount(int count, int minCount, int maxCount) {
-            // 绿色基础颜色：从浅绿(0xFFA5D6A7)到深绿(0xFF2E7D32)
-            float ratio = (float) (count - minCount) / (maxCount - minCount);
-
-            int startColor = 0xFFA5D6A7; // 浅绿色
-            int endColor = 0xFF2E7D32;   // 深绿色
-
-            int startRed = (startColor >> 16) & 0xFF;
-            int startGreen = (startColor >> 8) & 0xFF;
-            int startBlue = startColor & 0xFF;
-
-            int endRed = (endColor >> 16) & 0xFF;
-            int endGreen = (endColor >> 8) & 0xFF;
-            int endBlue = endColor & 0xFF;
-
-            int red = (int) (startRed + (endRed - startRed) * ratio);
-            int green = (int) (startGreen + (endGreen - startGreen) * ratio);
-            int blue = (int) (startBlue + (endBlue - startBlue) * ratio);
-
-            return 0xFF000000 | (red << 16) | (green << 8) | blue;
+        private void updateWeekIndicators(DailyTask task) {
+            weekStrip.setTask(task);
         }
     }
 
@@ -13,12 +13,14 @@ import android.widget.ScrollView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
+import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.todolist.R;
 import com.example.todolist.data.Data;
 import com.example.todolist.model.Day;
 import com.example.todolist.model.Schedule;
 import com.example.todolist.model.Week;
+import com.example.todolist.util.PerfTracker;
 import com.example.todolist.ScheduleEditorActivity;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
@@ -27,6 +29,15 @@ import java.util.Locale;
 public class DayPagerAdapter extends RecyclerView.Adapter<DayPagerAdapter.DayViewHolder> {
     private Week week; 
     private LocalDate baseDate; 
+    private boolean preview = false; // 正在显示启动快照，行程不能点开编辑
+    private OnEditScheduleListener editListener;
+
+    /**
+     * 点了详情里的"编辑"：由宿主启动编辑页并接收结果，保存后只需刷新显示。
+     */
+    public interface OnEditScheduleListener {
+        void onEditSchedule(Intent intent);
+    }
     
     public static final int START_POSITION = Integer.MAX_VALUE / 2;
 
@@ -40,6 +51,10 @@ public class DayPagerAdapter extends RecyclerView.Adapter<DayPagerAdapter.DayVie
         this.baseDate = baseDate;
     }
     
+    public void setOnEditScheduleListener(OnEditScheduleListener listener) {
+        this.editListener = listener;
+    }
+
     public LocalDate getDateAtPosition(int position) {
         return baseDate.plusDays(position - START_POSITION);
     }
@@ -50,6 +65,16 @@ public class DayPagerAdapter extends RecyclerView.Adapter<DayPagerAdapter.DayVie
 
     public void updateData(Week week) {
         this.week = week;
+        this.preview = false;
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 显示启动快照。快照里的 Day 不对应数据库中的记录，真实数据到达前不响应点击。
+     */
+    public void showPreview(Week week) {
+        this.week = week;
+        this.preview = true;
         notifyDataSetChanged();
     }
 
@@ -62,15 +87,22 @@ public class DayPagerAdapter extends RecyclerView.Adapter<DayPagerAdapter.DayVie
 
     @Override
     public void onBindViewHolder(@NonNull DayViewHolder holder, int position) {
-        LocalDate date = getDateAtPosition(position);
-        Day day = week.getDayForDate(date);
-        
-        if (day == null) {
-            day = new Day(date);
-            day.setActiveHours(8, 22);
+        long start = PerfTracker.begin(PerfTracker.BIND_DAY);
+        try {
+            LocalDate date = getDateAtPosition(position);
+            long lookupStart = PerfTracker.begin(PerfTracker.WEEK_GET_DAY);
+            Day day = week.getDayForDate(date);
+            PerfTracker.end(PerfTracker.WEEK_GET_DAY, lookupStart);
+
+            if (day == null) {
+                day = new Day(date);
+                day.setActiveHours(8, 22);
+            }
+
+            holder.bind(day);
+        } finally {
+            PerfTracker.end(PerfTracker.BIND_DAY, start);
         }
-        
-        holder.bind(day);
     }
 
     @Override
@@ -209,6 +241,7 @@ public class DayPagerAdapter extends RecyclerView.Adapter<DayPagerAdapter.DayVie
             container.addView(card, params);
             
             card.setOnClickListener(v -> {
+                if (preview) return;
                 try {
                     showScheduleDetailDialog(itemView.getContext(), schedule, day);
                 } catch (Exception e) {
@@ -238,12 +271,14 @@ public class DayPagerAdapter extends RecyclerView.Adapter<DayPagerAdapter.DayVie
 
             tvName.setText(schedule.getName());
             
-            if (schedule.getNote() != null) {
-                tvNoteName.setText(schedule.getNote().getName() != null ? schedule.getNote().getName() : "备注");
-                tvNoteContent.setText(schedule.getNote().getContent() != null ? schedule.getNote().getContent() : "");
+            tvNoteName.setText(schedule.getNote().getName() != null ? schedule.getNote().getName() : "备注");
+            // 备注正文不随课表加载，打开详情时在后台读取
+            if (schedule.getNote().isContentLoaded()) {
+                tvNoteContent.setText(schedule.getNote().getContent());
             } else {
-                tvNoteName.setText("备注");
-                tvNoteContent.setText("");
+                tvNoteContent.setText("加载中…");
+                Data.getInstance().loadNoteContent(schedule).thenAcceptAsync(
+                        tvNoteContent::setText, ContextCompat.getMainExecutor(context));
             }
 
             btnConfirm.setOnClickListener(v -> dialog.dismiss());
@@ -261,23 +296,18 @@ public class DayPagerAdapter extends RecyclerView.Adapter<DayPagerAdapter.DayVie
             btnEdit.setOnClickListener(v -> {
                 dialog.dismiss();
                 Intent intent = new Intent(context, ScheduleEditorActivity.class);
-                // 传递当前 Schedule 的数据，以便回显
+                // 只传行程 ID，编辑页按 ID 取行程并只更新这一行
                 intent.putExtra("isEditMode", true);
-                intent.putExtra("name", schedule.getName());
-                intent.putExtra("start", schedule.getStartTime());
-                intent.putExtra("end", schedule.getEndTime());
-                intent.putExtra("color", schedule.getColorArgb());
-                if (schedule.getNote() != null) {
-                    intent.putExtra("noteName", schedule.getNote().getName());
-                    intent.putExtra("noteContent", schedule.getNote().getContent());
-                }
-                // 注意：这里最好也能传回它属于哪个 Day，以便保存时更新正确的 Day
-                // 简单起见，我们传 Day 的日期
+                intent.putExtra("scheduleId", schedule.getDatabaseId());
                 if (day != null && day.getDate() != null) {
                     intent.putExtra("targetDate", day.getDate().toString());
                 }
                 
-                context.startActivity(intent);
+                if (editListener != null) {
+                    editListener.onEditSchedule(intent);
+                } else {
+                    context.startActivity(intent);
+                }
             });
 
             dialog.show();
@@ -7,25 +7,49 @@ import android.widget.Button;
 import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.todolist.R;
 import com.example.todolist.model.TodoTask;
+import com.example.todolist.util.PerfTracker;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 public class TodoAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
     private static final int TYPE_ADD_BUTTON = 0;
     private static final int TYPE_TASK_ITEM = 1;
 
-    private List<TodoTask> taskList;
+    private static final long ADD_BUTTON_ID = Long.MIN_VALUE;
+    private static final Object PAYLOAD_NUMBER = new Object(); // 只刷新序号
+
+    private static final DiffUtil.ItemCallback<TodoTask> DIFF_CALLBACK = new DiffUtil.ItemCallback<TodoTask>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull TodoTask oldItem, @NonNull TodoTask newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull TodoTask oldItem, @NonNull TodoTask newItem) {
+            return Objects.equals(oldItem.getContent(), newItem.getContent());
+        }
+    };
+
+    private final BackgroundListDiffer<TodoTask> differ;
+    private final List<TodoTask> taskList; // 当前显示的列表，由 differ 维护
     private OnTodoTaskClickListener listener;
     private ItemTouchHelper touchHelper;
     private boolean isDragging = false;
+    private TodoTask draggedTask;
+    private int numberOffset = 0; // 列表只加载了一部分时，窗口之前的任务数
 
-    public TodoAdapter(List<TodoTask> taskList, OnTodoTaskClickListener listener) {
-        this.taskList = taskList;
+    public TodoAdapter(List<TodoTask> tasks, OnTodoTaskClickListener listener) {
         this.listener = listener;
+        this.differ = new BackgroundListDiffer<>(this, DIFF_CALLBACK);
+        this.taskList = differ.getItems();
+        setHasStableIds(true);
+        differ.submitList(tasks);
     }
 
     public void setTouchHelper(ItemTouchHelper touchHelper) {
@@ -37,6 +61,11 @@ public class TodoAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         return position == taskList.size() ? TYPE_ADD_BUTTON : TYPE_TASK_ITEM;
     }
 
+    @Override
+    public long getItemId(int position) {
+        return position < taskList.size() ? taskList.get(position).getId() : ADD_BUTTON_ID;
+    }
+
     @NonNull
     @Override
     public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -53,11 +82,25 @@ public class TodoAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
-        if (holder.getItemViewType() == TYPE_ADD_BUTTON) {
-            ((AddButtonViewHolder) holder).bind();
+        long start = PerfTracker.begin(PerfTracker.BIND_TODO);
+        try {
+            if (holder.getItemViewType() == TYPE_ADD_BUTTON) {
+                ((AddButtonViewHolder) holder).bind();
+            } else {
+                TodoTask task = taskList.get(position);
+                ((TaskViewHolder) holder).bind(task, position);
+            }
+        } finally {
+            PerfTracker.end(PerfTracker.BIND_TODO, start);
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_NUMBER) && holder instanceof TaskViewHolder) {
+            ((TaskViewHolder) holder).bindNumber(position);
         } else {
-            TodoTask task = taskList.get(position);
-            ((TaskViewHolder) holder).bind(task, position);
+            onBindViewHolder(holder, position);
         }
     }
 
@@ -66,27 +109,45 @@ public class TodoAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         return taskList.size() + 1; // +1 for add button
     }
 
-    // 更新数据并刷新
-    public void updateData(List<TodoTask> newTaskList) {
-        this.taskList = newTaskList;
-        notifyDataSetChanged();
+    // 提交新的列表：差异在后台计算，只刷新真正变化的行
+    public void submitList(List<TodoTask> newTaskList) {
+        submitList(newTaskList, null);
+    }
+
+    // commitCallback 在新列表真正显示出来之后执行
+    public void submitList(List<TodoTask> newTaskList, Runnable commitCallback) {
+        differ.submitList(newTaskList, () -> {
+            // 增删会让后面的序号整体偏移，只重绑序号文本
+            notifyItemRangeChanged(0, taskList.size(), PAYLOAD_NUMBER);
+            if (commitCallback != null) commitCallback.run();
+        });
+    }
+
+    // 设置序号的起始偏移，在下一次 submitList 提交后生效
+    public void setNumberOffset(int numberOffset) {
+        this.numberOffset = numberOffset;
+    }
+
+    // 某个任务的内容被修改后只刷新这一行
+    public void notifyTaskChanged(TodoTask task) {
+        for (int i = 0; i < taskList.size(); i++) {
+            if (taskList.get(i).getId() == task.getId()) {
+                notifyItemChanged(i);
+                return;
+            }
+        }
     }
 
     // 方案1：使用Collections.swap实现相邻交换（支持实时刷新）
     public void onItemSwap(int fromPosition, int toPosition) {
+        rememberDraggedTask(fromPosition);
         if (fromPosition < toPosition) {
             for (int i = fromPosition; i < toPosition; i++) {
                 Collections.swap(taskList, i, i + 1);
-                // 更新优先级
-                taskList.get(i).setPriority(i);
-                taskList.get(i + 1).setPriority(i + 1);
             }
         } else {
             for (int i = fromPosition; i > toPosition; i--) {
                 Collections.swap(taskList, i, i - 1);
-                // 更新优先级
-                taskList.get(i).setPriority(i);
-                taskList.get(i - 1).setPriority(i - 1);
             }
         }
 
@@ -97,11 +158,6 @@ public class TodoAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         int start = Math.min(fromPosition, toPosition);
         int end = Math.max(fromPosition, toPosition);
         notifyItemRangeChanged(start, end - start + 1);
-
-        // 立即更新优先级
-        if (listener != null) {
-            listener.Todo_onPriorityChange(taskList);
-        }
     }
 
     // 方案2：直接移动项目到任意位置（支持任意位置移动）
@@ -110,6 +166,7 @@ public class TodoAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
                 fromPosition >= taskList.size() || toPosition >= taskList.size()) {
             return;
         }
+        rememberDraggedTask(fromPosition);
 
         // 保存要移动的项目
         TodoTask movedTask = taskList.get(fromPosition);
@@ -120,23 +177,26 @@ public class TodoAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         // 插入到新位置
         taskList.add(toPosition, movedTask);
 
-        // 更新所有任务的优先级
-        updateAllPriorities();
-
         // 通知项目移动
         notifyItemMoved(fromPosition, toPosition);
 
-        // 刷新所有项目的序号（因为位置都变了）
-        notifyItemRangeChanged(0, taskList.size());
+        // 只刷新移动范围内的序号
+        int start = Math.min(fromPosition, toPosition);
+        int end = Math.max(fromPosition, toPosition);
+        notifyItemRangeChanged(start, end - start + 1);
     }
 
-    // 更新所有任务的优先级
-    private void updateAllPriorities() {
-        for (int i = 0; i < taskList.size(); i++) {
-            taskList.get(i).setPriority(i);
+    // 记录本次拖拽中被移动的任务，松手时只需要保存这一项
+    private void rememberDraggedTask(int fromPosition) {
+        if (draggedTask == null && fromPosition >= 0 && fromPosition < taskList.size()) {
+            draggedTask = taskList.get(fromPosition);
         }
     }
 
+    public boolean isDragging() {
+        return isDragging;
+    }
+
     // 拖拽开始
     public void onDragStart() {
         isDragging = true;
@@ -145,9 +205,14 @@ public class TodoAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
     // 拖拽结束
     public void onDragEnd() {
         isDragging = false;
-        // 拖拽结束时保存优先级
-        if (listener != null) {
-            listener.Todo_onPriorityChange(taskList);
+        // 拖拽结束时只保存被移动任务的新位置
+        if (draggedTask != null) {
+            TodoTask movedTask = draggedTask;
+            draggedTask = null;
+            int position = taskList.indexOf(movedTask);
+            if (listener != null && position != -1) {
+                listener.Todo_onTaskMoved(movedTask, position);
+            }
         }
     }
 
@@ -224,8 +289,7 @@ public class TodoAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         }
 
         void bind(TodoTask task, int position) {
-            // 显示序号（位置+1）
-            taskNumber.setText(String.valueOf(position + 1));
+            bindNumber(position);
             taskContent.setText(task.getContent());
 
             // 设置拖拽状态
@@ -235,12 +299,17 @@ public class TodoAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
                 itemView.setAlpha(1.0f);
             }
         }
+
+        void bindNumber(int position) {
+            // 显示序号（窗口偏移+位置+1）
+            taskNumber.setText(String.valueOf(numberOffset + position + 1));
+        }
     }
 
     public interface OnTodoTaskClickListener {
         void Todo_onAddTaskClick();
         void Todo_onEditTaskClick(TodoTask task); // 新增：编辑任务
         void Todo_onDeleteClick(TodoTask task);
-        void Todo_onPriorityChange(List<TodoTask> tasks);
+        void Todo_onTaskMoved(TodoTask task, int toPosition); // 拖拽结束，任务被移动到 toPosition
     }
 }
\ No newline at end of file
@@ -1,31 +1,129 @@
 package com.example.todolist.data;
 
 import android.content.Context;
+import android.database.Cursor;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
-@Database(entities = {ScheduleEntity.class, DayEntity.class}, version = 2, exportSchema = false)
+@Database(entities = {ScheduleEntity.class, DayEntity.class, ScheduleStringEntity.class}, version = 4, exportSchema = false)
 @TypeConverters({Converters.class})
 public abstract class AppDatabase extends RoomDatabase {
     public abstract ScheduleDao scheduleDao();
     public abstract DayDao dayDao();
+    public abstract ScheduleStringDao scheduleStringDao();
 
     private static volatile AppDatabase INSTANCE;
 
+    // 课表全文索引：镜像 schedules 的名称和备注。名称和备注标题存的是字典 ID，在视图里连接换回文本
+    static final SearchIndex SCHEDULE_SEARCH_INDEX = SearchIndex.overJoin("schedules_fts", "schedules_text", "schedules",
+            "schedules s" +
+                    " LEFT JOIN schedule_strings n ON n.id = s.name_id" +
+                    " LEFT JOIN schedule_strings nn ON nn.id = s.note_name_id",
+            "s.id",
+            new String[]{"name", "note_name", "note_content"},
+            new String[]{"n.text", "nn.text", "s.note_content"},
+            new String[]{"name_id", "note_name_id", "note_content"});
+
+    // 版本 3：名称和备注标题改存 schedule_strings 字典的 ID。旧索引挂在旧表上，删掉后由 onOpen 重建
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            for (String sql : SCHEDULE_SEARCH_INDEX.dropStatements()) {
+                db.execSQL(sql);
+            }
+            db.execSQL("CREATE TABLE IF NOT EXISTS `schedule_strings` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`text` TEXT NOT NULL)");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_schedule_strings_text` ON `schedule_strings` (`text`)");
+            db.execSQL("INSERT OR IGNORE INTO schedule_strings (text) " +
+                    "SELECT name FROM schedules WHERE name IS NOT NULL " +
+                    "UNION SELECT note_name FROM schedules WHERE note_name IS NOT NULL");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS `schedules_new` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`startTime` INTEGER NOT NULL, `endTime` INTEGER NOT NULL, `name_id` INTEGER, `note_name_id` INTEGER, " +
+                    "`note_content` TEXT, `colorArgb` INTEGER NOT NULL, `isTemporarySchedule` INTEGER NOT NULL, " +
+                    "`day_id` INTEGER NOT NULL, FOREIGN KEY(`day_id`) REFERENCES `days`(`id`) " +
+                    "ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("INSERT INTO schedules_new (id, startTime, endTime, name_id, note_name_id, note_content, " +
+                    "colorArgb, isTemporarySchedule, day_id) " +
+                    "SELECT s.id, s.startTime, s.endTime, " +
+                    "(SELECT id FROM schedule_strings WHERE text = s.name), " +
+                    "(SELECT id FROM schedule_strings WHERE text = s.note_name), " +
+                    "s.note_content, s.colorArgb, s.isTemporarySchedule, s.day_id FROM schedules s");
+            db.execSQL("DROP TABLE schedules");
+            db.execSQL("ALTER TABLE schedules_new RENAME TO schedules");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_schedules_day_id` ON `schedules` (`day_id`)");
+        }
+    };
+
+    // 版本 4：索引改为经过逐字分词的视图，汉字可以按子串搜索。删掉旧索引，由 onOpen 按新定义重建
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            for (String sql : SCHEDULE_SEARCH_INDEX.dropStatements()) {
+                db.execSQL(sql);
+            }
+        }
+    };
+
+    // 全文索引不是 Room 实体，由回调在打开数据库时补建；破坏性迁移后原表被重建，索引也随之重建
+    static final Callback SEARCH_INDEX_CALLBACK = new Callback() {
+        @Override
+        public void onOpen(SupportSQLiteDatabase db) {
+            // 改名、删除行程后不再被引用的字典项，在这里顺便清掉
+            db.execSQL("DELETE FROM schedule_strings" +
+                    " WHERE id NOT IN (SELECT name_id FROM schedules WHERE name_id IS NOT NULL)" +
+                    " AND id NOT IN (SELECT note_name_id FROM schedules WHERE note_name_id IS NOT NULL)");
+
+            Cursor cursor = db.query("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?",
+                    new Object[]{SCHEDULE_SEARCH_INDEX.ftsTable});
+            boolean exists;
+            try {
+                exists = cursor.moveToFirst();
+            } finally {
+                cursor.close();
+            }
+            if (exists) return;
+
+            for (String sql : SCHEDULE_SEARCH_INDEX.createStatements()) {
+                db.execSQL(sql);
+            }
+            db.execSQL(SCHEDULE_SEARCH_INDEX.rebuildStatement());
+        }
+
+        @Override
+        public void onDestructiveMigration(SupportSQLiteDatabase db) {
+            for (String sql : SCHEDULE_SEARCH_INDEX.dropStatements()) {
+                db.execSQL(sql);
+            }
+        }
+    };
+
     public static AppDatabase getDatabase(final Context context) {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
                 if (INSTANCE == null) {
-                    INSTANCE = Room.databaseBuilder(context.getApplicationContext(),
-                            AppDatabase.class, "schedule_database")
-                            .fallbackToDestructiveMigration() // 注意：这将清除旧数据！开发阶段可以使用。
-                            .allowMainThreadQueries() 
-                            .build();
+                    INSTANCE = build(context, "schedule_database");
                 }
             }
         }
         return INSTANCE;
     }
+
+    // 与正式数据库配置相同、但文件名不同的实例（基准和测试使用）
+    static AppDatabase build(Context context, String databaseName) {
+        QueryLog.init(context);
+        return Room.databaseBuilder(context.getApplicationContext(),
+                AppDatabase.class, databaseName)
+                .addMigrations(MIGRATION_2_3, MIGRATION_3_4)
+                .fallbackToDestructiveMigration() // 注意：没有迁移路径的旧版本（1）仍会清除数据
+                .allowMainThreadQueries() 
+                .addCallback(SEARCH_INDEX_CALLBACK)
+                // 每条语句都记入查询日志；直接在执行语句的线程上回调，才能知道调用线程和开始时间
+                .setQueryCallback(QueryLog::onRoomQuery, Runnable::run)
+                .build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.example.todolist.data;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.todolist.model.Week;
+import com.example.todolist.util.StartupPipeline;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 冷启动时并行打开三个数据源：课表（Room）、待办事项和每日任务（各自的 SQLite 数据库）。
+ * <p>
+ * 每个数据源在自己的后台线程上完成打开数据库、升级和首屏数据的加载，界面拿到对应的 future 后
+ * 各自在主线程上显示，互不等待。每个结果只能取走一次，三个都被取走后这次启动就结束了，
+ * 之后再调用 start 会重新开始一次。
+ * <p>
+ * 设置了密码时，锁屏界面一出现就调用 start 预热，解锁后 MainActivity 直接取走已经加载好的结果；
+ * 应用在解锁前退到后台时调用 cancel 放弃这次预热。
+ */
+public final class AppStartup {
+    private static final String TAG = "AppStartup";
+    public static final String STAGE_SCHEDULE = "schedule";
+    public static final String STAGE_TODO = "todo";
+    public static final String STAGE_DAILY = "daily";
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(3, runnable -> {
+        Thread thread = new Thread(runnable, "startup-" + threadCount.incrementAndGet());
+        thread.setPriority(Thread.NORM_PRIORITY);
+        return thread;
+    });
+
+    private static AppStartup instance;
+
+    private final StartupPipeline pipeline;
+    private final LocalDate startDate; // 预热时的日期，跨天后结果作废
+    private CompletableFuture<Week> week;
+    private CompletableFuture<TodoManager> todoManager;
+    private CompletableFuture<DailyTaskManager> dailyTaskManager;
+
+    private AppStartup(Context context) {
+        final Context appContext = context.getApplicationContext();
+        pipeline = new StartupPipeline(executor, timing -> Log.i(TAG, timing.toString()));
+        startDate = LocalDate.now();
+
+        week = pipeline.stage(STAGE_SCHEDULE, () -> {
+            Data.init(appContext);
+            Week loaded = new Week(startDate);
+            Data.getInstance().loadAllDataToWeek(loaded);
+            Data.getInstance().writeSnapshot(loaded); // 下次启动先显示这一份
+            return loaded;
+        });
+        todoManager = pipeline.stage(STAGE_TODO, () -> new TodoManager(appContext));
+        dailyTaskManager = pipeline.stage(STAGE_DAILY, () -> new DailyTaskManager(appContext));
+    }
+
+    /**
+     * 开始加载；已经在加载中（或者预热好了还没被取走）时直接返回同一个实例。
+     * 预热的结果是前一天的时，作废重新加载。
+     */
+    public static synchronized AppStartup start(Context context) {
+        if (instance != null && !instance.startDate.equals(LocalDate.now())) {
+            cancel();
+        }
+        if (instance == null) {
+            instance = new AppStartup(context);
+        }
+        return instance;
+    }
+
+    /**
+     * 放弃还没被取走的结果。还没开始的阶段不再执行，已经在执行的会跑完但结果被丢弃；
+     * 已经被取走的结果不受影响。
+     */
+    public static synchronized void cancel() {
+        if (instance == null) return;
+        Log.i(TAG, "startup cancelled");
+        instance.pipeline.cancel();
+        instance = null;
+    }
+
+    // 取走本周课表，已被取走或没有启动时返回 null（调用方自己同步加载）
+    public static synchronized CompletableFuture<Week> takeWeek() {
+        if (instance == null) return null;
+        CompletableFuture<Week> result = instance.week;
+        instance.week = null;
+        instance.releaseIfDone();
+        return result;
+    }
+
+    public static synchronized CompletableFuture<TodoManager> takeTodoManager() {
+        if (instance == null) return null;
+        CompletableFuture<TodoManager> result = instance.todoManager;
+        instance.todoManager = null;
+        instance.releaseIfDone();
+        return result;
+    }
+
+    public static synchronized CompletableFuture<DailyTaskManager> takeDailyTaskManager() {
+        if (instance == null) return null;
+        CompletableFuture<DailyTaskManager> result = instance.dailyTaskManager;
+        instance.dailyTaskManager = null;
+        instance.releaseIfDone();
+        return result;
+    }
+
+    public StartupPipeline getPipeline() {
+        return pipeline;
+    }
+
+    private void releaseIfDone() {
+        if (week == null && todoManager == null && dailyTaskManager == null) {
+            instance = null;
+        }
+    }
+}
@@ -5,77 +5,292 @@ import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import com.example.todolist.model.DailyTask;
-import org.json.JSONArray;
-import org.json.JSONException;
+import com.example.todolist.model.HabitStats;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Locale;
 
 public class DailyTaskDao {
+    // 数据库连接由 dbHelper 长期持有，操作后不再 close()，避免每次打卡都重新打开数据库
     private DailyTaskDbHelper dbHelper;
 
     public DailyTaskDao(Context context) {
         dbHelper = new DailyTaskDbHelper(context);
     }
 
+    // 使用指定的数据库文件（测试 / 基准测试使用）
+    public DailyTaskDao(Context context, String databaseName) {
+        dbHelper = new DailyTaskDbHelper(context, databaseName);
+    }
+
+    // 所有语句都经过 LoggedDatabase，计入查询日志
+    private LoggedDatabase writable() {
+        return new LoggedDatabase(dbHelper.getWritableDatabase());
+    }
+
+    private LoggedDatabase readable() {
+        return new LoggedDatabase(dbHelper.getReadableDatabase());
+    }
+
     // 插入新任务
     public long insertTask(DailyTask task) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        LoggedDatabase db = writable();
 
         ContentValues values = new ContentValues();
         values.put(DailyTaskDbHelper.COLUMN_CONTENT, task.getContent());
         values.put(DailyTaskDbHelper.COLUMN_COMPLETED_TODAY, task.isCompletedToday() ? 1 : 0);
         values.put(DailyTaskDbHelper.COLUMN_LAST_COMPLETED_DATE, task.getLastCompletedDate());
         values.put(DailyTaskDbHelper.COLUMN_CREATED_DATE, getCurrentDateTime());
-        values.put(DailyTaskDbHelper.COLUMN_WEEKLY_DATA, weeklyCompletionToJson(task.getWeeklyCompletion()));
 
-        long id = db.insert(DailyTaskDbHelper.TABLE_DAILY_TASKS, null, values);
-        db.close();
-        return id;
+        return db.insert(DailyTaskDbHelper.TABLE_DAILY_TASKS, null, values);
     }
 
     // 更新任务
     // 更新任务（包括内容、完成状态等）
     public int updateTask(DailyTask task) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        LoggedDatabase db = writable();
 
         ContentValues values = new ContentValues();
         values.put(DailyTaskDbHelper.COLUMN_CONTENT, task.getContent());
         values.put(DailyTaskDbHelper.COLUMN_COMPLETED_TODAY, task.isCompletedToday() ? 1 : 0);
         values.put(DailyTaskDbHelper.COLUMN_LAST_COMPLETED_DATE, task.getLastCompletedDate());
-        values.put(DailyTaskDbHelper.COLUMN_WEEKLY_DATA, weeklyCompletionToJson(task.getWeeklyCompletion()));
 
-        int count = db.update(DailyTaskDbHelper.TABLE_DAILY_TASKS, values,
+        return db.update(DailyTaskDbHelper.TABLE_DAILY_TASKS, values,
                 DailyTaskDbHelper.COLUMN_ID + " = ?",
                 new String[]{String.valueOf(task.getId())});
-        db.close();
-        return count;
     }
 
+    /**
+     * 打卡或取消打卡：更新任务的完成状态，并在历史表中把 epochDay 当天的次数加上 delta（不低于 0），
+     * 任务带有统计时一并保存，全部在同一个事务中完成。
+     */
+    public void updateCompletion(DailyTask task, long epochDay, int delta) {
+        LoggedDatabase db = writable();
+        db.beginTransaction();
+        try {
+            ContentValues values = new ContentValues();
+            values.put(DailyTaskDbHelper.COLUMN_COMPLETED_TODAY, task.isCompletedToday() ? 1 : 0);
+            values.put(DailyTaskDbHelper.COLUMN_LAST_COMPLETED_DATE, task.getLastCompletedDate());
+            db.update(DailyTaskDbHelper.TABLE_DAILY_TASKS, values,
+                    DailyTaskDbHelper.COLUMN_ID + " = ?",
+                    new String[]{String.valueOf(task.getId())});
+
+            Object[] key = {task.getId(), epochDay};
+            db.execSQL("INSERT OR IGNORE INTO " + DailyTaskDbHelper.TABLE_HISTORY + " (" +
+                    DailyTaskDbHelper.COLUMN_TASK_ID + ", " + DailyTaskDbHelper.COLUMN_EPOCH_DAY + ", " +
+                    DailyTaskDbHelper.COLUMN_COUNT + ") VALUES (?, ?, 0)", key);
+            db.execSQL("UPDATE " + DailyTaskDbHelper.TABLE_HISTORY + " SET " +
+                    DailyTaskDbHelper.COLUMN_COUNT + " = MAX(" + DailyTaskDbHelper.COLUMN_COUNT + " + ?, 0) WHERE " +
+                    DailyTaskDbHelper.COLUMN_TASK_ID + " = ? AND " + DailyTaskDbHelper.COLUMN_EPOCH_DAY + " = ?",
+                    new Object[]{delta, task.getId(), epochDay});
+
+            if (task.getStats() != null) {
+                saveStats(db, task.getId(), task.getStats());
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
 
-    // 删除任务
+    /**
+     * 跨天重置：最后完成日期不是 today 的任务全部改为未完成，一条语句、一个事务。
+     *
+     * @return 被重置的任务数
+     */
+    public int resetCompletionBefore(String today) {
+        LoggedDatabase db = writable();
+        db.beginTransaction();
+        try {
+            ContentValues values = new ContentValues();
+            values.put(DailyTaskDbHelper.COLUMN_COMPLETED_TODAY, 0);
+            int count = db.update(DailyTaskDbHelper.TABLE_DAILY_TASKS, values,
+                    DailyTaskDbHelper.COLUMN_COMPLETED_TODAY + " != 0 AND (" +
+                            DailyTaskDbHelper.COLUMN_LAST_COMPLETED_DATE + " IS NULL OR " +
+                            DailyTaskDbHelper.COLUMN_LAST_COMPLETED_DATE + " != ?)",
+                    new String[]{today});
+            db.setTransactionSuccessful();
+            return count;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // 删除任务，连同它的历史记录
     public int deleteTask(DailyTask task) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-        int count = db.delete(DailyTaskDbHelper.TABLE_DAILY_TASKS,
-                DailyTaskDbHelper.COLUMN_ID + " = ?",
-                new String[]{String.valueOf(task.getId())});
-        db.close();
-        return count;
+        LoggedDatabase db = writable();
+        String[] args = {String.valueOf(task.getId())};
+        db.beginTransaction();
+        try {
+            db.delete(DailyTaskDbHelper.TABLE_HISTORY, DailyTaskDbHelper.COLUMN_TASK_ID + " = ?", args);
+            db.delete(DailyTaskDbHelper.TABLE_STATS, DailyTaskDbHelper.COLUMN_TASK_ID + " = ?", args);
+            int count = db.delete(DailyTaskDbHelper.TABLE_DAILY_TASKS, DailyTaskDbHelper.COLUMN_ID + " = ?", args);
+            db.setTransactionSuccessful();
+            return count;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * 用一次区间查询从历史表填充每个任务最近 10 周的完成次数（第 0 周是 today 所在的周，周日为一周的第一天）。
+     */
+    public void fillRecentWeeks(List<DailyTask> tasks, long today) {
+        if (tasks.isEmpty()) return;
+        Map<Integer, int[]> countsById = new HashMap<>();
+        for (DailyTask task : tasks) {
+            task.setWeeklyCompletion(new int[DailyTask.WEEKS * DailyTask.DAYS_PER_WEEK]);
+            countsById.put(task.getId(), task.getWeeklyCompletion());
+        }
+
+        long weekStart = weekStartOf(today);
+        long from = weekStart - 7L * (DailyTask.WEEKS - 1);
+        long to = weekStart + DailyTask.DAYS_PER_WEEK - 1;
+
+        LoggedDatabase db = readable();
+        Cursor cursor = db.rawQuery("SELECT " + DailyTaskDbHelper.COLUMN_TASK_ID + ", " +
+                        DailyTaskDbHelper.COLUMN_EPOCH_DAY + ", " + DailyTaskDbHelper.COLUMN_COUNT +
+                        " FROM " + DailyTaskDbHelper.TABLE_HISTORY +
+                        " WHERE " + DailyTaskDbHelper.COLUMN_EPOCH_DAY + " BETWEEN ? AND ?",
+                new String[]{String.valueOf(from), String.valueOf(to)});
+        try {
+            while (cursor.moveToNext()) {
+                int[] counts = countsById.get(cursor.getInt(0));
+                if (counts == null) continue;
+                long day = cursor.getLong(1);
+                int week = (int) ((to - day) / 7);
+                int dayOfWeek = (int) (day - (weekStart - 7L * week));
+                counts[week * DailyTask.DAYS_PER_WEEK + dayOfWeek] = cursor.getInt(2);
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // 某个任务在 [fromDay, toDay] 内有完成记录的天数
+    public int getCompletedDays(int taskId, long fromDay, long toDay) {
+        LoggedDatabase db = readable();
+        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + DailyTaskDbHelper.TABLE_HISTORY +
+                        " WHERE " + DailyTaskDbHelper.COLUMN_TASK_ID + " = ? AND " +
+                        DailyTaskDbHelper.COLUMN_EPOCH_DAY + " BETWEEN ? AND ? AND " +
+                        DailyTaskDbHelper.COLUMN_COUNT + " > 0",
+                new String[]{String.valueOf(taskId), String.valueOf(fromDay), String.valueOf(toDay)});
+        try {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // 所有任务在 [fromDay, toDay] 内有完成记录的天数，key 为任务 ID（没有记录的任务不在结果中）
+    public Map<Integer, Integer> getCompletedDaysForAll(long fromDay, long toDay) {
+        Map<Integer, Integer> result = new HashMap<>();
+        LoggedDatabase db = readable();
+        Cursor cursor = db.rawQuery("SELECT " + DailyTaskDbHelper.COLUMN_TASK_ID + ", COUNT(*) FROM " +
+                        DailyTaskDbHelper.TABLE_HISTORY +
+                        " WHERE " + DailyTaskDbHelper.COLUMN_EPOCH_DAY + " BETWEEN ? AND ? AND " +
+                        DailyTaskDbHelper.COLUMN_COUNT + " > 0 GROUP BY " + DailyTaskDbHelper.COLUMN_TASK_ID,
+                new String[]{String.valueOf(fromDay), String.valueOf(toDay)});
+        try {
+            while (cursor.moveToNext()) {
+                result.put(cursor.getInt(0), cursor.getInt(1));
+            }
+        } finally {
+            cursor.close();
+        }
+        return result;
+    }
+
+    // 某个任务所有完成过的日期（升序），用于第一次建立统计
+    public long[] getDoneDays(int taskId) {
+        LoggedDatabase db = readable();
+        Cursor cursor = db.rawQuery("SELECT " + DailyTaskDbHelper.COLUMN_EPOCH_DAY + " FROM " +
+                        DailyTaskDbHelper.TABLE_HISTORY + " WHERE " + DailyTaskDbHelper.COLUMN_TASK_ID + " = ? AND " +
+                        DailyTaskDbHelper.COLUMN_COUNT + " > 0 ORDER BY " + DailyTaskDbHelper.COLUMN_EPOCH_DAY,
+                new String[]{String.valueOf(taskId)});
+        try {
+            long[] days = new long[cursor.getCount()];
+            int i = 0;
+            while (cursor.moveToNext()) {
+                days[i++] = cursor.getLong(0);
+            }
+            return days;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // 读取所有任务的统计，key 为任务 ID
+    public Map<Integer, HabitStats> getAllStats() {
+        Map<Integer, HabitStats> result = new HashMap<>();
+        LoggedDatabase db = readable();
+        Cursor cursor = db.query(DailyTaskDbHelper.TABLE_STATS, null, null, null, null, null, null);
+        try {
+            int[] weekdayColumns = new int[7];
+            for (int weekday = 0; weekday < 7; weekday++) {
+                weekdayColumns[weekday] = cursor.getColumnIndexOrThrow(DailyTaskDbHelper.COLUMN_WEEKDAY_PREFIX + weekday);
+            }
+            int[] weekdayDone = new int[7];
+            while (cursor.moveToNext()) {
+                for (int weekday = 0; weekday < 7; weekday++) {
+                    weekdayDone[weekday] = cursor.getInt(weekdayColumns[weekday]);
+                }
+                HabitStats stats = HabitStats.restore(
+                        cursor.getLong(cursor.getColumnIndexOrThrow(DailyTaskDbHelper.COLUMN_START_DAY)),
+                        cursor.getLong(cursor.getColumnIndexOrThrow(DailyTaskDbHelper.COLUMN_STATS_DAY)),
+                        cursor.getInt(cursor.getColumnIndexOrThrow(DailyTaskDbHelper.COLUMN_TODAY_DONE)) == 1,
+                        cursor.getInt(cursor.getColumnIndexOrThrow(DailyTaskDbHelper.COLUMN_RUN_BEFORE_TODAY)),
+                        cursor.getInt(cursor.getColumnIndexOrThrow(DailyTaskDbHelper.COLUMN_LONGEST_BEFORE_TODAY)),
+                        weekdayDone,
+                        cursor.getInt(cursor.getColumnIndexOrThrow(DailyTaskDbHelper.COLUMN_RECENT_MASK)));
+                result.put(cursor.getInt(cursor.getColumnIndexOrThrow(DailyTaskDbHelper.COLUMN_TASK_ID)), stats);
+            }
+        } finally {
+            cursor.close();
+        }
+        return result;
+    }
+
+    public void saveStats(int taskId, HabitStats stats) {
+        saveStats(writable(), taskId, stats);
+    }
+
+    private static void saveStats(LoggedDatabase db, int taskId, HabitStats stats) {
+        ContentValues values = new ContentValues();
+        values.put(DailyTaskDbHelper.COLUMN_TASK_ID, taskId);
+        values.put(DailyTaskDbHelper.COLUMN_START_DAY, stats.getStartDay());
+        values.put(DailyTaskDbHelper.COLUMN_STATS_DAY, stats.getDay());
+        values.put(DailyTaskDbHelper.COLUMN_TODAY_DONE, stats.isTodayDone() ? 1 : 0);
+        values.put(DailyTaskDbHelper.COLUMN_RUN_BEFORE_TODAY, stats.getRunBeforeToday());
+        values.put(DailyTaskDbHelper.COLUMN_LONGEST_BEFORE_TODAY, stats.getLongestBeforeToday());
+        values.put(DailyTaskDbHelper.COLUMN_RECENT_MASK, stats.getRecentMask());
+        for (int weekday = 0; weekday < 7; weekday++) {
+            values.put(DailyTaskDbHelper.COLUMN_WEEKDAY_PREFIX + weekday, stats.getWeekdayDone(weekday));
+        }
+        db.insertWithOnConflict(DailyTaskDbHelper.TABLE_STATS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    // epochDay 所在周的周日
+    static long weekStartOf(long epochDay) {
+        int dayOfWeek = LocalDate.ofEpochDay(epochDay).getDayOfWeek().getValue() % 7; // 周日=0
+        return epochDay - dayOfWeek;
     }
 
     // 获取所有任务（按创建时间倒序）
     public List<DailyTask> getAllTasks() {
         List<DailyTask> tasks = new ArrayList<>();
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        LoggedDatabase db = readable();
 
         String[] projection = {
                 DailyTaskDbHelper.COLUMN_ID,
                 DailyTaskDbHelper.COLUMN_CONTENT,
                 DailyTaskDbHelper.COLUMN_COMPLETED_TODAY,
-                DailyTaskDbHelper.COLUMN_LAST_COMPLETED_DATE,
-                DailyTaskDbHelper.COLUMN_WEEKLY_DATA
+                DailyTaskDbHelper.COLUMN_LAST_COMPLETED_DATE
         };
 
         Cursor cursor = db.query(
@@ -95,20 +310,18 @@ public class DailyTaskDao {
         }
 
         cursor.close();
-        db.close();
         return tasks;
     }
 
     // 获取单个任务
     public DailyTask getTaskById(int id) {
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        LoggedDatabase db = readable();
 
         String[] projection = {
                 DailyTaskDbHelper.COLUMN_ID,
                 DailyTaskDbHelper.COLUMN_CONTENT,
                 DailyTaskDbHelper.COLUMN_COMPLETED_TODAY,
-                DailyTaskDbHelper.COLUMN_LAST_COMPLETED_DATE,
-                DailyTaskDbHelper.COLUMN_WEEKLY_DATA
+                DailyTaskDbHelper.COLUMN_LAST_COMPLETED_DATE
         };
 
         String selection = DailyTaskDbHelper.COLUMN_ID + " = ?";
@@ -126,7 +339,6 @@ public class DailyTaskDao {
         }
 
         cursor.close();
-        db.close();
         return task;
     }
 
@@ -137,12 +349,10 @@ public class DailyTaskDao {
             String content = cursor.getString(cursor.getColumnIndexOrThrow(DailyTaskDbHelper.COLUMN_CONTENT));
             boolean completedToday = cursor.getInt(cursor.getColumnIndexOrThrow(DailyTaskDbHelper.COLUMN_COMPLETED_TODAY)) == 1;
             String lastCompletedDate = cursor.getString(cursor.getColumnIndexOrThrow(DailyTaskDbHelper.COLUMN_LAST_COMPLETED_DATE));
-            String weeklyDataJson = cursor.getString(cursor.getColumnIndexOrThrow(DailyTaskDbHelper.COLUMN_WEEKLY_DATA));
 
             DailyTask task = new DailyTask(id, content);
             task.setCompletedToday(completedToday);
             task.setLastCompletedDate(lastCompletedDate != null ? lastCompletedDate : "");
-            task.setWeeklyCompletion(jsonToWeeklyCompletion(weeklyDataJson));
 
             return task;
         } catch (Exception e) {
@@ -151,54 +361,6 @@ public class DailyTaskDao {
         }
     }
 
-    // 将weeklyCompletion列表转换为JSON字符串
-    private String weeklyCompletionToJson(List<int[]> weeklyCompletion) {
-        if (weeklyCompletion == null) return "[]";
-
-        JSONArray jsonArray = new JSONArray();
-        for (int[] week : weeklyCompletion) {
-            JSONArray weekArray = new JSONArray();
-            for (int day : week) {
-                weekArray.put(day);
-            }
-            jsonArray.put(weekArray);
-        }
-        return jsonArray.toString();
-    }
-
-    // 将JSON字符串转换为weeklyCompletion列表
-    private List<int[]> jsonToWeeklyCompletion(String jsonStr) {
-        List<int[]> weeklyCompletion = new ArrayList<>();
-
-        if (jsonStr == null || jsonStr.trim().isEmpty()) {
-            // 返回默认的10周空数据
-            for (int i = 0; i < 10; i++) {
-                weeklyCompletion.add(new int[7]);
-            }
-            return weeklyCompletion;
-        }
-
-        try {
-            JSONArray jsonArray = new JSONArray(jsonStr);
-            for (int i = 0; i < jsonArray.length(); i++) {
-                JSONArray weekArray = jsonArray.getJSONArray(i);
-                int[] week = new int[7];
-                for (int j = 0; j < weekArray.length() && j < 7; j++) {
-                    week[j] = weekArray.getInt(j);
-                }
-                weeklyCompletion.add(week);
-            }
-        } catch (JSONException e) {
-            e.printStackTrace();
-            // 如果解析失败，返回默认的10周空数据
-            for (int i = 0; i < 10; i++) {
-                weeklyCompletion.add(new int[7]);
-            }
-        }
-
-        return weeklyCompletion;
-    }
-
     private String getCurrentDateTime() {
         SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
         return sdf.format(new Date());
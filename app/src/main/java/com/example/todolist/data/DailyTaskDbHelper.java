@@ -1,13 +1,27 @@
 package com.example.todolist.data;
 
+import android.content.ContentValues;
 import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import com.example.todolist.model.DailyTask;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
 
 public class DailyTaskDbHelper extends SQLiteOpenHelper {
     // 数据库信息
     private static final String DATABASE_NAME = "dailytasks.db";
-    private static final int DATABASE_VERSION = 1;
+    // 版本 2：增加全文索引 daily_tasks_fts
+    // 版本 3：周完成数据从 JSON 文本改为 70 字节的 BLOB（weekly_blob）
+    // 版本 4：增加按天记录的历史表 daily_task_history，周完成情况改为从历史表统计
+    // 版本 5：增加统计表 daily_task_stats（连续天数等，见 HabitStats）
+    // 版本 6：全文索引改为建在逐字分隔汉字的视图上，重建 daily_tasks_fts（汉字可以按子串搜索）
+    private static final int DATABASE_VERSION = 6;
 
     // 表名
     public static final String TABLE_DAILY_TASKS = "daily_tasks";
@@ -18,7 +32,24 @@ public class DailyTaskDbHelper extends SQLiteOpenHelper {
     public static final String COLUMN_COMPLETED_TODAY = "completed_today";
     public static final String COLUMN_LAST_COMPLETED_DATE = "last_completed_date";
     public static final String COLUMN_CREATED_DATE = "created_date";
-    public static final String COLUMN_WEEKLY_DATA = "weekly_data"; // 存储为JSON字符串
+    public static final String COLUMN_WEEKLY_DATA = "weekly_data"; // 版本 3 之前的 JSON 字符串，仅迁移时读取
+    public static final String COLUMN_WEEKLY_BLOB = "weekly_blob"; // 版本 4 之前的周数据，仅迁移时读取
+
+    // 历史表：每个任务每天一行，记录当天的完成次数，不做滚动删除
+    public static final String TABLE_HISTORY = "daily_task_history";
+    public static final String COLUMN_TASK_ID = "task_id";
+    public static final String COLUMN_EPOCH_DAY = "epoch_day"; // LocalDate.toEpochDay()
+    public static final String COLUMN_COUNT = "count";
+
+    // 统计表：每个任务一行，保存 HabitStats 的增量聚合值
+    public static final String TABLE_STATS = "daily_task_stats";
+    public static final String COLUMN_START_DAY = "start_day";
+    public static final String COLUMN_STATS_DAY = "stats_day";
+    public static final String COLUMN_TODAY_DONE = "today_done";
+    public static final String COLUMN_RUN_BEFORE_TODAY = "run_before_today";
+    public static final String COLUMN_LONGEST_BEFORE_TODAY = "longest_before_today";
+    public static final String COLUMN_RECENT_MASK = "recent_mask";
+    public static final String COLUMN_WEEKDAY_PREFIX = "weekday_done_"; // weekday_done_0 ~ weekday_done_6，周日为 0
 
     // 创建表的SQL语句
     private static final String SQL_CREATE_DAILY_TASKS_TABLE =
@@ -27,22 +58,204 @@ public class DailyTaskDbHelper extends SQLiteOpenHelper {
                     COLUMN_CONTENT + " TEXT NOT NULL, " +
                     COLUMN_COMPLETED_TODAY + " INTEGER DEFAULT 0, " +
                     COLUMN_LAST_COMPLETED_DATE + " TEXT, " +
-                    COLUMN_CREATED_DATE + " TEXT NOT NULL, " +
-                    COLUMN_WEEKLY_DATA + " TEXT);";
+                    COLUMN_CREATED_DATE + " TEXT NOT NULL);";
+
+    // 主键 (task_id, epoch_day) 按任务聚簇，单个任务的区间查询直接走主键
+    private static final String SQL_CREATE_HISTORY_TABLE =
+            "CREATE TABLE " + TABLE_HISTORY + " (" +
+                    COLUMN_TASK_ID + " INTEGER NOT NULL, " +
+                    COLUMN_EPOCH_DAY + " INTEGER NOT NULL, " +
+                    COLUMN_COUNT + " INTEGER NOT NULL DEFAULT 0, " +
+                    "PRIMARY KEY (" + COLUMN_TASK_ID + ", " + COLUMN_EPOCH_DAY + ")) WITHOUT ROWID;";
+
+    // 覆盖索引：按日期区间统计所有任务（最近 10 周、最近一年）时不需要回表
+    private static final String SQL_CREATE_HISTORY_DAY_INDEX =
+            "CREATE INDEX idx_history_day ON " + TABLE_HISTORY +
+                    " (" + COLUMN_EPOCH_DAY + ", " + COLUMN_TASK_ID + ", " + COLUMN_COUNT + ");";
+
+    private static final String SQL_CREATE_STATS_TABLE = buildCreateStatsTable();
+
+    // 版本 3 及之前的应用在启动时按周滚动周数据，滚动时记下当时的 Calendar.YEAR 和 WEEK_OF_YEAR
+    static final String KEY_LEGACY_WEEK_NUMBER = "last_week_number";
+    static final String KEY_LEGACY_YEAR = "last_year";
+
+    // 全文索引：镜像 content 列
+    static final SearchIndex SEARCH_INDEX = new SearchIndex("daily_tasks_fts", TABLE_DAILY_TASKS, COLUMN_CONTENT);
+
+    private final Context context;
 
     public DailyTaskDbHelper(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        this(context, DATABASE_NAME);
+    }
+
+    // 允许指定数据库文件名（测试 / 基准测试使用独立的数据库）
+    public DailyTaskDbHelper(Context context, String databaseName) {
+        super(context, databaseName, null, DATABASE_VERSION);
+        this.context = context.getApplicationContext();
     }
 
     @Override
     public void onCreate(SQLiteDatabase db) {
         db.execSQL(SQL_CREATE_DAILY_TASKS_TABLE);
+        createSearchIndex(db);
+        createHistory(db);
+        db.execSQL(SQL_CREATE_STATS_TABLE);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        // 简单处理：删除旧表，创建新表（实际项目中需要更复杂的迁移逻辑）
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_DAILY_TASKS);
-        onCreate(db);
+        // 逐版本迁移，保留已有的打卡数据
+        if (oldVersion < 3) {
+            db.execSQL("ALTER TABLE " + TABLE_DAILY_TASKS + " ADD COLUMN " + COLUMN_WEEKLY_BLOB + " BLOB");
+            convertWeeklyJsonToBlob(db);
+        }
+        if (oldVersion < 4) {
+            createHistory(db);
+            backfillHistoryFromBlob(db);
+        }
+        if (oldVersion < 5) {
+            // 统计行在第一次加载时由历史表重新计算
+            db.execSQL(SQL_CREATE_STATS_TABLE);
+        }
+        if (oldVersion < 6) {
+            // 版本 2 建立全文索引，版本 6 改为逐字分词的视图：旧索引删掉后按新定义重建
+            for (String sql : SEARCH_INDEX.dropStatements()) {
+                db.execSQL(sql);
+            }
+            createSearchIndex(db);
+            db.execSQL(SEARCH_INDEX.rebuildStatement());
+        }
+    }
+
+    private static String buildCreateStatsTable() {
+        StringBuilder sql = new StringBuilder("CREATE TABLE " + TABLE_STATS + " (" +
+                COLUMN_TASK_ID + " INTEGER PRIMARY KEY, " +
+                COLUMN_START_DAY + " INTEGER NOT NULL, " +
+                COLUMN_STATS_DAY + " INTEGER NOT NULL, " +
+                COLUMN_TODAY_DONE + " INTEGER NOT NULL, " +
+                COLUMN_RUN_BEFORE_TODAY + " INTEGER NOT NULL, " +
+                COLUMN_LONGEST_BEFORE_TODAY + " INTEGER NOT NULL, " +
+                COLUMN_RECENT_MASK + " INTEGER NOT NULL");
+        for (int weekday = 0; weekday < 7; weekday++) {
+            sql.append(", ").append(COLUMN_WEEKDAY_PREFIX).append(weekday).append(" INTEGER NOT NULL");
+        }
+        return sql.append(");").toString();
+    }
+
+    private void createHistory(SQLiteDatabase db) {
+        db.execSQL(SQL_CREATE_HISTORY_TABLE);
+        db.execSQL(SQL_CREATE_HISTORY_DAY_INDEX);
+    }
+
+    // 旧的周数据按第 0 周所在的日期展开写入历史表；weekly_blob 列之后不再使用
+    private void backfillHistoryFromBlob(SQLiteDatabase db) {
+        long weekStart = DailyTaskDao.weekStartOf(legacyWeekZeroDay(db));
+        Cursor cursor = db.query(TABLE_DAILY_TASKS,
+                new String[]{COLUMN_ID, COLUMN_WEEKLY_BLOB},
+                null, null, null, null, null);
+        try {
+            ContentValues values = new ContentValues();
+            while (cursor.moveToNext()) {
+                int[] counts = WeeklyCompletionCodec.decode(cursor.getBlob(1));
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) continue;
+                    int week = i / DailyTask.DAYS_PER_WEEK;
+                    int day = i % DailyTask.DAYS_PER_WEEK;
+                    values.put(COLUMN_TASK_ID, cursor.getLong(0));
+                    values.put(COLUMN_EPOCH_DAY, weekStart - 7L * week + day);
+                    values.put(COLUMN_COUNT, counts[i]);
+                    db.insert(TABLE_HISTORY, null, values);
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+        ContentValues clear = new ContentValues();
+        clear.putNull(COLUMN_WEEKLY_BLOB);
+        db.update(TABLE_DAILY_TASKS, clear, null, null);
+    }
+
+    /*
+     * 旧版本的第 0 周不是升级当天所在的周，而是最后一次滚动的那一周：只在启动时滚动、一次只滚一周，
+     * 也就是最后一次打开应用的那一周。优先用滚动时保存的年份和周数，没有记录时退回到最近一次打卡的日期，
+     * 都没有（从没打过卡，周数据全是 0）则按今天处理。
+     */
+    private long legacyWeekZeroDay(SQLiteDatabase db) {
+        long today = LocalDate.now().toEpochDay();
+        Long lastCompleted = latestCompletedDay(db);
+        SharedPreferences prefs = context.getSharedPreferences(DailyTaskManager.PREF_NAME, Context.MODE_PRIVATE);
+        int week = prefs.getInt(KEY_LEGACY_WEEK_NUMBER, -1);
+        int year = prefs.getInt(KEY_LEGACY_YEAR, -1);
+        Long day = week > 0 && year > 0 ? weekOfCalendarYear(year, week, lastCompleted) : null;
+        if (day == null) day = lastCompleted;
+        return day == null ? today : Math.min(day, today);
+    }
+
+    /*
+     * 旧版本保存的 (Calendar.YEAR, WEEK_OF_YEAR) 对应的那一周第一天（按默认 Locale 的一周起始日）。
+     * 跨年的一周会有歧义：如 2024-12-31 存为 (2024, 1)，与 2024 年 1 月初的第 1 周相同。
+     * 打卡只会发生在第 0 周或之前，所以取不早于最近打卡所在周的第一个候选，都早于它时取最后一个。
+     */
+    static Long weekOfCalendarYear(int year, int week, Long lastCompleted) {
+        List<Long> candidates = new ArrayList<>();
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, Calendar.JANUARY, 1);
+        while (calendar.get(Calendar.YEAR) == year) {
+            if (calendar.get(Calendar.WEEK_OF_YEAR) == week) {
+                int intoWeek = (calendar.get(Calendar.DAY_OF_WEEK) - calendar.getFirstDayOfWeek() + 7) % 7;
+                long start = LocalDate.of(year, calendar.get(Calendar.MONTH) + 1,
+                        calendar.get(Calendar.DAY_OF_MONTH)).toEpochDay() - intoWeek;
+                if (candidates.isEmpty() || candidates.get(candidates.size() - 1) != start) {
+                    candidates.add(start);
+                }
+            }
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        if (candidates.isEmpty()) return null;
+        if (lastCompleted != null) {
+            for (long start : candidates) {
+                if (start + 6 >= lastCompleted) return start;
+            }
+        }
+        return candidates.get(candidates.size() - 1);
+    }
+
+    // 所有任务里最近一次打卡的日期（epoch day），格式为 yyyy-MM-dd，可以按字符串取最大值
+    private static Long latestCompletedDay(SQLiteDatabase db) {
+        Cursor cursor = db.rawQuery("SELECT MAX(" + COLUMN_LAST_COMPLETED_DATE + ") FROM " + TABLE_DAILY_TASKS, null);
+        try {
+            if (!cursor.moveToFirst() || cursor.isNull(0)) return null;
+            return LocalDate.parse(cursor.getString(0)).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // 把每一行的 JSON 周数据转换成 BLOB，转换后清空旧列以释放空间
+    private void convertWeeklyJsonToBlob(SQLiteDatabase db) {
+        Cursor cursor = db.query(TABLE_DAILY_TASKS,
+                new String[]{COLUMN_ID, COLUMN_WEEKLY_DATA},
+                null, null, null, null, null);
+        try {
+            ContentValues values = new ContentValues();
+            while (cursor.moveToNext()) {
+                int[] counts = WeeklyCompletionCodec.decodeLegacyJson(cursor.getString(1));
+                values.put(COLUMN_WEEKLY_BLOB, WeeklyCompletionCodec.encode(counts));
+                values.putNull(COLUMN_WEEKLY_DATA);
+                db.update(TABLE_DAILY_TASKS, values, COLUMN_ID + " = ?",
+                        new String[]{String.valueOf(cursor.getLong(0))});
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private void createSearchIndex(SQLiteDatabase db) {
+        for (String sql : SEARCH_INDEX.createStatements()) {
+            db.execSQL(sql);
+        }
     }
 }
\ No newline at end of file
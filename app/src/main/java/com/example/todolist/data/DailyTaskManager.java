@@ -4,119 +4,102 @@ import android.content.Context;
 import android.content.SharedPreferences;
 
 import com.example.todolist.model.DailyTask;
+import com.example.todolist.model.HabitStats;
+import com.example.todolist.util.PerfTracker;
 import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 public class DailyTaskManager {
-    private static final String PREF_NAME = "DailyTaskPrefs";
-    private static final String KEY_LAST_CHECKED_DATE = "last_checked_date"; // 改为记录最后检查日期
-    private static final String KEY_LAST_WEEK_NUMBER = "last_week_number";
-    private static final String KEY_LAST_YEAR = "last_year";
-    private static final String KEY_LAST_CHECKED_WEEK = "last_checked_week";
-    private static final String KEY_LAST_CHECKED_YEAR = "last_checked_year";
+    static final String PREF_NAME = "DailyTaskPrefs";
+    private static final String KEY_LAST_CHECKED_DATE = "last_checked_date"; // 上一次做跨天重置的日期
 
     private DailyTaskDao dailyTaskDao;
     private List<DailyTask> dailyTaskList;
     private SharedPreferences sharedPreferences;
     private Context context;
+    private long loadedToday; // 周完成数据是相对哪一天统计的（epoch day）
 
     public DailyTaskManager(Context context) {
         this.context = context;
-        dailyTaskDao = new DailyTaskDao(context);
-        sharedPreferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        loadData();
-        checkAndResetDailyTasks();
-        checkAndRollWeeklyData(); // 添加周数据滚动检查
+        long start = PerfTracker.begin(PerfTracker.NEW_DAILY_MANAGER);
+        try {
+            dailyTaskDao = new DailyTaskDao(context);
+            sharedPreferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+            rolloverIfNewDay(); // 先在数据库里重置，加载出来的就是今天的状态
+            loadData();
+        } finally {
+            PerfTracker.end(PerfTracker.NEW_DAILY_MANAGER, start);
+        }
     }
 
-    // 从数据库加载数据
+    // 从数据库加载数据，最近 10 周的完成情况由历史表统计得到，不再需要按周滚动
     private void loadData() {
         dailyTaskList = dailyTaskDao.getAllTasks();
+        loadedToday = today();
+        dailyTaskDao.fillRecentWeeks(dailyTaskList, loadedToday);
+        loadStats();
     }
 
-    // 检查并重置每日任务状态
-    private void checkAndResetDailyTasks() {
-        String today = getCurrentDate();
-        boolean needsSave = false;
-
+    // 读取每个任务的统计并推进到今天；还没有统计的任务（升级后第一次运行）从历史表计算一次
+    private void loadStats() {
+        Map<Integer, HabitStats> saved = dailyTaskDao.getAllStats();
         for (DailyTask task : dailyTaskList) {
-            if (task.needsReset(today)) {
-                task.resetCompletion();
-                dailyTaskDao.updateTask(task);
-                needsSave = true;
+            HabitStats stats = saved.get(task.getId());
+            if (stats == null) {
+                long[] doneDays = dailyTaskDao.getDoneDays(task.getId());
+                long startDay = doneDays.length > 0 ? Math.min(doneDays[0], loadedToday) : loadedToday;
+                stats = HabitStats.recompute(startDay, loadedToday, doneDays);
+                dailyTaskDao.saveStats(task.getId(), stats);
+            } else {
+                stats.advanceTo(loadedToday);
             }
+            task.setStats(stats);
         }
-
-        // 检查是否需要周数据滚动
-        checkAndRollWeeklyData();
     }
 
-    // 检查并滚动周数据
-    private void checkAndRollWeeklyData() {
-        int currentWeek = getCurrentWeekNumber();
-        int currentYear = getCurrentYear();
+    /**
+     * 跨天处理：用一条 UPDATE 把不是今天完成的任务重置为未完成，耗时与任务数量无关。
+     * 周完成情况和统计都由历史表按日期推算，不需要在这里按周滚动，隔了几周没打开也不会错位。
+     *
+     * @return 是否真的做了重置（同一天内只做一次）
+     */
+    private boolean rolloverIfNewDay() {
         String today = getCurrentDate();
-
-        int lastWeek = sharedPreferences.getInt(KEY_LAST_WEEK_NUMBER, -1);
-        int lastYear = sharedPreferences.getInt(KEY_LAST_YEAR, -1);
-        String lastCheckedDate = sharedPreferences.getString(KEY_LAST_CHECKED_DATE, "");
-
-        // 如果上次检查不是今天，才需要检查周滚动
-        if (!today.equals(lastCheckedDate)) {
-            // 保存今天的检查日期
-            SharedPreferences.Editor editor = sharedPreferences.edit();
-            editor.putString(KEY_LAST_CHECKED_DATE, today);
-            editor.apply();
-
-            // 如果是新的一周（考虑跨年情况）
-            boolean isNewWeek = (currentYear > lastYear) ||
-                    (currentYear == lastYear && currentWeek > lastWeek);
-
-            if (isNewWeek) {
-                // 对所有任务执行周数据滚动
-                for (DailyTask task : dailyTaskList) {
-                    task.rollWeeklyData();
-                    dailyTaskDao.updateTask(task);
-                }
-
-                // 保存当前周和年份
-                SharedPreferences.Editor editor2 = sharedPreferences.edit();
-                editor2.putInt(KEY_LAST_WEEK_NUMBER, currentWeek);
-                editor2.putInt(KEY_LAST_YEAR, currentYear);
-                editor2.apply();
-            } else if (lastWeek == -1 || lastYear == -1) {
-                // 第一次运行，保存当前周和年份
-                SharedPreferences.Editor editor2 = sharedPreferences.edit();
-                editor2.putInt(KEY_LAST_WEEK_NUMBER, currentWeek);
-                editor2.putInt(KEY_LAST_YEAR, currentYear);
-                editor2.apply();
-            }
+        if (today.equals(sharedPreferences.getString(KEY_LAST_CHECKED_DATE, ""))) {
+            return false;
         }
+        dailyTaskDao.resetCompletionBefore(today);
+
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+        editor.putString(KEY_LAST_CHECKED_DATE, today);
+        editor.apply();
+        return true;
     }
 
-    // 滚动所有任务的周数据
-    private void rollAllTasksWeeklyData() {
+    // 应用一直开着跨过了午夜：统计推进到今天（O(1)）；跨过了周日时第 0 周也变了，重新从历史表统计
+    private void advanceToToday(long today) {
+        if (rolloverIfNewDay()) {
+            // 内存中的任务与数据库保持一致
+            String todayText = getCurrentDate();
+            for (DailyTask task : dailyTaskList) {
+                if (task.needsReset(todayText)) task.resetCompletion();
+            }
+        }
+        if (DailyTaskDao.weekStartOf(today) != DailyTaskDao.weekStartOf(loadedToday)) {
+            loadedToday = today;
+            dailyTaskDao.fillRecentWeeks(dailyTaskList, today);
+        }
         for (DailyTask task : dailyTaskList) {
-            task.rollWeeklyData();
-            dailyTaskDao.updateTask(task); // 更新到数据库
+            if (task.getStats() != null) task.getStats().advanceTo(today);
         }
     }
 
-    // 保存当前周信息
-    private void saveCurrentWeekInfo(int week, int year) {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putInt(KEY_LAST_CHECKED_WEEK, week);
-        editor.putInt(KEY_LAST_CHECKED_YEAR, year);
-        editor.apply();
-    }
-
-    // 获取当前年份
-    private int getCurrentYear() {
-        Calendar calendar = Calendar.getInstance();
-        return calendar.get(Calendar.YEAR);
+    private static long today() {
+        return LocalDate.now().toEpochDay();
     }
 
     // 获取当前日期字符串（yyyy-MM-dd格式）
@@ -125,12 +108,6 @@ public class DailyTaskManager {
         return sdf.format(new Date());
     }
 
-    // 获取当前周数
-    private int getCurrentWeekNumber() {
-        Calendar calendar = Calendar.getInstance();
-        return calendar.get(Calendar.WEEK_OF_YEAR);
-    }
-
     // 公共方法
     public List<DailyTask> getDailyTasks() {
         return dailyTaskList;
@@ -140,6 +117,8 @@ public class DailyTaskManager {
         long newId = dailyTaskDao.insertTask(task);
         if (newId != -1) {
             task.setId((int) newId); // 设置数据库生成的新ID
+            task.setStats(new HabitStats(today()));
+            dailyTaskDao.saveStats(task.getId(), task.getStats());
             dailyTaskList.add(0, task); // 添加到内存列表
         }
     }
@@ -161,13 +140,11 @@ public class DailyTaskManager {
 
     // 标记任务完成或取消完成
     public void markTaskCompleted(DailyTask task, boolean completed) {
-        // 先检查是否需要滚动周数据
-        checkAndRollWeeklyData();
+        long today = today();
+        advanceToToday(today);
 
         task.setCompletedToday(completed);
-
-        Calendar calendar = Calendar.getInstance();
-        int dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK) - 1; // 周日=0, 周一=1, ...
+        int dayOfWeek = (int) (today - DailyTaskDao.weekStartOf(today)); // 周日=0, 周一=1, ...
 
         if (completed) {
             // 设置完成日期
@@ -178,12 +155,25 @@ public class DailyTaskManager {
             // 取消完成：清除当天的完成记录
             task.unmarkCompleted(0, dayOfWeek);
         }
+        if (task.getStats() != null) {
+            task.getStats().setDone(completed);
+        }
+
+        // 完成状态、当天的历史记录和统计在同一个事务中写入
+        dailyTaskDao.updateCompletion(task, today, completed ? 1 : -1);
+    }
 
-        updateTask(task);
+    /**
+     * 最近 days 天（含今天）中有完成记录的天数占比，范围 0~1。
+     */
+    public float getCompletionRate(DailyTask task, int days) {
+        if (days <= 0) return 0f;
+        long today = today();
+        return (float) dailyTaskDao.getCompletedDays(task.getId(), today - days + 1, today) / days;
     }
 
     // 保存数据（现在每次操作都立即保存到数据库，这个方法可以保留但不一定需要）
     public void saveData() {
         // 数据库操作是实时的，不需要批量保存
     }
-}
\ No newline at end of file
+}
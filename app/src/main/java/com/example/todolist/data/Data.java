@@ -1,22 +1,92 @@
 package com.example.todolist.data;
 
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.content.res.Configuration;
 import com.example.todolist.model.Day;
 import com.example.todolist.model.RepeatRule;
 import com.example.todolist.model.Schedule;
 import com.example.todolist.model.Week;
+import com.example.todolist.util.PerfTracker;
 
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class Data {
-    private static Data instance;
+    private static volatile Data instance;
     private AppDatabase db;
+    private final ScheduleStrings strings;
+    private final File snapshotFile;
+    // 快照在后台按提交顺序重写
+    private final ExecutorService snapshotExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean snapshotPending = new AtomicBoolean(false);
+    // 备注正文按需读取：最近打开过的几条放在 LRU 缓存里，key 为行程 ID
+    private static final int NOTE_CACHE_SIZE = 16;
+    private final ExecutorService noteExecutor = Executors.newSingleThreadExecutor();
+    private final Map<Long, String> noteCache = new LinkedHashMap<Long, String>(NOTE_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+            return size() > NOTE_CACHE_SIZE;
+        }
+    };
+
+    // 已经读出行程的 Day，最近访问的在队尾；超过上限时释放队首（最久没看的）那天的行程。
+    // 按对象身份管理：不同 Week 里同一条规则是不同的 Day 对象，各自占内存
+    private static final int SCHEDULE_CACHE_DAYS = 28;  // 当前页前后各两周
+    private static final int SCHEDULE_CACHE_DAYS_LOW = 7; // 内存紧张时只留最近一周
+    private final ArrayDeque<Day> materializedDays = new ArrayDeque<>();
+
+    private final Day.ScheduleLoader scheduleLoader = new Day.ScheduleLoader() {
+        @Override
+        public List<Schedule> load(Day day) {
+            return loadSchedules(day.getDatabaseId());
+        }
+
+        @Override
+        public void touched(Day day) {
+            touchMaterialized(day);
+        }
+    };
+    // 写快照用的临时 Week：只读不记入缓存，用完整个丢掉，不会挤掉界面上正在显示的那些天
+    private final Day.ScheduleLoader detachedLoader = day -> loadSchedules(day.getDatabaseId());
 
     private Data(Context context) {
-        db = AppDatabase.getDatabase(context);
+        this(AppDatabase.getDatabase(context), new File(context.getFilesDir(), ScheduleSnapshot.FILE_NAME));
+        context.getApplicationContext().registerComponentCallbacks(new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                Data.this.onTrimMemory(level);
+            }
+
+            @Override
+            public void onConfigurationChanged(Configuration newConfig) {}
+
+            @Override
+            public void onLowMemory() {
+                trimMaterializedDays(0);
+            }
+        });
     }
 
-    public static void init(Context context) {
+    // 使用指定的数据库和快照文件，不经过单例（基准和测试使用）；snapshotFile 为 null 时不写快照
+    Data(AppDatabase db, File snapshotFile) {
+        this.db = db;
+        this.strings = new ScheduleStrings(db.scheduleStringDao());
+        this.snapshotFile = snapshotFile;
+    }
+
+    // 启动时会在后台线程上调用，需要加锁
+    public static synchronized void init(Context context) {
         if (instance == null) {
             instance = new Data(context);
         }
@@ -30,7 +100,20 @@ public class Data {
     }
 
     public void loadAllDataToWeek(Week week) {
-        List<DayEntity> dayEntities = db.dayDao().getAllDays();
+        loadAllDataToWeek(week, scheduleLoader);
+    }
+
+    private void loadAllDataToWeek(Week week, Day.ScheduleLoader loader) {
+        long start = PerfTracker.begin(PerfTracker.DATA_LOAD_WEEK);
+        try {
+            loadAllDataToWeekInternal(week, loader);
+        } finally {
+            PerfTracker.end(PerfTracker.DATA_LOAD_WEEK, start);
+        }
+    }
+
+    private void loadAllDataToWeekInternal(Week week, Day.ScheduleLoader loader) {
+        List<DayEntity> dayEntities = QueryLog.measure(() -> db.dayDao().getAllDays());
 
         for (DayEntity dayEntity : dayEntities) {
             RepeatRule repeatRule = new RepeatRule(
@@ -47,25 +130,155 @@ public class Data {
             // 回写数据库 ID 到模型
             day.setDatabaseId(dayEntity.id);
             
-            // 先清空，再加载，防止重复
-            day.clearSchedules();
-            
-            List<ScheduleEntity> scheduleEntities = db.scheduleDao().getSchedulesForDayId(dayEntity.id);
-            for (ScheduleEntity se : scheduleEntities) {
-                Schedule.Note note = new Schedule.Note(se.noteName, se.noteContent);
-                Schedule schedule = new Schedule(
-                        se.startTime, se.endTime, se.name, note, se.colorArgb, se.isTemporarySchedule
-                );
-                day.addSchedule(schedule);
-            }
+            // 这里只读规则本身，行程在这一天第一次显示时才由 loader 读出
+            day.setScheduleLoader(loader);
 
             week.addDay(day);
         }
     }
 
+    // 读出一天的行程。不读备注正文，Note 的 content 为 null，需要时用 getNoteContent 读取；
+    // 名称和备注标题从字典取共享的实例，同名的行程不会各建一个 String 和 Note
+    private List<Schedule> loadSchedules(long dayId) {
+        long start = PerfTracker.begin(PerfTracker.DATA_LOAD_DAY);
+        try {
+            List<ScheduleSummary> summaries =
+                    QueryLog.measure(() -> db.scheduleDao().getScheduleSummariesForDayId(dayId));
+            List<Schedule> schedules = new ArrayList<>(summaries.size());
+            for (ScheduleSummary ss : summaries) {
+                schedules.add(toSchedule(ss));
+            }
+            return schedules;
+        } finally {
+            PerfTracker.end(PerfTracker.DATA_LOAD_DAY, start);
+        }
+    }
+
+    private Schedule toSchedule(ScheduleSummary ss) {
+        Schedule.Note note = Schedule.Note.unloaded(strings.text(ss.noteNameId));
+        Schedule schedule = new Schedule(
+                ss.startTime, ss.endTime, strings.text(ss.nameId), note, ss.colorArgb, ss.isTemporarySchedule
+        );
+        schedule.setDatabaseId(ss.id);
+        return schedule;
+    }
+
+    /**
+     * 按 ID 取一个已保存的行程：先在已经读出的 Day 里找，找不到再从数据库读这一行（不含备注正文）。
+     * 没有这个行程时返回 null。
+     */
+    public Schedule getSchedule(long scheduleId) {
+        if (scheduleId <= 0) return null;
+        synchronized (materializedDays) {
+            for (Day day : materializedDays) {
+                Schedule schedule = day.findLoadedSchedule(scheduleId);
+                if (schedule != null) return schedule;
+            }
+        }
+        ScheduleSummary ss = QueryLog.measure(() -> db.scheduleDao().getScheduleSummary(scheduleId));
+        return ss != null ? toSchedule(ss) : null;
+    }
+
+    /**
+     * 修改一个已保存的行程：只更新数据库里这一行，再把已经读出的 Day 里对应的行程换成新的，不重新加载。
+     * fields 提供新的时间、名称、备注和颜色；备注正文没有读出（content 为 null）时保留原来的正文。
+     *
+     * @return 数据库里没有这个行程时返回 false
+     */
+    public boolean updateSchedule(long scheduleId, Schedule fields) {
+        if (scheduleId <= 0 || fields == null) return false;
+        boolean updated;
+        long start = PerfTracker.begin(PerfTracker.DATA_UPDATE_SCHEDULE);
+        try {
+            updated = updateScheduleInternal(scheduleId, fields);
+        } finally {
+            PerfTracker.end(PerfTracker.DATA_UPDATE_SCHEDULE, start);
+        }
+        if (updated) refreshSnapshot();
+        return updated;
+    }
+
+    private boolean updateScheduleInternal(long scheduleId, Schedule fields) {
+        Schedule.Note note = fields.getNote();
+        Long nameId = strings.id(fields.getName());
+        Long noteNameId = strings.id(note.getName());
+        int rows = QueryLog.measure(() -> db.scheduleDao().updateFields(scheduleId, fields.getStartTime(),
+                fields.getEndTime(), nameId, noteNameId, note.getContent(), fields.getColorArgb()));
+        if (rows == 0) return false;
+
+        if (note.isContentLoaded()) {
+            synchronized (noteCache) {
+                noteCache.put(scheduleId, note.getContent());
+            }
+        }
+        // 内存里只保留标题，正文和加载时一样按需读取
+        Schedule.Note memoryNote = Schedule.Note.unloaded(note.getName());
+        synchronized (materializedDays) {
+            for (Day day : materializedDays) {
+                Schedule old = day.findLoadedSchedule(scheduleId);
+                if (old == null) continue;
+                Schedule replacement = new Schedule(fields.getStartTime(), fields.getEndTime(), fields.getName(),
+                        memoryNote, fields.getColorArgb(), old.isTemporarySchedule());
+                replacement.setDatabaseId(scheduleId);
+                day.replaceSchedule(old, replacement);
+            }
+        }
+        return true;
+    }
+
+    private void touchMaterialized(Day day) {
+        synchronized (materializedDays) {
+            // 同一天连续访问（绑定、重绘）时不用移动
+            if (materializedDays.peekLast() == day) return;
+            removeMaterialized(day);
+            materializedDays.addLast(day);
+            trimMaterializedDays(SCHEDULE_CACHE_DAYS);
+        }
+    }
+
+    private void removeMaterialized(Day day) {
+        for (Iterator<Day> it = materializedDays.iterator(); it.hasNext(); ) {
+            if (it.next() == day) {
+                it.remove();
+                return;
+            }
+        }
+    }
+
+    // 从最久没访问的开始释放行程，直到只剩 keep 天；有未保存修改的那天不释放，但不再记在队列里
+    private void trimMaterializedDays(int keep) {
+        synchronized (materializedDays) {
+            while (materializedDays.size() > keep) {
+                materializedDays.pollFirst().unloadSchedules();
+            }
+        }
+    }
+
+    /**
+     * 系统内存紧张时释放行程：前台运行但内存不足时只留最近一周，进入后台的各级别全部释放。
+     * 只是界面不可见（UI_HIDDEN）时不释放，回来时不用重新读取。
+     */
+    void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            trimMaterializedDays(0);
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW
+                && level != ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            trimMaterializedDays(SCHEDULE_CACHE_DAYS_LOW);
+        }
+    }
+
     public void saveDay(Day day) {
         if (day == null) return;
-        
+        long start = PerfTracker.begin(PerfTracker.DATA_SAVE_DAY);
+        try {
+            saveDayInternal(day);
+        } finally {
+            PerfTracker.end(PerfTracker.DATA_SAVE_DAY, start);
+        }
+        refreshSnapshot();
+    }
+
+    private void saveDayInternal(Day day) {
         DayEntity entity = new DayEntity();
         // 同步模型数据到 Entity
         entity.originDate = day.getDate();
@@ -85,31 +298,123 @@ public class Data {
         // 根据有无 ID，决定是更新还是插入
         if (dayId > 0) {
             entity.id = dayId;
-            db.dayDao().update(entity);
+            QueryLog.measure(() -> db.dayDao().update(entity));
         } else {
-            dayId = db.dayDao().insert(entity);
+            dayId = QueryLog.measure(() -> db.dayDao().insert(entity));
             day.setDatabaseId(dayId); // 回写新生成的 ID
         }
 
+        // 行程还没读出来，说明没有改过，只更新规则本身
+        if (!day.isSchedulesLoaded()) return;
+
+        // 删除旧行程前，先把还没读出来的备注正文读出来，否则会随旧行程一起丢失
+        List<Schedule> schedules = day.getSchedules();
+        List<String> contents = new ArrayList<>(schedules.size());
+        for (Schedule schedule : schedules) {
+            contents.add(getNoteContent(schedule));
+        }
+
         // 对于 Schedule，采用全量覆盖策略：先删后加
-        db.scheduleDao().deleteAllSchedulesForDayId(dayId);
+        long savedDayId = dayId;
+        QueryLog.measure(() -> db.scheduleDao().deleteAllSchedulesForDayId(savedDayId));
 
-        for (Schedule schedule : day.getSchedules()) {
+        for (int i = 0; i < schedules.size(); i++) {
+            Schedule schedule = schedules.get(i);
             ScheduleEntity se = new ScheduleEntity(
                     schedule.getStartTime(),
                     schedule.getEndTime(),
-                    schedule.getName(),
-                    schedule.getNote().getName(),
-                    schedule.getNote().getContent(),
+                    strings.id(schedule.getName()),
+                    strings.id(schedule.getNote().getName()),
+                    contents.get(i),
                     schedule.getColorArgb(),
                     schedule.isTemporarySchedule(),
                     dayId
             );
-            db.scheduleDao().insert(se);
+            long newId = QueryLog.measure(() -> db.scheduleDao().insert(se));
+            // 重新插入后 ID 变了，缓存跟着换成新 ID
+            synchronized (noteCache) {
+                noteCache.remove(schedule.getDatabaseId());
+                if (!schedule.getNote().isContentLoaded()) {
+                    noteCache.put(newId, contents.get(i));
+                }
+            }
+            schedule.setDatabaseId(newId);
+        }
+        day.markSchedulesSaved();
+    }
+
+    /**
+     * 行程的备注正文：已经在内存里时直接返回，否则按行程 ID 先查缓存、再查数据库。
+     * 还没保存过的行程没有正文，返回空字符串。
+     */
+    public String getNoteContent(Schedule schedule) {
+        String content = schedule.getNote().getContent();
+        return content != null ? content : getNoteContent(schedule.getDatabaseId());
+    }
+
+    public String getNoteContent(long scheduleId) {
+        if (scheduleId <= 0) return "";
+        String content;
+        synchronized (noteCache) {
+            content = noteCache.get(scheduleId);
+        }
+        PerfTracker.cacheResult(PerfTracker.CACHE_NOTE, content != null);
+        if (content != null) return content;
+
+        content = QueryLog.measure(() -> db.scheduleDao().getNoteContent(scheduleId));
+        if (content == null) content = "";
+        synchronized (noteCache) {
+            noteCache.put(scheduleId, content);
         }
+        return content;
+    }
+
+    // 在后台读取备注正文，已经在内存里时直接完成
+    public CompletableFuture<String> loadNoteContent(Schedule schedule) {
+        String content = schedule.getNote().getContent();
+        if (content != null) return CompletableFuture.completedFuture(content);
+        return loadNoteContent(schedule.getDatabaseId());
+    }
+
+    public CompletableFuture<String> loadNoteContent(long scheduleId) {
+        return CompletableFuture.supplyAsync(() -> getNoteContent(scheduleId), noteExecutor);
+    }
+
+    /**
+     * 读取上一次写下的课表快照（不需要打开数据库），没有或已损坏时返回 null。
+     */
+    public Week readSnapshot(LocalDate today) {
+        if (snapshotFile == null) return null;
+        return ScheduleSnapshot.read(snapshotFile, today);
+    }
+
+    // 用已经加载好的数据写快照，在调用者的线程上执行
+    public void writeSnapshot(Week week) {
+        if (snapshotFile == null) return;
+        ScheduleSnapshot.write(snapshotFile, week, LocalDate.now());
+    }
+
+    // 数据有变化后在后台重新加载并写快照；连续多次保存时，还没开始的刷新只保留一次
+    private void refreshSnapshot() {
+        if (snapshotFile == null || !snapshotPending.compareAndSet(false, true)) return;
+        snapshotExecutor.execute(() -> {
+            snapshotPending.set(false);
+            Week week = new Week(LocalDate.now());
+            loadAllDataToWeek(week, detachedLoader);
+            writeSnapshot(week);
+        });
     }
     
     public void clearAllData() {
-        db.dayDao().deleteAll();
+        QueryLog.measure(() -> db.dayDao().deleteAll());
+        QueryLog.measure(() -> db.scheduleStringDao().deleteAll());
+        strings.clear();
+        synchronized (materializedDays) {
+            materializedDays.clear();
+        }
+        synchronized (noteCache) {
+            noteCache.clear();
+        }
+        if (snapshotFile != null) snapshotExecutor.execute(snapshotFile::delete);
     }
 }
\ No newline at end of file
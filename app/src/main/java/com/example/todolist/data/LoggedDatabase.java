@@ -0,0 +1,115 @@
+package com.example.todolist.data;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteQueryBuilder;
+
+/**
+ * 给 SQLiteOpenHelper 的 DAO 使用的薄包装：只暴露 DAO 用到的方法（签名与 SQLiteDatabase 相同），
+ * 每条语句都计时并写入 {@link QueryLog}。
+ * 查询返回前先取一次行数，让语句在计时范围内真正执行，而不是推迟到第一次移动游标。
+ */
+final class LoggedDatabase {
+    private final SQLiteDatabase db;
+
+    LoggedDatabase(SQLiteDatabase db) {
+        this.db = db;
+    }
+
+    Cursor query(String table, String[] columns, String selection, String[] selectionArgs,
+                 String groupBy, String having, String orderBy) {
+        return query(table, columns, selection, selectionArgs, groupBy, having, orderBy, null);
+    }
+
+    Cursor query(String table, String[] columns, String selection, String[] selectionArgs,
+                 String groupBy, String having, String orderBy, String limit) {
+        String sql = SQLiteQueryBuilder.buildQueryString(false, table, columns, selection,
+                groupBy, having, orderBy, limit);
+        long start = System.nanoTime();
+        try {
+            Cursor cursor = db.query(table, columns, selection, selectionArgs, groupBy, having, orderBy, limit);
+            cursor.getCount();
+            return cursor;
+        } finally {
+            QueryLog.record(sql, count(selectionArgs), System.nanoTime() - start);
+        }
+    }
+
+    Cursor rawQuery(String sql, String[] selectionArgs) {
+        long start = System.nanoTime();
+        try {
+            Cursor cursor = db.rawQuery(sql, selectionArgs);
+            cursor.getCount();
+            return cursor;
+        } finally {
+            QueryLog.record(sql, count(selectionArgs), System.nanoTime() - start);
+        }
+    }
+
+    long insert(String table, String nullColumnHack, ContentValues values) {
+        long start = System.nanoTime();
+        try {
+            return db.insert(table, nullColumnHack, values);
+        } finally {
+            QueryLog.record("INSERT INTO " + table + " (" + String.join(", ", values.keySet()) + ")",
+                    values.size(), System.nanoTime() - start);
+        }
+    }
+
+    long insertWithOnConflict(String table, String nullColumnHack, ContentValues values, int conflictAlgorithm) {
+        long start = System.nanoTime();
+        try {
+            return db.insertWithOnConflict(table, nullColumnHack, values, conflictAlgorithm);
+        } finally {
+            QueryLog.record("INSERT OR ... INTO " + table + " (" + String.join(", ", values.keySet()) + ")",
+                    values.size(), System.nanoTime() - start);
+        }
+    }
+
+    int update(String table, ContentValues values, String whereClause, String[] whereArgs) {
+        long start = System.nanoTime();
+        try {
+            return db.update(table, values, whereClause, whereArgs);
+        } finally {
+            QueryLog.record("UPDATE " + table + " SET " + String.join(" = ?, ", values.keySet()) + " = ?"
+                            + (whereClause != null ? " WHERE " + whereClause : ""),
+                    values.size() + count(whereArgs), System.nanoTime() - start);
+        }
+    }
+
+    int delete(String table, String whereClause, String[] whereArgs) {
+        long start = System.nanoTime();
+        try {
+            return db.delete(table, whereClause, whereArgs);
+        } finally {
+            QueryLog.record("DELETE FROM " + table + (whereClause != null ? " WHERE " + whereClause : ""),
+                    count(whereArgs), System.nanoTime() - start);
+        }
+    }
+
+    void execSQL(String sql, Object[] bindArgs) {
+        long start = System.nanoTime();
+        try {
+            db.execSQL(sql, bindArgs);
+        } finally {
+            QueryLog.record(sql, bindArgs != null ? bindArgs.length : 0, System.nanoTime() - start);
+        }
+    }
+
+    void beginTransaction() {
+        db.beginTransaction();
+    }
+
+    void setTransactionSuccessful() {
+        db.setTransactionSuccessful();
+    }
+
+    void endTransaction() {
+        db.endTransaction();
+    }
+
+    private static int count(String[] args) {
+        return args != null ? args.length : 0;
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.todolist.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Looper;
+import android.util.Log;
+import com.example.todolist.util.PerfTracker;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 数据库语句日志：记录每条语句的形状（字面量替换成 ?）、绑定参数个数、耗时和调用线程，
+ * 保存在固定大小的环形缓冲区里。超过阈值的慢查询和在主线程上执行的查询会被标记。
+ * <p>
+ * 两个来源：
+ * <ul>
+ *   <li>Room：构建数据库时注册的查询回调 {@link #onRoomQuery}，在调用线程上执行。回调只在语句开始时触发，
+ *       因此 Data 用 {@link #measure} 包住每次 DAO 调用，以相邻两条语句的开始时间差作为耗时；
+ *       不在 measure 里执行的语句耗时记为未知；</li>
+ *   <li>待办、每日任务的 SQLiteOpenHelper：DAO 通过 {@link LoggedDatabase} 访问数据库，直接计时。</li>
+ * </ul>
+ * 按形状汇总后，像"每个 Day 查一次行程"这样的 N+1 查询会表现为同一形状出现很多次。
+ */
+public final class QueryLog {
+    private static final String TAG = "QueryLog";
+    public static final int CAPACITY = 512;
+    public static final long DEFAULT_SLOW_MILLIS = 16; // 超过一帧
+    public static final long UNKNOWN = -1;
+
+    private static final String PREF_NAME = "perf_prefs";
+    private static final String KEY_SLOW_MILLIS = "slow_query_ms";
+    private static final int MAX_SQL_LENGTH = 300;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /** 一条语句的记录。 */
+    public static final class Entry {
+        public final long timeMillis;
+        public final String sql;
+        public final int argCount;
+        public final long durationNanos; // UNKNOWN 表示没有计时
+        public final String thread;
+        public final boolean mainThread;
+        public final boolean slow;
+
+        Entry(long timeMillis, String sql, int argCount, long durationNanos,
+              String thread, boolean mainThread, boolean slow) {
+            this.timeMillis = timeMillis;
+            this.sql = sql;
+            this.argCount = argCount;
+            this.durationNanos = durationNanos;
+            this.thread = thread;
+            this.mainThread = mainThread;
+            this.slow = slow;
+        }
+
+        public boolean isFlagged() {
+            return slow || mainThread;
+        }
+    }
+
+    // Room 语句在 measure 期间先记下开始时间，measure 结束时再算耗时
+    private static final class Pending {
+        final String sql;
+        final int argCount;
+        final long startNanos;
+
+        Pending(String sql, int argCount, long startNanos) {
+            this.sql = sql;
+            this.argCount = argCount;
+            this.startNanos = startNanos;
+        }
+    }
+
+    private static final Entry[] entries = new Entry[CAPACITY];
+    private static int next = 0;
+    private static int size = 0;
+    private static final ThreadLocal<List<Pending>> scope = new ThreadLocal<>();
+    private static volatile long slowThresholdNanos = DEFAULT_SLOW_MILLIS * 1_000_000L;
+
+    private QueryLog() {}
+
+    // 读取保存的慢查询阈值
+    static void init(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        slowThresholdNanos = prefs.getLong(KEY_SLOW_MILLIS, DEFAULT_SLOW_MILLIS) * 1_000_000L;
+    }
+
+    public static long getSlowThresholdMillis() {
+        return slowThresholdNanos / 1_000_000L;
+    }
+
+    public static void setSlowThresholdMillis(Context context, long millis) {
+        slowThresholdNanos = Math.max(0, millis) * 1_000_000L;
+        context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE)
+                .edit().putLong(KEY_SLOW_MILLIS, Math.max(0, millis)).apply();
+    }
+
+    // Room 查询回调，注册时使用直接执行的 Executor，所以运行在执行语句的线程上
+    static void onRoomQuery(String sql, List<Object> bindArgs) {
+        if (isTransactionControl(sql)) return;
+        int argCount = bindArgs != null ? bindArgs.size() : 0;
+        List<Pending> pending = scope.get();
+        if (pending != null) {
+            pending.add(new Pending(sql, argCount, System.nanoTime()));
+        } else {
+            record(sql, argCount, UNKNOWN);
+        }
+    }
+
+    /**
+     * 在计时范围内执行一次 Room DAO 调用。DAO 方法会在返回前读完游标，
+     * 所以每条语句的耗时取到下一条语句开始（或调用结束）为止。
+     */
+    static <T> T measure(Supplier<T> call) {
+        if (scope.get() != null) return call.get(); // 已经在外层的计时范围里
+        List<Pending> pending = new ArrayList<>(2);
+        scope.set(pending);
+        try {
+            return call.get();
+        } finally {
+            long end = System.nanoTime();
+            scope.remove();
+            for (int i = 0; i < pending.size(); i++) {
+                Pending p = pending.get(i);
+                long until = i + 1 < pending.size() ? pending.get(i + 1).startNanos : end;
+                record(p.sql, p.argCount, until - p.startNanos);
+            }
+        }
+    }
+
+    static void measure(Runnable call) {
+        measure(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    static void record(String sql, int argCount, long durationNanos) {
+        boolean mainThread = Looper.getMainLooper().isCurrentThread();
+        boolean slow = durationNanos != UNKNOWN && durationNanos >= slowThresholdNanos;
+        Entry entry = new Entry(System.currentTimeMillis(), shapeOf(sql), argCount, durationNanos,
+                Thread.currentThread().getName(), mainThread, slow);
+        synchronized (entries) {
+            entries[next] = entry;
+            next = (next + 1) % CAPACITY;
+            if (size < CAPACITY) size++;
+        }
+        PerfTracker.countQueries(1);
+        if (slow) {
+            Log.w(TAG, String.format(Locale.US, "slow query (%.1f ms%s): %s",
+                    durationNanos / 1e6, mainThread ? ", main thread" : "", entry.sql));
+        }
+    }
+
+    /** 按时间先后返回缓冲区里的记录。 */
+    public static List<Entry> getEntries() {
+        synchronized (entries) {
+            List<Entry> result = new ArrayList<>(size);
+            int first = (next - size + CAPACITY) % CAPACITY;
+            for (int i = 0; i < size; i++) {
+                result.add(entries[(first + i) % CAPACITY]);
+            }
+            return result;
+        }
+    }
+
+    public static void clear() {
+        synchronized (entries) {
+            next = 0;
+            size = 0;
+            Arrays.fill(entries, null);
+        }
+    }
+
+    /**
+     * 按形状汇总缓冲区里的记录，次数多的在前；同一形状次数远多于其他语句时，往往就是 N+1 查询。
+     */
+    public static String summary(int limit) {
+        Map<String, long[]> byShape = new HashMap<>(); // {次数, 被标记次数, 已知总耗时}
+        for (Entry entry : getEntries()) {
+            long[] stats = byShape.computeIfAbsent(entry.sql, k -> new long[3]);
+            stats[0]++;
+            if (entry.isFlagged()) stats[1]++;
+            if (entry.durationNanos != UNKNOWN) stats[2] += entry.durationNanos;
+        }
+        List<Map.Entry<String, long[]>> sorted = new ArrayList<>(byShape.entrySet());
+        sorted.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "%6s %6s %9s  %s\n", "次数", "标记", "总耗时ms", "语句"));
+        for (int i = 0; i < Math.min(limit, sorted.size()); i++) {
+            long[] stats = sorted.get(i).getValue();
+            sb.append(String.format(Locale.US, "%6d %6d %9.1f  %s\n",
+                    stats[0], stats[1], stats[2] / 1e6, sorted.get(i).getKey()));
+        }
+        return sb.toString();
+    }
+
+    /** 导出为 CSV，每条语句一行。 */
+    public static String exportCsv() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.US);
+        StringBuilder sb = new StringBuilder("time,thread,main_thread,slow,duration_ms,args,sql\n");
+        for (Entry entry : getEntries()) {
+            sb.append(format.format(new Date(entry.timeMillis))).append(',')
+                    .append(csv(entry.thread)).append(',')
+                    .append(entry.mainThread).append(',')
+                    .append(entry.slow).append(',')
+                    .append(entry.durationNanos == UNKNOWN ? ""
+                            : String.format(Locale.US, "%.3f", entry.durationNanos / 1e6)).append(',')
+                    .append(entry.argCount).append(',')
+                    .append(csv(entry.sql)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 语句的形状：合并空白，字符串和数字字面量换成 ?，连续的 ?, ?, ? 合并成 ?, ...，
+     * 这样参数不同的同一条语句可以归到一起。
+     */
+    static String shapeOf(String sql) {
+        if (sql == null) return "";
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PLACEHOLDER_LIST.matcher(shape).replaceAll("?, ...");
+        return shape.length() > MAX_SQL_LENGTH ? shape.substring(0, MAX_SQL_LENGTH) + "…" : shape;
+    }
+
+    // Room 在事务开始、结束时也会回调，这些不算查询
+    private static boolean isTransactionControl(String sql) {
+        return sql.startsWith("BEGIN") || sql.startsWith("END TRANSACTION")
+                || sql.startsWith("TRANSACTION SUCCESSFUL") || sql.startsWith("COMMIT")
+                || sql.startsWith("ROLLBACK");
+    }
+
+    private static String csv(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
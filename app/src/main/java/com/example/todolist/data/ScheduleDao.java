@@ -12,8 +12,27 @@ public interface ScheduleDao {
     @Query("SELECT * FROM schedules WHERE day_id = :dayId ORDER BY startTime ASC")
     List<ScheduleEntity> getSchedulesForDayId(long dayId);
 
+    // 不含备注正文，批量加载课表时使用
+    @Query("SELECT id, startTime, endTime, name_id, note_name_id, colorArgb, isTemporarySchedule, day_id " +
+            "FROM schedules WHERE day_id = :dayId ORDER BY startTime ASC")
+    List<ScheduleSummary> getScheduleSummariesForDayId(long dayId);
+
+    @Query("SELECT id, startTime, endTime, name_id, note_name_id, colorArgb, isTemporarySchedule, day_id " +
+            "FROM schedules WHERE id = :id")
+    ScheduleSummary getScheduleSummary(long id);
+
+    // 修改一个行程的可编辑字段；noteContent 为 null 时保留原来的正文。返回更新的行数
+    @Query("UPDATE schedules SET startTime = :startTime, endTime = :endTime, name_id = :nameId, " +
+            "note_name_id = :noteNameId, note_content = COALESCE(:noteContent, note_content), " +
+            "colorArgb = :colorArgb WHERE id = :id")
+    int updateFields(long id, int startTime, int endTime, Long nameId, Long noteNameId,
+                     String noteContent, int colorArgb);
+
+    @Query("SELECT note_content FROM schedules WHERE id = :id")
+    String getNoteContent(long id);
+
     @Insert
-    void insert(ScheduleEntity schedule);
+    long insert(ScheduleEntity schedule); // 返回生成的 ID
 
     @Update
     void update(ScheduleEntity schedule);
@@ -20,10 +20,13 @@ public class ScheduleEntity {
 
     public int startTime;
     public int endTime;
-    public String name;
-    
-    @ColumnInfo(name = "note_name")
-    public String noteName;
+
+    // 名称和备注标题存为 schedule_strings 的 ID，null 表示没有
+    @ColumnInfo(name = "name_id")
+    public Long nameId;
+
+    @ColumnInfo(name = "note_name_id")
+    public Long noteNameId;
     
     @ColumnInfo(name = "note_content")
     public String noteContent;
@@ -36,11 +39,11 @@ public class ScheduleEntity {
 
     public ScheduleEntity() {}
     
-    public ScheduleEntity(int startTime, int endTime, String name, String noteName, String noteContent, int colorArgb, boolean isTemporarySchedule, long dayId) {
+    public ScheduleEntity(int startTime, int endTime, Long nameId, Long noteNameId, String noteContent, int colorArgb, boolean isTemporarySchedule, long dayId) {
         this.startTime = startTime;
         this.endTime = endTime;
-        this.name = name;
-        this.noteName = noteName;
+        this.nameId = nameId;
+        this.noteNameId = noteNameId;
         this.noteContent = noteContent;
         this.colorArgb = colorArgb;
         this.isTemporarySchedule = isTemporarySchedule;
@@ -0,0 +1,190 @@
+package com.example.todolist.data;
+
+import com.example.todolist.model.Day;
+import com.example.todolist.model.Interner;
+import com.example.todolist.model.RepeatRule;
+import com.example.todolist.model.Schedule;
+import com.example.todolist.model.Week;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.CRC32;
+
+/**
+ * 课表冷启动快照：把"今天"前后各 7 天已经按规则算好的每一天（活动时段、行程的起止分钟、颜色、名称）
+ * 写成一个很小的二进制文件。启动时一次读入，在数据库打开之前就能把课表画出来，
+ * 真实数据加载完成后再替换。
+ * <p>
+ * 文件格式（大端）：
+ * <pre>
+ * int   MAGIC
+ * short VERSION
+ * long  第一天的 epoch day
+ * byte  天数
+ * 每天：byte 是否有安排，有安排时接着 byte 开始小时、byte 结束小时、short 行程数，
+ *       每个行程 short 开始分钟、short 结束分钟、int 颜色、字符串名称、字符串备注名
+ * int   前面所有字节的 CRC32
+ * </pre>
+ * 字符串为 short 字节长度（-1 表示 null）加 UTF-8 字节。魔数、版本、长度或校验不对时视为损坏，
+ * 读取返回 null，调用方按没有快照处理。
+ */
+public final class ScheduleSnapshot {
+    public static final String FILE_NAME = "schedule_snapshot.bin";
+    public static final int DAYS_AROUND = 7;
+
+    private static final int MAGIC = 0x53434853; // "SCHS"
+    private static final short VERSION = 1;
+    private static final int MAX_FILE_SIZE = 256 * 1024; // 远大于正常大小，超过说明文件有问题
+
+    private ScheduleSnapshot() {}
+
+    /**
+     * 把 week 在 [center - 7, center + 7] 中每一天实际显示的内容编码成快照。
+     */
+    public static byte[] encode(Week week, LocalDate center) {
+        LocalDate first = center.minusDays(DAYS_AROUND);
+        int dayCount = DAYS_AROUND * 2 + 1;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(first.toEpochDay());
+            out.writeByte(dayCount);
+            for (int i = 0; i < dayCount; i++) {
+                Day day = week.getDayForDate(first.plusDays(i));
+                if (day == null) {
+                    out.writeByte(0);
+                    continue;
+                }
+                out.writeByte(1);
+                out.writeByte(day.getActiveStartHour());
+                out.writeByte(day.getActiveEndHour());
+                out.writeShort(day.getSchedules().size());
+                for (Schedule schedule : day.getSchedules()) {
+                    out.writeShort(schedule.getStartTime());
+                    out.writeShort(schedule.getEndTime());
+                    out.writeInt(schedule.getColorArgb());
+                    writeString(out, schedule.getName());
+                    writeString(out, schedule.getNote() != null ? schedule.getNote().getName() : null);
+                }
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+            out.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // 写入内存不会出错
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 解码快照。每个有安排的日期变成一个只在当天出现的临时 Day，放进以 center 所在周为锚点的 Week 里。
+     *
+     * @return 数据损坏或版本不符时返回 null
+     */
+    public static Week decode(byte[] data, LocalDate center) {
+        if (data == null || data.length < 4) return null;
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 4);
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.getInt(data.length - 4) != (int) crc.getValue()) return null;
+
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) return null;
+            LocalDate first = LocalDate.ofEpochDay(buffer.getLong());
+            int dayCount = buffer.get() & 0xFF;
+            Week week = new Week(center);
+            for (int i = 0; i < dayCount; i++) {
+                if (buffer.get() == 0) continue;
+                Day day = new Day(first.plusDays(i), true, new RepeatRule());
+                day.setActiveHours(buffer.get(), buffer.get());
+                int scheduleCount = buffer.getShort();
+                for (int j = 0; j < scheduleCount; j++) {
+                    int start = buffer.getShort();
+                    int end = buffer.getShort();
+                    int color = buffer.getInt();
+                    String name = Interner.intern(readString(buffer));
+                    String noteName = readString(buffer);
+                    day.addSchedule(new Schedule(start, end, name, Schedule.Note.unloaded(noteName), color, false));
+                }
+                week.addDay(day);
+            }
+            // 内容之后应当正好是校验值
+            return buffer.remaining() == 4 ? week : null;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 一次读入整个文件并解码；文件不存在、读不出来或已损坏时返回 null，损坏的文件会被删除。
+     */
+    public static Week read(File file, LocalDate center) {
+        long length = file.length();
+        if (length <= 0 || length > MAX_FILE_SIZE) return null;
+        byte[] data = new byte[(int) length];
+        try (FileInputStream in = new FileInputStream(file)) {
+            int offset = 0;
+            while (offset < data.length) {
+                int read = in.read(data, offset, data.length - offset);
+                if (read < 0) break;
+                offset += read;
+            }
+            if (offset != data.length) return null;
+        } catch (IOException e) {
+            return null;
+        }
+        Week week = decode(data, center);
+        if (week == null) {
+            file.delete();
+        }
+        return week;
+    }
+
+    /**
+     * 先写临时文件再改名，写到一半被杀掉也不会留下半个快照。
+     */
+    public static void write(File file, Week week, LocalDate center) {
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(encode(week, center));
+            out.getFD().sync();
+        } catch (IOException e) {
+            e.printStackTrace();
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, Short.MAX_VALUE);
+        out.writeShort(length);
+        out.write(bytes, 0, length);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.todolist.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import java.util.List;
+
+@Dao
+public interface ScheduleStringDao {
+    @Query("SELECT * FROM schedule_strings")
+    List<ScheduleStringEntity> getAll();
+
+    @Query("SELECT id FROM schedule_strings WHERE text = :text")
+    Long findId(String text);
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long insert(ScheduleStringEntity string); // 已存在时返回 -1
+
+    @Query("DELETE FROM schedule_strings")
+    void deleteAll();
+}
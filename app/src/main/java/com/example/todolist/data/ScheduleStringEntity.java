@@ -0,0 +1,25 @@
+package com.example.todolist.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * 行程名称、备注标题的字典：每个不同的文本只存一行，schedules 里只存它的 ID。
+ */
+@Entity(tableName = "schedule_strings",
+        indices = {@Index(value = "text", unique = true)})
+public class ScheduleStringEntity {
+    @PrimaryKey(autoGenerate = true)
+    public long id;
+
+    @NonNull
+    public String text = "";
+
+    public ScheduleStringEntity() {}
+
+    public ScheduleStringEntity(@NonNull String text) {
+        this.text = text;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.todolist.data;
+
+import com.example.todolist.model.Interner;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * schedule_strings 字典在内存里的副本：ID 与文本双向查找。
+ * 第一次使用时整表读入（不同的课程名、备注标题通常只有几十个），之后只有遇到新文本才访问数据库。
+ * 读出的文本经过 {@link Interner}，同一个名称在进程里只有一个 String。
+ */
+final class ScheduleStrings {
+    private final ScheduleStringDao dao;
+    private final Map<Long, String> textById = new HashMap<>();
+    private final Map<String, Long> idByText = new HashMap<>();
+    private boolean loaded = false;
+
+    ScheduleStrings(ScheduleStringDao dao) {
+        this.dao = dao;
+    }
+
+    // ID 对应的文本；id 为 null 时返回 null
+    synchronized String text(Long id) {
+        if (id == null) return null;
+        ensureLoaded();
+        String text = textById.get(id);
+        if (text == null) {
+            // 缓存建立之后别处插入了新文本，重新读一次
+            reload();
+            text = textById.get(id);
+        }
+        return text;
+    }
+
+    // 文本对应的 ID，字典里没有时插入；text 为 null 时返回 null
+    synchronized Long id(String text) {
+        if (text == null) return null;
+        ensureLoaded();
+        Long id = idByText.get(text);
+        if (id != null) return id;
+
+        long inserted = QueryLog.measure(() -> dao.insert(new ScheduleStringEntity(text)));
+        id = inserted > 0 ? inserted : QueryLog.measure(() -> dao.findId(text));
+        put(id, text);
+        return id;
+    }
+
+    synchronized void clear() {
+        textById.clear();
+        idByText.clear();
+        loaded = false;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) reload();
+    }
+
+    private void reload() {
+        List<ScheduleStringEntity> all = QueryLog.measure(() -> dao.getAll());
+        textById.clear();
+        idByText.clear();
+        for (ScheduleStringEntity entity : all) {
+            put(entity.id, entity.text);
+        }
+        loaded = true;
+    }
+
+    private void put(long id, String text) {
+        String interned = Interner.intern(text);
+        textById.put(id, interned);
+        idByText.put(interned, id);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.todolist.data;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * schedules 表去掉备注正文后的投影。批量加载课表时只读这些列，
+ * 备注正文可能很长（粘贴的教学大纲、作业），打开详情时再按 ID 单独读取。
+ */
+public class ScheduleSummary {
+    public int id;
+    public int startTime;
+    public int endTime;
+
+    @ColumnInfo(name = "name_id")
+    public Long nameId;
+
+    @ColumnInfo(name = "note_name_id")
+    public Long noteNameId;
+
+    public int colorArgb;
+    public boolean isTemporarySchedule;
+
+    @ColumnInfo(name = "day_id")
+    public long dayId;
+}
@@ -0,0 +1,191 @@
+package com.example.todolist.data;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一张 FTS4 全文索引表的定义：以外部内容表（content=）的方式镜像原表的若干文本列，
+ * 文本本身不重复存储，由触发器在原表增删改时同步索引。
+ * <p>
+ * FTS4 默认的 simple 分词器把一串连续的汉字当作一个词，"数学"搜不到"高等数学"。
+ * 因此 content 指向原表上的一个视图，视图在每个汉字前后插入 {@link #SEPARATOR}，
+ * 索引里每个汉字单独成词；查询时把汉字拆成短语（"数 学*"），相邻的字必须连续出现，等价于子串匹配。
+ * 视图读出的文本带有分隔符，显示前用 {@link #displayText} 去掉。
+ * <p>
+ * 三个数据库（Room 的课表库、待办库、每日任务库）共用这里生成的建表语句、查询串和排序算法。
+ */
+final class SearchIndex {
+    // simple 分词器把 ASCII 的非字母数字字符都当作分隔符；用控制字符，去掉时不会误删原文
+    static final char SEPARATOR = '\u001F';
+    // CJK 统一汉字扩展 A 到基本区（U+3400..U+9FFF）
+    private static final int HAN_FIRST = 0x3400;
+    private static final int HAN_LAST = 0x9FFF;
+
+    final String ftsTable;
+    final String contentTable;            // 分词用的视图
+    final String[] columns;
+    private final String viewSelect;      // 视图的 SELECT
+    private final String triggerTable;    // 触发器所在的原表
+    private final String[] triggerColumns; // UPDATE OF 监视的原表列
+
+    /**
+     * 原表上的索引，视图名为 table + "_text"。
+     */
+    SearchIndex(String ftsTable, String table, String... columns) {
+        this(ftsTable, table + "_text", table, table, "rowid", columns, columns, columns);
+    }
+
+    private SearchIndex(String ftsTable, String view, String table, String from, String rowid,
+                        String[] columns, String[] sources, String[] triggerColumns) {
+        this.ftsTable = ftsTable;
+        this.contentTable = view;
+        this.columns = columns;
+        this.triggerTable = table;
+        this.triggerColumns = triggerColumns;
+
+        StringBuilder select = new StringBuilder("SELECT ").append(rowid).append(" AS rowid");
+        for (int i = 0; i < columns.length; i++) {
+            select.append(", ").append(separateHan(sources[i])).append(" AS ").append(columns[i]);
+        }
+        this.viewSelect = select.append(" FROM ").append(from).toString();
+    }
+
+    /**
+     * 文本来自连接查询的索引（例如原表只存字典 ID）。触发器挂在原表 table 上。
+     *
+     * @param from           视图的 FROM 子句
+     * @param rowid          原表主键的表达式
+     * @param sources        与 columns 一一对应、取出原文的表达式
+     * @param triggerColumns 原表中影响索引文本的列
+     */
+    static SearchIndex overJoin(String ftsTable, String view, String table, String from, String rowid,
+                                String[] columns, String[] sources, String[] triggerColumns) {
+        return new SearchIndex(ftsTable, view, table, from, rowid, columns, sources, triggerColumns);
+    }
+
+    /**
+     * 建表和同步触发器。UPDATE 触发器只在被索引的列变化时执行，
+     * 拖拽排序、打卡等高频更新不会改动索引。
+     */
+    List<String> createStatements() {
+        String columnList = String.join(", ", columns);
+        String updateOf = " UPDATE OF " + String.join(", ", triggerColumns) + " ON " + triggerTable;
+        // 新文本经过视图分词；触发器里不能写 WITH，视图里可以
+        String insertNew = " BEGIN INSERT INTO " + ftsTable + "(docid, " + columnList + ") SELECT rowid, " +
+                columnList + " FROM " + contentTable + " WHERE rowid = new.rowid; END";
+
+        List<String> sql = new ArrayList<>();
+        sql.add("CREATE VIEW IF NOT EXISTS " + contentTable + " AS " + viewSelect);
+        // prefix="1,2"：为一两个字符的前缀额外建索引，输入第一个字时也能走索引
+        sql.add("CREATE VIRTUAL TABLE IF NOT EXISTS " + ftsTable + " USING fts4(content=\"" +
+                contentTable + "\", " + columnList + ", prefix=\"1,2\")");
+        sql.add("CREATE TRIGGER IF NOT EXISTS " + ftsTable + "_bu BEFORE" + updateOf +
+                " BEGIN DELETE FROM " + ftsTable + " WHERE docid = old.rowid; END");
+        sql.add("CREATE TRIGGER IF NOT EXISTS " + ftsTable + "_bd BEFORE DELETE ON " + triggerTable +
+                " BEGIN DELETE FROM " + ftsTable + " WHERE docid = old.rowid; END");
+        sql.add("CREATE TRIGGER IF NOT EXISTS " + ftsTable + "_au AFTER" + updateOf + insertNew);
+        sql.add("CREATE TRIGGER IF NOT EXISTS " + ftsTable + "_ai AFTER INSERT ON " + triggerTable + insertNew);
+        return sql;
+    }
+
+    // 按原表的现有数据重建索引（首次建表或索引可能过期时使用）
+    String rebuildStatement() {
+        return "INSERT INTO " + ftsTable + "(" + ftsTable + ") VALUES ('rebuild')";
+    }
+
+    List<String> dropStatements() {
+        List<String> sql = new ArrayList<>();
+        for (String suffix : new String[]{"_bu", "_bd", "_au", "_ai"}) {
+            sql.add("DROP TRIGGER IF EXISTS " + ftsTable + suffix);
+        }
+        sql.add("DROP TABLE IF EXISTS " + ftsTable);
+        sql.add("DROP VIEW IF EXISTS " + contentTable);
+        return sql;
+    }
+
+    /*
+     * 在 text 的每个汉字前后插入分隔符的 SQL 表达式。不含汉字的文本（GLOB 判断）原样返回；
+     * 否则用递归 CTE 逐字拼接，最后一行就是结果。
+     */
+    private static String separateHan(String text) {
+        String ch = "substr(" + text + ", pos, 1)";
+        String range = new String(Character.toChars(HAN_FIRST)) + "-" + new String(Character.toChars(HAN_LAST));
+        return "CASE WHEN " + text + " GLOB '*[" + range + "]*' THEN" +
+                " (WITH RECURSIVE split(pos, done) AS (SELECT 1, ''" +
+                " UNION ALL SELECT pos + 1, done || CASE WHEN unicode(" + ch + ") BETWEEN " + HAN_FIRST + " AND " + HAN_LAST +
+                " THEN char(" + (int) SEPARATOR + ") || " + ch + " || char(" + (int) SEPARATOR + ") ELSE " + ch + " END" +
+                " FROM split WHERE pos <= length(" + text + "))" +
+                " SELECT done FROM split WHERE pos > length(" + text + "))" +
+                " ELSE " + text + " END";
+    }
+
+    private static boolean isHan(char c) {
+        return c >= HAN_FIRST && c <= HAN_LAST;
+    }
+
+    /**
+     * 从视图读出的文本（列值、snippet）去掉分词用的分隔符。
+     */
+    static String displayText(String text) {
+        if (text == null || text.indexOf(SEPARATOR) < 0) return text;
+        return text.replace(String.valueOf(SEPARATOR), "");
+    }
+
+    /**
+     * 把用户输入转换成 MATCH 查询串：按空白拆词，每个词做前缀匹配，多个词之间是"并且"。
+     * 词里的汉字拆开成短语，例如"数学"变成 "数 学*"，可以匹配"高等数学"。
+     * 引号和 FTS 运算符会被去掉，输入里没有可用的词时返回 null。
+     */
+    static String toMatchQuery(String input) {
+        if (input == null) return null;
+        StringBuilder query = new StringBuilder();
+        for (String term : input.trim().split("\\s+")) {
+            String cleaned = term.replaceAll("[\"*^():]", "");
+            if (cleaned.isEmpty() || cleaned.equals("AND") || cleaned.equals("OR") || cleaned.equals("NOT")) {
+                continue;
+            }
+            if (query.length() > 0) query.append(' ');
+            query.append('"');
+            for (int i = 0; i < cleaned.length(); i++) {
+                char c = cleaned.charAt(i);
+                boolean han = isHan(c);
+                char previous = query.charAt(query.length() - 1);
+                if (han && previous != '"' && previous != ' ') query.append(' ');
+                query.append(c);
+                if (han && i < cleaned.length() - 1) query.append(' ');
+            }
+            query.append("*\"");
+        }
+        return query.length() == 0 ? null : query.toString();
+    }
+
+    /**
+     * 根据 matchinfo(fts, 'pcnx') 计算相关度：
+     * 每个词在每一列的命中次数 × 该词的逆文档频率 × 列权重，累加得到分数。
+     *
+     * @param matchinfo matchinfo 返回的 BLOB（本机字节序的 32 位无符号整数数组）
+     * @param weights   每一列的权重，长度与列数相同
+     */
+    static double score(byte[] matchinfo, double[] weights) {
+        ByteBuffer buffer = ByteBuffer.wrap(matchinfo).order(ByteOrder.nativeOrder());
+        int phraseCount = buffer.getInt(0);
+        int columnCount = buffer.getInt(4);
+        long rowCount = buffer.getInt(8) & 0xFFFFFFFFL;
+
+        double score = 0;
+        for (int phrase = 0; phrase < phraseCount; phrase++) {
+            for (int column = 0; column < columnCount; column++) {
+                int base = 12 + 12 * (phrase * columnCount + column);
+                int hitsThisRow = buffer.getInt(base);
+                if (hitsThisRow == 0) continue;
+                int docsWithHits = buffer.getInt(base + 8);
+                double idf = Math.log(1.0 + (double) rowCount / Math.max(1, docsWithHits));
+                double weight = column < weights.length ? weights[column] : 1.0;
+                score += weight * hitsThisRow * idf;
+            }
+        }
+        return score;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.todolist.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteOpenHelper;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 统一搜索入口：同时在课表（名称、备注）、待办事项、每日任务的全文索引中做前缀匹配
+ * （汉字按子串匹配，见 {@link SearchIndex}），按相关度合并排序后返回前 limit 条。
+ * <p>
+ * 查询会访问三个数据库，应在后台线程调用。
+ */
+public class SearchRepository {
+    // 课表各列的权重：名称 > 备注标题 > 备注内容
+    private static final double[] SCHEDULE_WEIGHTS = {3.0, 2.0, 1.0};
+    private static final double[] CONTENT_WEIGHTS = {1.0};
+
+    private static final Comparator<SearchResult> BY_SCORE =
+            (a, b) -> Double.compare(a.getScore(), b.getScore());
+
+    private final SupportSQLiteOpenHelper scheduleHelper;
+    private final SQLiteOpenHelper todoHelper;
+    private final SQLiteOpenHelper dailyHelper;
+
+    public SearchRepository(Context context) {
+        this(AppDatabase.getDatabase(context).getOpenHelper(),
+                new TodoDbHelper(context),
+                new DailyTaskDbHelper(context));
+    }
+
+    // 允许传入独立的数据库（基准测试使用）
+    SearchRepository(SupportSQLiteOpenHelper scheduleHelper, SQLiteOpenHelper todoHelper, SQLiteOpenHelper dailyHelper) {
+        this.scheduleHelper = scheduleHelper;
+        this.todoHelper = todoHelper;
+        this.dailyHelper = dailyHelper;
+    }
+
+    /**
+     * @param query 用户输入，按空白拆成多个词，每个词都必须以前缀形式出现
+     * @param limit 最多返回的条数
+     * @return 按相关度从高到低排列的结果，输入为空时返回空列表
+     */
+    public List<SearchResult> search(String query, int limit) {
+        String match = SearchIndex.toMatchQuery(query);
+        if (match == null || limit <= 0) return new ArrayList<>();
+
+        // 小顶堆只保留分数最高的 limit 条，不必把所有命中都排序
+        PriorityQueue<SearchResult> top = new PriorityQueue<>(limit + 1, BY_SCORE);
+
+        String scheduleSql = searchSql(AppDatabase.SCHEDULE_SEARCH_INDEX);
+        collect(scheduleHelper.getReadableDatabase().query(scheduleSql, new Object[]{match}),
+                SearchResult.Type.SCHEDULE, SCHEDULE_WEIGHTS, limit, top);
+
+        String todoSql = searchSql(TodoDbHelper.SEARCH_INDEX);
+        collect(new LoggedDatabase(todoHelper.getReadableDatabase()).rawQuery(todoSql, new String[]{match}),
+                SearchResult.Type.TODO, CONTENT_WEIGHTS, limit, top);
+
+        String dailySql = searchSql(DailyTaskDbHelper.SEARCH_INDEX);
+        collect(new LoggedDatabase(dailyHelper.getReadableDatabase()).rawQuery(dailySql, new String[]{match}),
+                SearchResult.Type.DAILY_TASK, CONTENT_WEIGHTS, limit, top);
+
+        List<SearchResult> results = new ArrayList<>(top);
+        Collections.sort(results, Collections.reverseOrder(BY_SCORE));
+        return results;
+    }
+
+    // 标题取索引的第一列（课表名称或任务内容），片段在所有列中选取；汉字各算一个词，片段取 20 个词
+    private static String searchSql(SearchIndex index) {
+        String fts = index.ftsTable;
+        return "SELECT docid, " + index.columns[0] +
+                ", snippet(" + fts + ", '【', '】', '…', -1, 20)" +
+                ", matchinfo(" + fts + ", 'pcnx')" +
+                " FROM " + fts + " WHERE " + fts + " MATCH ?";
+    }
+
+    private static void collect(Cursor cursor, SearchResult.Type type, double[] weights,
+                                int limit, PriorityQueue<SearchResult> top) {
+        try {
+            while (cursor.moveToNext()) {
+                double score = SearchIndex.score(cursor.getBlob(3), weights);
+                if (top.size() >= limit && score <= top.peek().getScore()) continue;
+
+                top.add(new SearchResult(type, cursor.getLong(0),
+                        SearchIndex.displayText(cursor.getString(1)), snippet(cursor.getString(2)), score));
+                if (top.size() > limit) top.poll();
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // 去掉分隔符后，一个词里逐字标出的【数】【学】合并成【数学】
+    private static String snippet(String raw) {
+        String text = SearchIndex.displayText(raw);
+        return text == null ? null : text.replace("】【", "");
+    }
+}
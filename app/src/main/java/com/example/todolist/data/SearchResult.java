@@ -0,0 +1,48 @@
+package com.example.todolist.data;
+
+/**
+ * 一条搜索结果。id 是对应表中的主键（课表为 schedules.id，待办和每日任务为 _id）。
+ */
+public class SearchResult {
+    public enum Type {
+        SCHEDULE,   // 课表条目（名称、备注标题、备注内容）
+        TODO,       // 待办事项
+        DAILY_TASK  // 每日任务
+    }
+
+    private final Type type;
+    private final long id;
+    private final String title;
+    private final String snippet;
+    private final double score;
+
+    public SearchResult(Type type, long id, String title, String snippet, double score) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.snippet = snippet;
+        this.score = score;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    // 命中的上下文片段，命中的词用【】标出
+    public String getSnippet() {
+        return snippet;
+    }
+
+    // 相关度，越大越靠前
+    public double getScore() {
+        return score;
+    }
+}
@@ -3,50 +3,80 @@ package com.example.todolist.data;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
-import android.database.sqlite.SQLiteDatabase;
 import com.example.todolist.model.TodoTask;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class TodoDao {
+    // 按优先级升序，创建时间降序排序；_id 保证顺序唯一，便于键集分页
+    private static final String ORDER_FORWARD = TodoDbHelper.COLUMN_PRIORITY + " ASC, " +
+            TodoDbHelper.COLUMN_CREATED_TIME + " DESC, " +
+            TodoDbHelper.COLUMN_ID + " ASC";
+    private static final String ORDER_BACKWARD = TodoDbHelper.COLUMN_PRIORITY + " DESC, " +
+            TodoDbHelper.COLUMN_CREATED_TIME + " ASC, " +
+            TodoDbHelper.COLUMN_ID + " DESC";
+
+    // 数据库连接由 dbHelper 长期持有，操作后不再 close()，因为后台重排会同时使用同一个连接
     private TodoDbHelper dbHelper;
 
     public TodoDao(Context context) {
         dbHelper = new TodoDbHelper(context);
     }
 
+    public TodoDao(Context context, String databaseName) {
+        dbHelper = new TodoDbHelper(context, databaseName);
+    }
+
+    // 所有语句都经过 LoggedDatabase，计入查询日志
+    private LoggedDatabase writable() {
+        return new LoggedDatabase(dbHelper.getWritableDatabase());
+    }
+
+    private LoggedDatabase readable() {
+        return new LoggedDatabase(dbHelper.getReadableDatabase());
+    }
+
     // 插入新任务
     public long insertTask(TodoTask task) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        LoggedDatabase db = writable();
 
         ContentValues values = new ContentValues();
         values.put(TodoDbHelper.COLUMN_CONTENT, task.getContent());
         values.put(TodoDbHelper.COLUMN_PRIORITY, task.getPriority());
         values.put(TodoDbHelper.COLUMN_CREATED_TIME, task.getCreatedTime());
 
-        long id = db.insert(TodoDbHelper.TABLE_TODO_TASKS, null, values);
-        db.close();
-        return id;
+        return db.insert(TodoDbHelper.TABLE_TODO_TASKS, null, values);
     }
 
     // 更新任务（包括内容、优先级等）
     public int updateTask(TodoTask task) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        LoggedDatabase db = writable();
 
         ContentValues values = new ContentValues();
         values.put(TodoDbHelper.COLUMN_CONTENT, task.getContent());
         values.put(TodoDbHelper.COLUMN_PRIORITY, task.getPriority());
 
-        int count = db.update(TodoDbHelper.TABLE_TODO_TASKS, values,
+        return db.update(TodoDbHelper.TABLE_TODO_TASKS, values,
                 TodoDbHelper.COLUMN_ID + " = ?",
                 new String[]{String.valueOf(task.getId())});
-        db.close();
-        return count;
+    }
+
+    // 只更新一条任务的排序值（拖拽移动时使用）
+    public int updateTaskPriority(int id, long priority) {
+        LoggedDatabase db = writable();
+
+        ContentValues values = new ContentValues();
+        values.put(TodoDbHelper.COLUMN_PRIORITY, priority);
+
+        return db.update(TodoDbHelper.TABLE_TODO_TASKS, values,
+                TodoDbHelper.COLUMN_ID + " = ?",
+                new String[]{String.valueOf(id)});
     }
 
     // 使用事务批量更新任务
     public void updateTasksInTransaction(List<TodoTask> tasks) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        LoggedDatabase db = writable();
         db.beginTransaction();
 
         try {
@@ -61,25 +91,77 @@ public class TodoDao {
             db.setTransactionSuccessful();
         } finally {
             db.endTransaction();
-            db.close();
         }
     }
 
 
     // 删除任务
     public int deleteTask(TodoTask task) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-        int count = db.delete(TodoDbHelper.TABLE_TODO_TASKS,
+        LoggedDatabase db = writable();
+        return db.delete(TodoDbHelper.TABLE_TODO_TASKS,
                 TodoDbHelper.COLUMN_ID + " = ?",
                 new String[]{String.valueOf(task.getId())});
-        db.close();
-        return count;
     }
 
     // 获取所有任务（按优先级升序，创建时间降序）
     public List<TodoTask> getAllTasks() {
+        return queryTasks(null, null, ORDER_FORWARD, null);
+    }
+
+    /**
+     * 键集分页：取排在 anchor 之后的 limit 条任务，anchor 为 null 时从头开始。
+     * 依赖 (priority, created_time) 索引，耗时与表的大小无关。
+     */
+    public List<TodoTask> getTasksAfter(TodoTask anchor, int limit) {
+        if (anchor == null) {
+            return queryTasks(null, null, ORDER_FORWARD, String.valueOf(limit));
+        }
+        String selection = TodoDbHelper.COLUMN_PRIORITY + " >= ? AND (" +
+                TodoDbHelper.COLUMN_PRIORITY + " > ? OR " +
+                TodoDbHelper.COLUMN_CREATED_TIME + " < ? OR (" +
+                TodoDbHelper.COLUMN_CREATED_TIME + " = ? AND " +
+                TodoDbHelper.COLUMN_ID + " > ?))";
+        return queryTasks(selection, anchorArgs(anchor), ORDER_FORWARD, String.valueOf(limit));
+    }
+
+    /**
+     * 键集分页：取排在 anchor 之前的 limit 条任务，结果仍按正常顺序排列。
+     */
+    public List<TodoTask> getTasksBefore(TodoTask anchor, int limit) {
+        String selection = TodoDbHelper.COLUMN_PRIORITY + " <= ? AND (" +
+                TodoDbHelper.COLUMN_PRIORITY + " < ? OR " +
+                TodoDbHelper.COLUMN_CREATED_TIME + " > ? OR (" +
+                TodoDbHelper.COLUMN_CREATED_TIME + " = ? AND " +
+                TodoDbHelper.COLUMN_ID + " < ?))";
+        List<TodoTask> tasks = queryTasks(selection, anchorArgs(anchor), ORDER_BACKWARD, String.valueOf(limit));
+        Collections.reverse(tasks);
+        return tasks;
+    }
+
+    // 当前最小的排序值，表为空时返回 null
+    public Long getMinPriority() {
+        LoggedDatabase db = readable();
+        Cursor cursor = db.rawQuery("SELECT MIN(" + TodoDbHelper.COLUMN_PRIORITY + ") FROM " +
+                TodoDbHelper.TABLE_TODO_TASKS, null);
+        try {
+            if (cursor.moveToFirst() && !cursor.isNull(0)) {
+                return cursor.getLong(0);
+            }
+            return null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static String[] anchorArgs(TodoTask anchor) {
+        String priority = String.valueOf(anchor.getPriority());
+        String createdTime = String.valueOf(anchor.getCreatedTime());
+        return new String[]{priority, priority, createdTime, createdTime, String.valueOf(anchor.getId())};
+    }
+
+    private List<TodoTask> queryTasks(String selection, String[] selectionArgs, String orderBy, String limit) {
         List<TodoTask> tasks = new ArrayList<>();
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        LoggedDatabase db = readable();
 
         String[] projection = {
                 TodoDbHelper.COLUMN_ID,
@@ -88,15 +170,11 @@ public class TodoDao {
                 TodoDbHelper.COLUMN_CREATED_TIME
         };
 
-        // 按优先级升序，创建时间降序排序
-        String orderBy = TodoDbHelper.COLUMN_PRIORITY + " ASC, " +
-                TodoDbHelper.COLUMN_CREATED_TIME + " DESC";
-
         Cursor cursor = db.query(
                 TodoDbHelper.TABLE_TODO_TASKS,
                 projection,
-                null, null, null, null,
-                orderBy
+                selection, selectionArgs, null, null,
+                orderBy, limit
         );
 
         if (cursor.moveToFirst()) {
@@ -109,7 +187,6 @@ public class TodoDao {
         }
 
         cursor.close();
-        db.close();
         return tasks;
     }
 
@@ -118,7 +195,7 @@ public class TodoDao {
         try {
             int id = cursor.getInt(cursor.getColumnIndexOrThrow(TodoDbHelper.COLUMN_ID));
             String content = cursor.getString(cursor.getColumnIndexOrThrow(TodoDbHelper.COLUMN_CONTENT));
-            int priority = cursor.getInt(cursor.getColumnIndexOrThrow(TodoDbHelper.COLUMN_PRIORITY));
+            long priority = cursor.getLong(cursor.getColumnIndexOrThrow(TodoDbHelper.COLUMN_PRIORITY));
             long createdTime = cursor.getLong(cursor.getColumnIndexOrThrow(TodoDbHelper.COLUMN_CREATED_TIME));
 
             return new TodoTask(id, content, priority, createdTime);
@@ -1,13 +1,19 @@
 package com.example.todolist.data;
 
+import android.content.ContentValues;
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 
 public class TodoDbHelper extends SQLiteOpenHelper {
     // 数据库信息
     private static final String DATABASE_NAME = "todotasks.db";
-    private static final int DATABASE_VERSION = 1;
+    // 版本 2：priority 改为稀疏排序值（见 TodoRank）
+    // 版本 3：增加排序索引，用于键集分页
+    // 版本 4：增加全文索引 todo_tasks_fts
+    // 版本 5：全文索引改为建在逐字分隔汉字的视图上，重建 todo_tasks_fts（汉字可以按子串搜索）
+    private static final int DATABASE_VERSION = 5;
 
     // 表名
     public static final String TABLE_TODO_TASKS = "todo_tasks";
@@ -26,18 +32,70 @@ public class TodoDbHelper extends SQLiteOpenHelper {
                     COLUMN_PRIORITY + " INTEGER DEFAULT 0, " +
                     COLUMN_CREATED_TIME + " INTEGER NOT NULL);";
 
+    // 与列表排序一致的索引（priority 升序，created_time 降序）
+    private static final String SQL_CREATE_ORDER_INDEX =
+            "CREATE INDEX IF NOT EXISTS idx_todo_tasks_order ON " + TABLE_TODO_TASKS +
+                    " (" + COLUMN_PRIORITY + " ASC, " + COLUMN_CREATED_TIME + " DESC);";
+
+    // 全文索引：镜像 content 列
+    static final SearchIndex SEARCH_INDEX = new SearchIndex("todo_tasks_fts", TABLE_TODO_TASKS, COLUMN_CONTENT);
+
     public TodoDbHelper(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        this(context, DATABASE_NAME);
+    }
+
+    // 允许指定数据库文件名（测试 / 基准测试使用独立的数据库）
+    public TodoDbHelper(Context context, String databaseName) {
+        super(context, databaseName, null, DATABASE_VERSION);
     }
 
     @Override
     public void onCreate(SQLiteDatabase db) {
         db.execSQL(SQL_CREATE_TODO_TASKS_TABLE);
+        db.execSQL(SQL_CREATE_ORDER_INDEX);
+        createSearchIndex(db);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_TODO_TASKS);
-        onCreate(db);
+        if (oldVersion < 2) {
+            spreadPriorities(db);
+        }
+        if (oldVersion < 3) {
+            db.execSQL(SQL_CREATE_ORDER_INDEX);
+        }
+        if (oldVersion < 5) {
+            // 版本 4 建立全文索引，版本 5 改为逐字分词的视图：旧索引删掉后按新定义重建
+            for (String sql : SEARCH_INDEX.dropStatements()) {
+                db.execSQL(sql);
+            }
+            createSearchIndex(db);
+            db.execSQL(SEARCH_INDEX.rebuildStatement()); // 为已有任务建立索引
+        }
+    }
+
+    private void createSearchIndex(SQLiteDatabase db) {
+        for (String sql : SEARCH_INDEX.createStatements()) {
+            db.execSQL(sql);
+        }
+    }
+
+    // 旧版本的 priority 是连续的 0..n-1（或者全是 0），按现有顺序重新拉开间隔
+    private void spreadPriorities(SQLiteDatabase db) {
+        Cursor cursor = db.query(TABLE_TODO_TASKS,
+                new String[]{COLUMN_ID},
+                null, null, null, null,
+                COLUMN_PRIORITY + " ASC, " + COLUMN_CREATED_TIME + " DESC");
+        try {
+            int index = 0;
+            while (cursor.moveToNext()) {
+                ContentValues values = new ContentValues();
+                values.put(COLUMN_PRIORITY, TodoRank.spread(index++));
+                db.update(TABLE_TODO_TASKS, values, COLUMN_ID + " = ?",
+                        new String[]{String.valueOf(cursor.getLong(0))});
+            }
+        } finally {
+            cursor.close();
+        }
     }
-}
\ No newline at end of file
+}
@@ -2,20 +2,58 @@ package com.example.todolist.data;
 
 import android.content.Context;
 import com.example.todolist.model.TodoTask;
+import com.example.todolist.util.PerfTracker;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * 待办事项管理器。
+ * <p>
+ * 内存中只保留一个按页加载的窗口（最多 MAX_PAGES_IN_MEMORY 页），列表滚动到窗口边缘时
+ * 通过键集分页向前或向后加载一页，并丢弃另一端最远的一页。启动时只读取第一页。
+ * 窗口前后紧邻的那一项的排序值也记在内存里，拖到窗口边缘时不需要在主线程上查数据库。
+ */
 public class TodoManager {
+    public static final int PAGE_SIZE = 50;
+    private static final int MAX_PAGES_IN_MEMORY = 4;
+
+    // 排序值的写入都放在同一个后台线程上按顺序执行，拖拽时不阻塞界面
+    private static final ExecutorService writeExecutor = Executors.newSingleThreadExecutor();
+
     private TodoDao todoDao;
-    private List<TodoTask> todoTaskList;
+    private List<TodoTask> todoTaskList; // 当前窗口
+    private int windowOffset = 0;        // 窗口之前还有多少条任务
+    private boolean hasMoreBefore = false;
+    private boolean hasMoreAfter = false;
+    private Long rankBeforeWindow;       // 窗口之前紧邻的任务的排序值，没有时为 null
+    private Long rankAfterWindow;        // 窗口之后紧邻的任务的排序值，没有时为 null
+    private int rebalanceCount = 0;      // 重排后，重排前发起的分页查询结果作废
 
     public TodoManager(Context context) {
-        todoDao = new TodoDao(context);
-        loadData();
+        long start = PerfTracker.begin(PerfTracker.NEW_TODO_MANAGER);
+        try {
+            todoDao = new TodoDao(context);
+            loadData();
+        } finally {
+            PerfTracker.end(PerfTracker.NEW_TODO_MANAGER, start);
+        }
     }
 
-    // 从数据库加载数据
+    // 从数据库加载第一页
     private void loadData() {
-        todoTaskList = todoDao.getAllTasks();
+        List<TodoTask> page = todoDao.getTasksAfter(null, PAGE_SIZE + 1);
+        hasMoreAfter = page.size() > PAGE_SIZE;
+        rankAfterWindow = hasMoreAfter ? page.remove(page.size() - 1).getPriority() : null;
+        todoTaskList = page;
+        windowOffset = 0;
+        hasMoreBefore = false;
+        rankBeforeWindow = null;
     }
 
     // 公共方法
@@ -23,12 +61,111 @@ public class TodoManager {
         return todoTaskList;
     }
 
+    // 窗口第一项在完整列表中的位置（用于显示序号）
+    public int getWindowOffset() {
+        return windowOffset;
+    }
+
+    public boolean hasMoreBefore() {
+        return hasMoreBefore;
+    }
+
+    public boolean hasMoreAfter() {
+        return hasMoreAfter;
+    }
+
+    /**
+     * 在窗口末尾追加下一页，超出上限时丢弃最前面的任务。
+     * 查询在后台写线程上执行（排在尚未写完的排序值之后），结果在 applyExecutor（主线程）上并入窗口。
+     * @return 窗口是否发生了变化；查询期间窗口末尾已经变了或者做过重排时放弃这一页，返回 false
+     */
+    public CompletableFuture<Boolean> loadNextPage(Executor applyExecutor) {
+        if (!hasMoreAfter || todoTaskList.isEmpty()) return CompletableFuture.completedFuture(false);
+
+        TodoTask last = todoTaskList.get(todoTaskList.size() - 1);
+        TodoTask anchor = copyOf(last);
+        int rebalanced = rebalanceCount;
+        return CompletableFuture
+                .supplyAsync(() -> todoDao.getTasksAfter(anchor, PAGE_SIZE + 1), writeExecutor)
+                .thenApplyAsync(page -> {
+                    if (rebalanced != rebalanceCount || todoTaskList.isEmpty()
+                            || todoTaskList.get(todoTaskList.size() - 1) != last) return false;
+                    return applyNextPage(page);
+                }, applyExecutor);
+    }
+
+    private boolean applyNextPage(List<TodoTask> page) {
+        hasMoreAfter = page.size() > PAGE_SIZE;
+        rankAfterWindow = hasMoreAfter ? page.remove(page.size() - 1).getPriority() : null;
+        todoTaskList.addAll(page);
+
+        int overflow = todoTaskList.size() - PAGE_SIZE * MAX_PAGES_IN_MEMORY;
+        if (overflow > 0) {
+            rankBeforeWindow = todoTaskList.get(overflow - 1).getPriority();
+            todoTaskList.subList(0, overflow).clear();
+            windowOffset += overflow;
+            hasMoreBefore = true;
+        }
+        return !page.isEmpty() || overflow > 0;
+    }
+
+    /**
+     * 在窗口开头插入上一页，超出上限时丢弃最后面的任务。线程安排同 {@link #loadNextPage}。
+     * @return 窗口是否发生了变化；查询期间窗口开头已经变了时放弃这一页，返回 false
+     */
+    public CompletableFuture<Boolean> loadPreviousPage(Executor applyExecutor) {
+        if (!hasMoreBefore || todoTaskList.isEmpty()) return CompletableFuture.completedFuture(false);
+
+        TodoTask first = todoTaskList.get(0);
+        TodoTask anchor = copyOf(first);
+        int rebalanced = rebalanceCount;
+        return CompletableFuture
+                .supplyAsync(() -> todoDao.getTasksBefore(anchor, PAGE_SIZE + 1), writeExecutor)
+                .thenApplyAsync(page -> {
+                    if (rebalanced != rebalanceCount || todoTaskList.isEmpty()
+                            || todoTaskList.get(0) != first) return false;
+                    return applyPreviousPage(page);
+                }, applyExecutor);
+    }
+
+    private boolean applyPreviousPage(List<TodoTask> page) {
+        // 多取的一条是这一页之前紧邻的任务，只记下它的排序值
+        TodoTask beforePage = page.size() > PAGE_SIZE ? page.remove(0) : null;
+        todoTaskList.addAll(0, page);
+        windowOffset = Math.max(0, windowOffset - page.size());
+        hasMoreBefore = windowOffset > 0 && beforePage != null;
+        if (!hasMoreBefore) windowOffset = 0;
+        rankBeforeWindow = hasMoreBefore ? beforePage.getPriority() : null;
+
+        int overflow = todoTaskList.size() - PAGE_SIZE * MAX_PAGES_IN_MEMORY;
+        if (overflow > 0) {
+            rankAfterWindow = todoTaskList.get(todoTaskList.size() - overflow).getPriority();
+            todoTaskList.subList(todoTaskList.size() - overflow, todoTaskList.size()).clear();
+            hasMoreAfter = true;
+        }
+        return !page.isEmpty() || overflow > 0;
+    }
+
+    // 后台查询用的锚点副本，主线程之后再改排序值也不影响这次查询
+    private static TodoTask copyOf(TodoTask task) {
+        return new TodoTask(task.getId(), task.getContent(), task.getPriority(), task.getCreatedTime());
+    }
+
     public void addTask(TodoTask task) {
+        // 新任务排在最前面；窗口不在开头时需要从数据库取当前最小值
+        Long first = windowOffset == 0
+                ? (todoTaskList.isEmpty() ? null : todoTaskList.get(0).getPriority())
+                : todoDao.getMinPriority();
+        task.setPriority(TodoRank.between(null, first));
+
         long newId = todoDao.insertTask(task);
         if (newId != -1) {
             task.setId((int) newId);
-            // 重新加载数据以确保顺序正确
-            loadData();
+            if (windowOffset == 0) {
+                todoTaskList.add(0, task); // 直接插入内存列表，不再整表重新加载
+            } else {
+                windowOffset++; // 新任务在窗口之前
+            }
         }
     }
 
@@ -36,11 +173,76 @@ public class TodoManager {
         todoDao.updateTask(task);
     }
 
-    // 批量更新任务优先级
-    public void updateTasksPriorities(List<TodoTask> tasks) {
-        todoDao.updateTasksInTransaction(tasks);
-        // 重新加载数据
-        loadData();
+    /**
+     * 把任务移动到窗口内的 toIndex，只为被移动的任务计算新的排序值并写入这一行。
+     * 如果前后两项之间已经没有空位，则整体重排。
+     */
+    public void moveTask(TodoTask task, int toIndex) {
+        int fromIndex = todoTaskList.indexOf(task);
+        if (fromIndex == -1) return;
+
+        toIndex = Math.max(0, Math.min(toIndex, todoTaskList.size() - 1));
+        if (fromIndex != toIndex) {
+            todoTaskList.remove(fromIndex);
+            todoTaskList.add(toIndex, task);
+        }
+
+        Long before = neighbourPriority(toIndex - 1);
+        Long after = neighbourPriority(toIndex + 1);
+        Long rank = TodoRank.between(before, after);
+        if (rank == null) {
+            rebalance();
+            return;
+        }
+
+        task.setPriority(rank);
+        final int id = task.getId();
+        final long priority = rank;
+        writeExecutor.execute(() -> todoDao.updateTaskPriority(id, priority));
+    }
+
+    // 取相邻任务的排序值；相邻项在窗口之外时用记下的窗口前后紧邻的排序值。
+    // 不查数据库：既不阻塞拖拽，也不会读到写线程上还没写入的排序值
+    private Long neighbourPriority(int index) {
+        if (index < 0) return rankBeforeWindow;
+        if (index >= todoTaskList.size()) return rankAfterWindow;
+        return todoTaskList.get(index).getPriority();
+    }
+
+    // 间隔用尽时重新拉开排序值，在后台用一个事务写回
+    private void rebalance() {
+        final int offset = windowOffset;
+        final List<TodoTask> snapshot = new ArrayList<>(todoTaskList.size());
+        for (int i = 0; i < todoTaskList.size(); i++) {
+            TodoTask task = todoTaskList.get(i);
+            task.setPriority(TodoRank.spread(offset + i));
+            snapshot.add(new TodoTask(task.getId(), task.getContent(), task.getPriority(), task.getCreatedTime()));
+        }
+        // 后台重排后窗口前后紧邻的任务分别排在 offset - 1 和 offset + size
+        rankBeforeWindow = hasMoreBefore ? TodoRank.spread(offset - 1) : null;
+        rankAfterWindow = hasMoreAfter ? TodoRank.spread(offset + todoTaskList.size()) : null;
+        rebalanceCount++;
+
+        if (offset == 0 && !hasMoreAfter) {
+            writeExecutor.execute(() -> todoDao.updateTasksInTransaction(snapshot));
+            return;
+        }
+
+        // 窗口之外还有任务：在后台按"窗口外的数据库顺序 + 窗口内的内存顺序"重排整张表
+        writeExecutor.execute(() -> {
+            Set<Integer> windowIds = new HashSet<>();
+            for (TodoTask task : snapshot) windowIds.add(task.getId());
+
+            List<TodoTask> all = new ArrayList<>();
+            for (TodoTask task : todoDao.getAllTasks()) {
+                if (!windowIds.contains(task.getId())) all.add(task);
+            }
+            all.addAll(Math.min(offset, all.size()), snapshot);
+            for (int i = 0; i < all.size(); i++) {
+                all.get(i).setPriority(TodoRank.spread(i));
+            }
+            todoDao.updateTasksInTransaction(all);
+        });
     }
 
     public void deleteTask(TodoTask task) {
@@ -52,4 +254,4 @@ public class TodoManager {
     public int getNextTaskId() {
         return -1; // 数据库使用自增ID
     }
-}
\ No newline at end of file
+}
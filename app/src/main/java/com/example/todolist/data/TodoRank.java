@@ -0,0 +1,35 @@
+package com.example.todolist.data;
+
+/**
+ * 待办事项的稀疏排序值（存放在 priority 列中，数值越小越靠前）。
+ * <p>
+ * 相邻任务之间预留 GAP 大小的间隔，拖拽时只需取前后两项的中间值，
+ * 因此一次移动只改写被移动的那一行。间隔用尽时由 TodoManager 在后台整体重排。
+ */
+public final class TodoRank {
+    public static final long GAP = 1L << 20;
+
+    private TodoRank() {}
+
+    /**
+     * 计算位于 before 与 after 之间的排序值。
+     *
+     * @param before 前一项的排序值，null 表示放在最前面
+     * @param after  后一项的排序值，null 表示放在最后面
+     * @return 新的排序值；两者之间已经没有空位时返回 null，需要重排
+     */
+    public static Long between(Long before, Long after) {
+        if (before == null && after == null) return 0L;
+        if (before == null) return after - GAP;
+        if (after == null) return before + GAP;
+        if (after - before < 2) return null;
+        return before + (after - before) / 2;
+    }
+
+    /**
+     * 第 index 项在均匀重排后的排序值。
+     */
+    public static long spread(int index) {
+        return index * GAP;
+    }
+}
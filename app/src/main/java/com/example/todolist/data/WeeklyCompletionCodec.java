@@ -0,0 +1,59 @@
+package com.example.todolist.data;
+
+import com.example.todolist.model.DailyTask;
+import org.json.JSONArray;
+import org.json.JSONException;
+
+/**
+ * 每日任务周完成数据的二进制编码：70 个计数（10 周 × 7 天）各占一个字节，
+ * 顺序与 DailyTask 内部的平铺数组相同。单日次数超过 255 时按 255 保存。
+ * <p>
+ * 数据库版本 3 用它代替 weekly_data 列里的 JSON 字符串；版本 4 起完成记录改存到历史表，
+ * 这里只在迁移旧数据时使用。
+ */
+public final class WeeklyCompletionCodec {
+    public static final int SIZE = DailyTask.WEEKS * DailyTask.DAYS_PER_WEEK;
+    private static final int MAX_COUNT = 0xFF;
+
+    private WeeklyCompletionCodec() {}
+
+    public static byte[] encode(int[] counts) {
+        byte[] blob = new byte[SIZE];
+        int length = counts == null ? 0 : Math.min(counts.length, SIZE);
+        for (int i = 0; i < length; i++) {
+            blob[i] = (byte) Math.max(0, Math.min(counts[i], MAX_COUNT));
+        }
+        return blob;
+    }
+
+    // blob 为空或长度不足时，缺少的部分按 0 处理
+    public static int[] decode(byte[] blob) {
+        int[] counts = new int[SIZE];
+        int length = blob == null ? 0 : Math.min(blob.length, SIZE);
+        for (int i = 0; i < length; i++) {
+            counts[i] = blob[i] & 0xFF;
+        }
+        return counts;
+    }
+
+    /**
+     * 解析旧版本 weekly_data 列中的 JSON（形如 [[0,1,0,...],[...]]），仅用于数据库迁移。
+     * 无法解析时返回全 0。
+     */
+    static int[] decodeLegacyJson(String json) {
+        int[] counts = new int[SIZE];
+        if (json == null || json.trim().isEmpty()) return counts;
+        try {
+            JSONArray weeks = new JSONArray(json);
+            for (int week = 0; week < weeks.length() && week < DailyTask.WEEKS; week++) {
+                JSONArray days = weeks.getJSONArray(week);
+                for (int day = 0; day < days.length() && day < DailyTask.DAYS_PER_WEEK; day++) {
+                    counts[week * DailyTask.DAYS_PER_WEEK + day] = days.getInt(day);
+                }
+            }
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+        return counts;
+    }
+}
@@ -12,15 +12,18 @@ import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 import androidx.viewpager2.widget.MarginPageTransformer;
 import androidx.viewpager2.widget.ViewPager2;
 import com.example.todolist.R;
 import com.example.todolist.ScheduleEditorActivity;
 import com.example.todolist.adapter.DayPagerAdapter;
+import com.example.todolist.data.AppStartup;
 import com.example.todolist.data.Data;
 import com.example.todolist.model.Day;
 import com.example.todolist.model.Week;
+import com.example.todolist.util.PerfTracker;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import java.time.LocalDate;
 import java.time.DayOfWeek;
@@ -28,6 +31,7 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class ScheduleFragment extends Fragment {
 
@@ -37,11 +41,17 @@ public class ScheduleFragment extends Fragment {
     private LocalDate selectedDate;
     private TextView tvWeekTitle;
     private List<TextView> dayViews = new ArrayList<>();
+    private boolean showingSnapshot = false; // 真实数据到达前先显示的是快照
 
     private final ActivityResultLauncher<Intent> scheduleEditorLauncher = registerForActivityResult(
             new ActivityResultContracts.StartActivityForResult(),
             result -> {
-                if (result.getResultCode() == Activity.RESULT_OK) {
+                if (result.getResultCode() != Activity.RESULT_OK) return;
+                Intent data = result.getData();
+                if (data != null && data.hasExtra("scheduleId")) {
+                    // 修改了已有行程：Data 已经改好了内存里的那一天，重新绑定即可
+                    if (dayPagerAdapter != null) dayPagerAdapter.notifyDataSetChanged();
+                } else {
                     refreshData();
                 }
             }
@@ -58,8 +68,7 @@ public class ScheduleFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
 
         if (currentWeek == null) {
-            currentWeek = new Week(LocalDate.now());
-            Data.getInstance().loadAllDataToWeek(currentWeek);
+            currentWeek = takeStartupWeek();
             selectedDate = LocalDate.now();
         }
         if (selectedDate == null) selectedDate = LocalDate.now();
@@ -71,6 +80,10 @@ public class ScheduleFragment extends Fragment {
 
         LocalDate baseDate = currentWeek.getMonday();
         dayPagerAdapter = new DayPagerAdapter(currentWeek, baseDate);
+        if (showingSnapshot) {
+            dayPagerAdapter.showPreview(currentWeek);
+        }
+        dayPagerAdapter.setOnEditScheduleListener(scheduleEditorLauncher::launch);
         scheduleViewPager.setAdapter(dayPagerAdapter);
 
         scheduleViewPager.setPageTransformer(new MarginPageTransformer(40));
@@ -106,11 +119,38 @@ public class ScheduleFragment extends Fragment {
         }
     }
     
-    @Override
-    public void onResume() {
-        super.onResume();
-        // 每次显示时刷新数据，确保从其他页面返回或编辑后数据最新
-        refreshData();
+    /**
+     * 使用启动时在后台加载的本周数据。还没加载完时先显示上次保存的课表快照（没有快照就是空的 Week），
+     * 加载完成后再替换；启动数据已经被用过时，照旧在这里同步加载。
+     */
+    private Week takeStartupWeek() {
+        CompletableFuture<Week> startupWeek = AppStartup.takeWeek();
+        if (startupWeek == null) {
+            Week week = new Week(LocalDate.now());
+            Data.getInstance().loadAllDataToWeek(week);
+            return week;
+        }
+        boolean ready = startupWeek.isDone() && !startupWeek.isCompletedExceptionally();
+        PerfTracker.cacheResult(PerfTracker.CACHE_STARTUP, ready);
+        if (ready) {
+            return startupWeek.join();
+        }
+        startupWeek.whenCompleteAsync((loaded, error) -> {
+            if (getView() == null || dayPagerAdapter == null) return;
+            if (error != null) {
+                refreshData();
+                return;
+            }
+            loaded.setMonday(currentWeek.getMonday()); // 等待期间用户可能已经翻到别的周
+            currentWeek = loaded;
+            showingSnapshot = false;
+            dayPagerAdapter.updateData(currentWeek);
+        }, ContextCompat.getMainExecutor(requireContext()));
+
+        Week snapshot = Data.getInstance().readSnapshot(LocalDate.now());
+        showingSnapshot = snapshot != null;
+        PerfTracker.cacheResult(PerfTracker.CACHE_SNAPSHOT, showingSnapshot);
+        return snapshot != null ? snapshot : new Week(LocalDate.now());
     }
 
     private void refreshData() {
@@ -0,0 +1,106 @@
+package com.example.todolist.ui;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.View;
+import androidx.annotation.Nullable;
+import com.example.todolist.model.DailyTask;
+
+/**
+ * 每日任务的周完成情况条：一个 View 直接在 Canvas 上画出 10 个格子，
+ * 替代原来每次 bind 都重新创建 10 个子 View 的做法。
+ */
+public class WeekStripView extends View {
+    public static final int WEEK_COUNT = 10;
+
+    // 颜色查找表，下标为一周的总完成次数（7 次及以上统一为金色）
+    private static final int[] COLOR_TABLE = buildColorTable();
+
+    private static final int CELL_HEIGHT_PX = 20; // 与原来的格子高度保持一致
+    private static final int CELL_MARGIN_PX = 2;
+
+    private final int[] counts = new int[WEEK_COUNT];
+    private final Paint paint = new Paint();
+
+    public WeekStripView(Context context) {
+        this(context, null);
+    }
+
+    public WeekStripView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        paint.setStyle(Paint.Style.FILL);
+    }
+
+    /**
+     * 从任务中读取最近 10 周的完成次数，只有数据真正变化时才重绘。
+     */
+    public void setTask(DailyTask task) {
+        boolean changed = false;
+        for (int i = 0; i < WEEK_COUNT; i++) {
+            int count = task == null ? 0 : task.getWeekTotalCompletionCount(i);
+            if (counts[i] != count) {
+                counts[i] = count;
+                changed = true;
+            }
+        }
+        if (changed) {
+            invalidate();
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        int left = getPaddingLeft();
+        int width = getWidth() - left - getPaddingRight();
+        int height = getHeight() - getPaddingTop() - getPaddingBottom();
+        if (width <= 0 || height <= 0) return;
+
+        int cellHeight = Math.min(CELL_HEIGHT_PX, height);
+        float top = getPaddingTop() + (height - cellHeight) / 2f; // 垂直居中
+        float bottom = top + cellHeight;
+        float slot = (float) width / WEEK_COUNT;
+
+        for (int i = 0; i < WEEK_COUNT; i++) {
+            paint.setColor(colorForCount(counts[i]));
+            float cellLeft = left + i * slot + CELL_MARGIN_PX;
+            float cellRight = left + (i + 1) * slot - CELL_MARGIN_PX;
+            canvas.drawRect(cellLeft, top, cellRight, bottom, paint);
+        }
+    }
+
+    static int colorForCount(int count) {
+        if (count <= 0) return COLOR_TABLE[0];
+        return COLOR_TABLE[Math.min(count, COLOR_TABLE.length - 1)];
+    }
+
+    /**
+     * 预先计算好颜色表：
+     * 0次: 灰色 (#E0E0E0)
+     * 1-3次: 蓝色渐变，从浅蓝(#81D4FA)到深蓝(#1976D2)
+     * 4-6次: 绿色渐变，从浅绿(#A5D6A7)到深绿(#2E7D32)
+     * 7次及以上: 金色
+     */
+    private static int[] buildColorTable() {
+        int[] table = new int[8];
+        table[0] = 0xFFE0E0E0;
+        for (int count = 1; count <= 3; count++) {
+            table[count] = blend(0xFF81D4FA, 0xFF1976D2, (float) count / 3);
+        }
+        for (int count = 4; count <= 6; count++) {
+            table[count] = blend(0xFFA5D6A7, 0xFF2E7D32, (float) (count - 3) / 3);
+        }
+        table[7] = 0xFFFFD700;
+        return table;
+    }
+
+    private static int blend(int startColor, int endColor, float ratio) {
+        int red = (int) (((startColor >> 16) & 0xFF) + (((endColor >> 16) & 0xFF) - ((startColor >> 16) & 0xFF)) * ratio);
+        int green = (int) (((startColor >> 8) & 0xFF) + (((endColor >> 8) & 0xFF) - ((startColor >> 8) & 0xFF)) * ratio);
+        int blue = (int) ((startColor & 0xFF) + ((endColor & 0xFF) - (startColor & 0xFF)) * ratio);
+        return 0xFF000000 | (red << 16) | (green << 8) | blue;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.todolist.util;
+
+import java.util.Arrays;
+
+/**
+ * 保存最近若干次耗时样本的环形缓冲区，用来算 p50 / p95。
+ * 满了以后新样本覆盖最旧的，所以百分位反映的是最近一段时间的表现；总次数和总耗时则一直累计。
+ * <p>
+ * 只依赖 JDK，可以在本地单元测试里直接使用。
+ */
+public class LatencyReservoir {
+    private final long[] samples;
+    private int next = 0;
+    private int size = 0;
+    private long count = 0;
+    private long totalNanos = 0;
+    private long maxNanos = 0;
+
+    public LatencyReservoir(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        samples = new long[capacity];
+    }
+
+    public synchronized void add(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) size++;
+        count++;
+        totalNanos += nanos;
+        if (nanos > maxNanos) maxNanos = nanos;
+    }
+
+    /**
+     * 最近样本中的百分位（最近秩法），fraction 取 0~1；没有样本时返回 0。
+     */
+    public synchronized long percentile(double fraction) {
+        if (size == 0) return 0;
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(fraction * size) - 1;
+        return sorted[Math.max(0, Math.min(size - 1, rank))];
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public synchronized double getMeanNanos() {
+        return count == 0 ? 0 : (double) totalNanos / count;
+    }
+
+    public synchronized void clear() {
+        next = 0;
+        size = 0;
+        count = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.todolist.util;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.ApplicationInfo;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.Printer;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * 主线程卡顿监控：通过 {@link Looper#setMessageLogging} 得知每条主线程消息的开始和结束。
+ * 消息开始时向采样线程发一个延迟到阈值的采样任务，消息在阈值内结束就取消它；
+ * 超过阈值时采样线程每隔一段时间抓一次主线程的调用栈，直到消息结束。
+ * 消息结束后，超过阈值的卡顿交给 {@link StallAggregator} 按栈顶归类，并写到 files/main_thread_stalls.json，
+ * 下次启动时读回来，在"性能数据"页面查看。
+ * <p>
+ * 代价：Looper 会为每条消息拼两次日志字符串，每条消息多一次 postDelayed 和 removeCallbacks；
+ * 主线程空闲或消息都很短时采样线程不会醒来。调试版默认开启，正式版默认关闭，可以在"性能数据"页面切换。
+ */
+public final class MainThreadWatchdog {
+    private static final String TAG = "MainThreadWatchdog";
+    public static final long STALL_THRESHOLD_MS = 100;
+    static final long SAMPLE_INTERVAL_MS = 50;
+    private static final int MAX_REPORTS = 50;
+    private static final String FILE_NAME = "main_thread_stalls.json";
+    private static final String APP_PACKAGE = "com.example.todolist.";
+    private static final String DISPATCH_PREFIX = ">>>>> Dispatching to ";
+    private static final String PREF_NAME = "perf_prefs";
+    private static final String KEY_ENABLED = "stall_watchdog_enabled";
+    // 消息描述里的对象地址每次都不同，去掉后同一类消息才能合并
+    private static final Pattern OBJECT_ID = Pattern.compile("(@|\\{)[0-9a-f]+\\}?");
+
+    private static MainThreadWatchdog instance;
+
+    private final File file;
+    private final Thread mainThread = Looper.getMainLooper().getThread();
+    private final StallAggregator aggregator;
+    private final ExecutorService saveExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean savePending = new AtomicBoolean(false);
+    private final Object lock = new Object();
+
+    // 由主线程写、采样线程读
+    private volatile long dispatchStart = 0; // 0 表示主线程空闲
+    private volatile int dispatchSeq = 0;
+    private String dispatchMessage;
+    private final List<StackTraceElement[]> samples = new ArrayList<>(); // 受 lock 保护
+    private final Runnable sampleTask = this::sample;
+    private HandlerThread samplerThread;
+    private volatile Handler sampler; // 采样线程的 Handler，停止时为 null
+
+    private final Printer printer = line -> {
+        if (line.startsWith(DISPATCH_PREFIX)) {
+            onDispatchStart(line);
+        } else if (line.startsWith("<<<<< Finished")) {
+            onDispatchEnd();
+        }
+    };
+
+    private MainThreadWatchdog(Context context) {
+        file = new File(context.getFilesDir(), FILE_NAME);
+        aggregator = new StallAggregator(APP_PACKAGE, MAX_REPORTS);
+    }
+
+    /**
+     * 按保存的开关启动监控（调试版默认开启），重复调用没有影响。需要在主线程调用。
+     */
+    public static synchronized void install(Context context) {
+        if (instance != null) return;
+        instance = new MainThreadWatchdog(context.getApplicationContext());
+        instance.load();
+        if (isEnabled(context)) {
+            instance.start();
+        }
+    }
+
+    public static boolean isEnabled(Context context) {
+        boolean debuggable = (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        return context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE).getBoolean(KEY_ENABLED, debuggable);
+    }
+
+    public static synchronized void setEnabled(Context context, boolean enabled) {
+        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        prefs.edit().putBoolean(KEY_ENABLED, enabled).apply();
+        install(context);
+        if (enabled) {
+            instance.start();
+        } else {
+            instance.stop();
+        }
+    }
+
+    /** 汇总报告的纯文本，没有安装时返回空字符串。 */
+    public static synchronized String report() {
+        return instance != null ? instance.buildReport() : "";
+    }
+
+    public static synchronized void clear() {
+        if (instance == null) return;
+        instance.aggregator.clear();
+        instance.saveExecutor.execute(instance.file::delete);
+    }
+
+    private void start() {
+        if (samplerThread != null) return;
+        samplerThread = new HandlerThread("stall-sampler");
+        samplerThread.start();
+        sampler = new Handler(samplerThread.getLooper());
+        Looper.getMainLooper().setMessageLogging(printer);
+    }
+
+    private void stop() {
+        if (samplerThread == null) return;
+        Looper.getMainLooper().setMessageLogging(null);
+        sampler.removeCallbacks(sampleTask);
+        sampler = null;
+        samplerThread.quit();
+        samplerThread = null;
+        dispatchStart = 0;
+    }
+
+    // 主线程：消息开始，到阈值时还没结束才开始采样
+    private void onDispatchStart(String line) {
+        dispatchMessage = line;
+        dispatchSeq++;
+        dispatchStart = SystemClock.uptimeMillis();
+        Handler handler = sampler;
+        if (handler != null) handler.postDelayed(sampleTask, STALL_THRESHOLD_MS);
+    }
+
+    // 主线程：消息结束，超过阈值时交给汇总
+    private void onDispatchEnd() {
+        long start = dispatchStart;
+        dispatchStart = 0;
+        if (start == 0) return;
+        long duration = SystemClock.uptimeMillis() - start;
+        List<StackTraceElement[]> stallSamples;
+        synchronized (lock) {
+            // 持锁取消：采样线程要么已经在锁内排好了下一次（在这里一起取消），要么之后看到消息已结束不再排
+            Handler handler = sampler;
+            if (handler != null) handler.removeCallbacks(sampleTask);
+            if (duration < STALL_THRESHOLD_MS) {
+                samples.clear();
+                return;
+            }
+            stallSamples = new ArrayList<>(samples);
+            samples.clear();
+        }
+        String message = OBJECT_ID.matcher(dispatchMessage.substring(DISPATCH_PREFIX.length())).replaceAll("");
+        StallAggregator.Report report = aggregator.add(duration, message, stallSamples, System.currentTimeMillis());
+        Log.w(TAG, "main thread stalled " + duration + " ms at " + report.key());
+        scheduleSave();
+    }
+
+    // 采样线程：当前消息执行超过阈值后抓一次主线程的栈，并在一个间隔后再来，直到消息结束时被取消
+    private void sample() {
+        long start = dispatchStart;
+        int seq = dispatchSeq;
+        if (start == 0 || SystemClock.uptimeMillis() - start < STALL_THRESHOLD_MS) return;
+        StackTraceElement[] stack = mainThread.getStackTrace();
+        synchronized (lock) {
+            // 采样期间消息已经结束，这个栈不属于那次卡顿
+            if (seq != dispatchSeq || dispatchStart == 0) return;
+            samples.add(stack);
+            Handler handler = sampler;
+            if (handler != null) handler.postDelayed(sampleTask, SAMPLE_INTERVAL_MS);
+        }
+    }
+
+    private String buildReport() {
+        SimpleDateFormat format = new SimpleDateFormat("MM-dd HH:mm", Locale.US);
+        StringBuilder sb = new StringBuilder();
+        for (StallAggregator.Report report : aggregator.getReports()) {
+            sb.append(String.format(Locale.US, "%d 次, 共 %d ms, 最长 %d ms, 最近 %s\n", report.count,
+                    report.totalMillis, report.maxMillis, format.format(new Date(report.lastSeenMillis))));
+            sb.append("  ").append(report.key()).append('\n');
+            if (report.message != null) {
+                sb.append("  消息: ").append(report.message).append('\n');
+            }
+            for (String frame : report.stack) {
+                sb.append("    at ").append(frame).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    // 连续多次卡顿时，还没开始的保存只保留一次
+    private void scheduleSave() {
+        if (!savePending.compareAndSet(false, true)) return;
+        saveExecutor.execute(() -> {
+            savePending.set(false);
+            save();
+        });
+    }
+
+    private void save() {
+        JSONArray array = new JSONArray();
+        try {
+            for (StallAggregator.Report report : aggregator.getReports()) {
+                JSONObject json = new JSONObject();
+                json.put("topFrame", report.topFrame);
+                json.put("appFrame", report.appFrame);
+                json.put("message", report.message);
+                json.put("count", report.count);
+                json.put("totalMillis", report.totalMillis);
+                json.put("maxMillis", report.maxMillis);
+                json.put("lastSeenMillis", report.lastSeenMillis);
+                json.put("stack", new JSONArray(report.stack));
+                array.put(json);
+            }
+        } catch (JSONException e) {
+            Log.e(TAG, "failed to encode stalls", e);
+            return;
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(array.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            Log.e(TAG, "failed to save stalls", e);
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+        }
+    }
+
+    // 启动时在主线程读一次，文件很小（最多 50 条）
+    private void load() {
+        if (!file.exists()) return;
+        try (FileInputStream in = new FileInputStream(file)) {
+            byte[] data = new byte[(int) file.length()];
+            int offset = 0;
+            while (offset < data.length) {
+                int read = in.read(data, offset, data.length - offset);
+                if (read < 0) break;
+                offset += read;
+            }
+            JSONArray array = new JSONArray(new String(data, 0, offset, StandardCharsets.UTF_8));
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject json = array.getJSONObject(i);
+                StallAggregator.Report report = new StallAggregator.Report(
+                        json.getString("topFrame"), json.isNull("appFrame") ? null : json.getString("appFrame"));
+                report.message = json.isNull("message") ? null : json.getString("message");
+                report.count = json.getInt("count");
+                report.totalMillis = json.getLong("totalMillis");
+                report.maxMillis = json.getLong("maxMillis");
+                report.lastSeenMillis = json.getLong("lastSeenMillis");
+                JSONArray stack = json.getJSONArray("stack");
+                for (int j = 0; j < stack.length(); j++) {
+                    report.stack.add(stack.getString(j));
+                }
+                aggregator.restore(report);
+            }
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "discarding unreadable stall file", e);
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.todolist.util;
+
+import android.os.Build;
+import android.os.Debug;
+import android.os.Trace;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 热点路径的轻量统计：
+ * <ul>
+ *   <li>计时段：同时写 {@link Trace} 段（systrace / Perfetto 里可见）并记入耗时样本，用于 p50 / p95；</li>
+ *   <li>查询计数：按当前所在的页面累计数据库查询次数；</li>
+ *   <li>缓存命中：按缓存名累计命中与未命中次数。</li>
+ * </ul>
+ * 计时的写法（不分配对象，可以放在列表绑定里）：
+ * <pre>
+ * long start = PerfTracker.begin(PerfTracker.DATA_LOAD_WEEK);
+ * try { ... } finally { PerfTracker.end(PerfTracker.DATA_LOAD_WEEK, start); }
+ * </pre>
+ * begin / end 必须在同一线程上成对调用（Trace 段的要求）。结果在"设置中心 → 性能数据"页面查看。
+ */
+public final class PerfTracker {
+    // 计时段名称
+    public static final String DATA_LOAD_WEEK = "Data.loadAllDataToWeek";
+    public static final String DATA_SAVE_DAY = "Data.saveDay";
+    public static final String DATA_LOAD_DAY = "Data.loadDaySchedules";
+    public static final String DATA_UPDATE_SCHEDULE = "Data.updateSchedule";
+    public static final String WEEK_GET_DAY = "Week.getDayForDate";
+    public static final String BIND_DAY = "DayPagerAdapter.bind";
+    public static final String BIND_DAILY = "DailyTaskAdapter.bind";
+    public static final String BIND_TODO = "TodoAdapter.bind";
+    public static final String NEW_TODO_MANAGER = "TodoManager.<init>";
+    public static final String NEW_DAILY_MANAGER = "DailyTaskManager.<init>";
+    public static final String TAB_SWITCH = "MainActivity.tabSwitch.";
+
+    // 缓存名称
+    public static final String CACHE_SNAPSHOT = "schedule_snapshot";
+    public static final String CACHE_STARTUP = "startup_prewarm";
+    public static final String CACHE_NOTE = "note_content";
+
+    private static final int SAMPLES_PER_SECTION = 256;
+
+    private static final Map<String, LatencyReservoir> sections = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> queriesByScreen = new ConcurrentHashMap<>();
+    private static final Map<String, long[]> caches = new ConcurrentHashMap<>(); // {命中, 未命中}
+    private static volatile String screen = "startup";
+
+    private PerfTracker() {}
+
+    public static long begin(String name) {
+        Trace.beginSection(name);
+        return System.nanoTime();
+    }
+
+    public static void end(String name, long startNanos) {
+        Trace.endSection();
+        record(name, System.nanoTime() - startNanos);
+    }
+
+    /** 记录一次已经量好的耗时（例如跨线程、跨帧的耗时，不能用 Trace 段表示）。 */
+    public static void record(String name, long nanos) {
+        LatencyReservoir reservoir = sections.get(name);
+        if (reservoir == null) {
+            reservoir = sections.computeIfAbsent(name, k -> new LatencyReservoir(SAMPLES_PER_SECTION));
+        }
+        reservoir.add(nanos);
+    }
+
+    /** 切换到新的页面后调用，之后的查询都记在这个页面名下。 */
+    public static void setScreen(String name) {
+        screen = name;
+    }
+
+    public static String getScreen() {
+        return screen;
+    }
+
+    public static void countQueries(int count) {
+        String current = screen;
+        AtomicLong counter = queriesByScreen.get(current);
+        if (counter == null) {
+            counter = queriesByScreen.computeIfAbsent(current, k -> new AtomicLong());
+        }
+        long total = counter.addAndGet(count);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.setCounter("queries." + current, total);
+        }
+    }
+
+    public static void cacheResult(String cache, boolean hit) {
+        long[] counts = caches.computeIfAbsent(cache, k -> new long[2]);
+        synchronized (counts) {
+            counts[hit ? 0 : 1]++;
+        }
+    }
+
+    public static void reset() {
+        for (LatencyReservoir reservoir : sections.values()) reservoir.clear();
+        queriesByScreen.clear();
+        caches.clear();
+    }
+
+    /** 生成可以直接显示或复制给开发者的纯文本报告。 */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("== 耗时 (ms) ==\n");
+        sb.append(String.format(Locale.US, "%-30s %6s %7s %7s %7s\n", "段", "次数", "p50", "p95", "max"));
+        for (Map.Entry<String, LatencyReservoir> entry : new TreeMap<>(sections).entrySet()) {
+            LatencyReservoir r = entry.getValue();
+            if (r.getCount() == 0) continue;
+            sb.append(String.format(Locale.US, "%-30s %6d %7.2f %7.2f %7.2f\n", entry.getKey(), r.getCount(),
+                    r.percentile(0.5) / 1e6, r.percentile(0.95) / 1e6, r.getMaxNanos() / 1e6));
+        }
+
+        sb.append("\n== 各页面查询次数 ==\n");
+        for (Map.Entry<String, AtomicLong> entry : new TreeMap<>(queriesByScreen).entrySet()) {
+            sb.append(String.format(Locale.US, "%-30s %6d\n", entry.getKey(), entry.getValue().get()));
+        }
+
+        sb.append("\n== 缓存命中率 ==\n");
+        for (Map.Entry<String, long[]> entry : new TreeMap<>(caches).entrySet()) {
+            long hits, misses;
+            synchronized (entry.getValue()) {
+                hits = entry.getValue()[0];
+                misses = entry.getValue()[1];
+            }
+            sb.append(String.format(Locale.US, "%-30s %5.1f%% (%d/%d)\n", entry.getKey(),
+                    100.0 * hits / Math.max(1, hits + misses), hits, hits + misses));
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        sb.append("\n== 内存 ==\n");
+        sb.append(String.format(Locale.US, "Java 堆: %.1f / %.1f MB (上限 %.1f MB)\n",
+                (runtime.totalMemory() - runtime.freeMemory()) / 1048576.0,
+                runtime.totalMemory() / 1048576.0, runtime.maxMemory() / 1048576.0));
+        sb.append(String.format(Locale.US, "Native 堆: %.1f MB\n", Debug.getNativeHeapAllocatedSize() / 1048576.0));
+        return sb.toString();
+    }
+}
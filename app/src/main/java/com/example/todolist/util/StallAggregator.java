@@ -0,0 +1,138 @@
+package com.example.todolist.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 把主线程卡顿按栈顶归类汇总：同一个栈顶（加上最靠近栈顶的本应用帧）的卡顿合并成一条记录，
+ * 累计次数、总耗时、最长耗时，并保留最长那次的调用栈。
+ * <p>
+ * 只依赖 JDK，持久化由 {@link MainThreadWatchdog} 负责。
+ */
+public class StallAggregator {
+    static final String NOT_SAMPLED = "(no sample)";
+    static final int MAX_STACK_FRAMES = 20;
+
+    /** 一类卡顿的汇总。 */
+    public static final class Report {
+        public final String topFrame;
+        public final String appFrame; // 最靠近栈顶的本应用帧，没有时为 null
+        public String message;        // 最长那次卡顿所在的消息
+        public int count;
+        public long totalMillis;
+        public long maxMillis;
+        public long lastSeenMillis;
+        public List<String> stack = new ArrayList<>();
+
+        public Report(String topFrame, String appFrame) {
+            this.topFrame = topFrame;
+            this.appFrame = appFrame;
+        }
+
+        public String key() {
+            return appFrame == null ? topFrame : topFrame + " <- " + appFrame;
+        }
+    }
+
+    private final String appPackage;
+    private final int maxReports;
+    private final Map<String, Report> reports = new LinkedHashMap<>();
+
+    public StallAggregator(String appPackage, int maxReports) {
+        this.appPackage = appPackage;
+        this.maxReports = maxReports;
+    }
+
+    /**
+     * 记录一次卡顿。samples 是卡顿期间对主线程栈的若干次采样，取出现最多的栈顶作为归类依据；
+     * 没有采样到（卡顿刚好超过阈值就结束了）时归到"未采样"一类。
+     */
+    public synchronized Report add(long durationMillis, String message, List<StackTraceElement[]> samples, long nowMillis) {
+        StackTraceElement[] stack = representative(samples);
+        String topFrame = stack != null && stack.length > 0 ? stack[0].toString() : NOT_SAMPLED;
+        String appFrame = stack != null ? firstAppFrame(stack) : null;
+
+        Report report = new Report(topFrame, appFrame);
+        Report existing = reports.get(report.key());
+        if (existing != null) {
+            report = existing;
+        } else {
+            reports.put(report.key(), report);
+        }
+        report.count++;
+        report.totalMillis += durationMillis;
+        report.lastSeenMillis = nowMillis;
+        if (durationMillis >= report.maxMillis) {
+            report.maxMillis = durationMillis;
+            report.message = message;
+            report.stack = toStrings(stack);
+        }
+        trim();
+        return report;
+    }
+
+    /** 从持久化的数据恢复一条记录。 */
+    public synchronized void restore(Report report) {
+        reports.put(report.key(), report);
+        trim();
+    }
+
+    /** 按总耗时从大到小排列。 */
+    public synchronized List<Report> getReports() {
+        List<Report> result = new ArrayList<>(reports.values());
+        Collections.sort(result, (a, b) -> Long.compare(b.totalMillis, a.totalMillis));
+        return result;
+    }
+
+    public synchronized void clear() {
+        reports.clear();
+    }
+
+    // 超过上限时丢掉总耗时最小的一类
+    private void trim() {
+        while (reports.size() > maxReports) {
+            Report smallest = null;
+            for (Report report : reports.values()) {
+                if (smallest == null || report.totalMillis < smallest.totalMillis) smallest = report;
+            }
+            reports.remove(smallest.key());
+        }
+    }
+
+    private static StackTraceElement[] representative(List<StackTraceElement[]> samples) {
+        if (samples == null || samples.isEmpty()) return null;
+        Map<String, Integer> counts = new HashMap<>();
+        StackTraceElement[] best = null;
+        int bestCount = 0;
+        for (StackTraceElement[] sample : samples) {
+            if (sample.length == 0) continue;
+            String top = sample[0].toString();
+            int count = counts.merge(top, 1, Integer::sum);
+            if (count > bestCount) {
+                bestCount = count;
+                best = sample;
+            }
+        }
+        return best;
+    }
+
+    String firstAppFrame(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            if (frame.getClassName().startsWith(appPackage)) return frame.toString();
+        }
+        return null;
+    }
+
+    private static List<String> toStrings(StackTraceElement[] stack) {
+        List<String> frames = new ArrayList<>();
+        if (stack == null) return frames;
+        for (int i = 0; i < Math.min(stack.length, MAX_STACK_FRAMES); i++) {
+            frames.add(stack[i].toString());
+        }
+        return frames;
+    }
+}
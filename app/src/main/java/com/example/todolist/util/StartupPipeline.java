@@ -0,0 +1,130 @@
+package com.example.todolist.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * 启动流水线：把互不依赖的初始化步骤（打开数据库、加载数据）作为阶段提交到后台线程并行执行，
+ * 并记录每个阶段相对流水线创建时刻的开始、结束时间，便于在测试和日志里发现冷启动变慢。
+ * <p>
+ * 只依赖 JDK，不涉及 Android 类。
+ */
+public class StartupPipeline {
+
+    /** 一个阶段的耗时记录，时间单位为纳秒，相对于流水线创建的时刻。 */
+    public static final class StageTiming {
+        public final String name;
+        public final String threadName;
+        public final long startNanos;
+        public final long endNanos;
+        public final boolean failed;
+
+        StageTiming(String name, String threadName, long startNanos, long endNanos, boolean failed) {
+            this.name = name;
+            this.threadName = threadName;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+            this.failed = failed;
+        }
+
+        public double durationMillis() {
+            return (endNanos - startNanos) / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.1f ms (+%.1f ms, %s%s)", name, durationMillis(),
+                    startNanos / 1e6, threadName, failed ? ", failed" : "");
+        }
+    }
+
+    /** 阶段结束时的回调，在执行该阶段的线程上调用。 */
+    public interface Listener {
+        void onStageFinished(StageTiming timing);
+    }
+
+    private final Executor executor;
+    private final long originNanos = System.nanoTime();
+    private final List<StageTiming> timings = new ArrayList<>();
+    private final List<CompletableFuture<?>> futures = new ArrayList<>();
+    private final Listener listener;
+    private volatile boolean cancelled = false;
+
+    public StartupPipeline(Executor executor) {
+        this(executor, null);
+    }
+
+    public StartupPipeline(Executor executor, Listener listener) {
+        this.executor = executor;
+        this.listener = listener;
+    }
+
+    /**
+     * 在后台执行一个阶段。异常会记录为失败的阶段，并通过返回的 future 传递出去。
+     */
+    public <T> CompletableFuture<T> stage(String name, Supplier<T> work) {
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
+            // 取消后还没轮到执行的阶段直接放弃
+            if (cancelled) throw new CancellationException(name);
+            long start = System.nanoTime() - originNanos;
+            boolean failed = true;
+            try {
+                T result = work.get();
+                failed = false;
+                return result;
+            } finally {
+                record(new StageTiming(name, Thread.currentThread().getName(),
+                        start, System.nanoTime() - originNanos, failed));
+            }
+        }, executor);
+        synchronized (futures) {
+            futures.add(future);
+        }
+        return future;
+    }
+
+    /**
+     * 取消整个流水线：尚未开始的阶段不再执行，所有 future 以 CancellationException 结束。
+     * 已经在执行的阶段不会被打断，它的结果会被丢弃。
+     */
+    public void cancel() {
+        cancelled = true;
+        synchronized (futures) {
+            for (CompletableFuture<?> future : futures) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void record(StageTiming timing) {
+        synchronized (timings) {
+            timings.add(timing);
+        }
+        if (listener != null) listener.onStageFinished(timing);
+    }
+
+    // 已经结束的阶段，按结束顺序排列
+    public List<StageTiming> getTimings() {
+        synchronized (timings) {
+            return Collections.unmodifiableList(new ArrayList<>(timings));
+        }
+    }
+
+    public StageTiming getTiming(String name) {
+        synchronized (timings) {
+            for (StageTiming timing : timings) {
+                if (timing.name.equals(name)) return timing;
+            }
+        }
+        return null;
+    }
+}
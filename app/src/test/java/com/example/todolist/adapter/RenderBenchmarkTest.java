@@ -0,0 +1,182 @@
+package com.example.todolist.adapter;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.appcompat.view.ContextThemeWrapper;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.todolist.R;
+import com.example.todolist.benchmark.BenchmarkReport;
+import com.example.todolist.model.DailyTask;
+import com.example.todolist.model.Day;
+import com.example.todolist.model.HabitStats;
+import com.example.todolist.model.RepeatRule;
+import com.example.todolist.model.Schedule;
+import com.example.todolist.model.Week;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * 列表绑定的渲染基准：用真实布局创建 ViewHolder，计时 DayPagerAdapter 绑定 0 / 10 / 40 个行程的一天，
+ * 以及 DailyTaskAdapter 绑定不同完成程度（0% / 50% / 100%）的习惯行。
+ * 除耗时外还记录每次绑定新建的 View 数和当前线程分配的字节数。
+ * <p>
+ * 运行：./gradlew :app:testDebugUnitTest --tests '*RenderBenchmarkTest' -Pbenchmark.run=true
+ * 报告在 app/build/reports/benchmarks/render.csv / .json。
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class RenderBenchmarkTest {
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 100;
+    private static final LocalDate DATE = LocalDate.of(2024, 9, 11);
+
+    private static BenchmarkReport report;
+
+    private Context context;
+    private ViewGroup parent;
+
+    // 整个类共用一个报告，所有测试跑完后一起写出并与基线比较
+    @BeforeClass
+    public static void createReport() {
+        assumeTrue("pass -Pbenchmark.run=true to run benchmarks", BenchmarkReport.enabled());
+        report = new BenchmarkReport("render");
+    }
+
+    @AfterClass
+    public static void finishReport() throws Exception {
+        if (report != null) report.finish();
+        report = null;
+    }
+
+    @Before
+    public void setUp() {
+        context = new ContextThemeWrapper(ApplicationProvider.getApplicationContext(), R.style.AppTheme);
+        parent = new FrameLayout(context);
+    }
+
+    @Test
+    public void dayPagerBind() {
+        for (int scheduleCount : new int[]{0, 10, 40}) {
+            Week week = new Week(DATE);
+            week.addDay(dayWithSchedules(scheduleCount));
+            DayPagerAdapter adapter = new DayPagerAdapter(week, DATE);
+            DayPagerAdapter.DayViewHolder holder = adapter.onCreateViewHolder(parent, 0);
+            int position = adapter.getPositionForDate(DATE);
+
+            measureBind("DayPagerAdapter.bind", scheduleCount, holder,
+                    () -> adapter.onBindViewHolder(holder, position));
+        }
+    }
+
+    @Test
+    public void dailyTaskBind() {
+        for (int percent : new int[]{0, 50, 100}) {
+            List<DailyTask> tasks = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                tasks.add(habit(i, percent, new Random(i)));
+            }
+            DailyTaskAdapter adapter = new DailyTaskAdapter(tasks, null);
+            RecyclerView.ViewHolder holder = adapter.onCreateViewHolder(parent, adapter.getItemViewType(0));
+            int[] next = {0};
+
+            measureBind("DailyTaskAdapter.bind", percent, holder, () -> {
+                adapter.onBindViewHolder(holder, next[0]);
+                next[0] = (next[0] + 1) % tasks.size();
+            });
+        }
+    }
+
+    /**
+     * 先计时，再单独统计每次绑定新建的 View（绑定后树里新出现的对象）和分配的字节数，
+     * 统计本身的开销不计入耗时。
+     */
+    private void measureBind(String name, int size, RecyclerView.ViewHolder holder, Runnable bind) {
+        BenchmarkReport.Result result = report.measure(name, size, WARMUP, ITERATIONS, bind);
+
+        long createdViews = 0;
+        long allocated = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            Set<View> before = collectViews(holder.itemView);
+            long bytesBefore = BenchmarkReport.allocatedBytes();
+            bind.run();
+            allocated += BenchmarkReport.allocatedBytes() - bytesBefore;
+            for (View view : collectViews(holder.itemView)) {
+                if (!before.contains(view)) createdViews++;
+            }
+        }
+        result.extra.put("views_created", (double) createdViews / ITERATIONS);
+        if (BenchmarkReport.allocatedBytes() >= 0) {
+            result.extra.put("bytes_allocated", (double) allocated / ITERATIONS);
+        }
+    }
+
+    private static Set<View> collectViews(View root) {
+        Set<View> views = Collections.newSetFromMap(new IdentityHashMap<>());
+        collect(root, views);
+        return views;
+    }
+
+    private static void collect(View view, Set<View> views) {
+        views.add(view);
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                collect(group.getChildAt(i), views);
+            }
+        }
+    }
+
+    // 8:00 起排满 count 个行程，40 个时每个约 20 分钟
+    private static Day dayWithSchedules(int count) {
+        Day day = new Day(DATE, true, new RepeatRule());
+        day.setActiveHours(7, 23);
+        int slot = count == 0 ? 60 : Math.max(15, 14 * 60 / count);
+        for (int i = 0; i < count; i++) {
+            int start = 8 * 60 + i * slot;
+            day.addSchedule(new Schedule(start, start + slot - 5, "课程 " + i,
+                    new Schedule.Note("教室", "A" + (100 + i)), 0xFF4CAF50, false));
+        }
+        return day;
+    }
+
+    // 最近 70 天中约 percent% 的日子打过卡
+    private static DailyTask habit(int id, int percent, Random random) {
+        DailyTask task = new DailyTask(id + 1, "习惯 " + id);
+        int[] weekly = new int[DailyTask.WEEKS * DailyTask.DAYS_PER_WEEK];
+        List<Long> doneDays = new ArrayList<>();
+        long today = DATE.toEpochDay();
+        for (int i = 0; i < weekly.length; i++) {
+            if (random.nextInt(100) < percent) {
+                weekly[i] = 1;
+                doneDays.add(today - i);
+            }
+        }
+        task.setWeeklyCompletion(weekly);
+        task.setCompletedToday(percent == 100);
+        long[] days = new long[doneDays.size()];
+        for (int i = 0; i < days.length; i++) days[i] = doneDays.get(i);
+        task.setStats(HabitStats.recompute(today - weekly.length + 1, today, days));
+        return task;
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.todolist.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 在 JVM 上运行的基准的计时和报告。
+ * <p>
+ * 每一项先预热若干次，再计时若干次，取中位数和 p90。全部结束后在 build/reports/benchmarks 下写出
+ * CSV 和 JSON，并和 src/test/benchmarks 下的基线 CSV 比较，中位数比基线慢超过阈值的项记为回退。
+ * 基线文件不存在时直接失败（除非这次就是在生成基线），不会因为没有基线而默默地什么都不比较。
+ * 一个测试类共用一个报告（在 @BeforeClass 中创建、@AfterClass 中 finish），报告里才有整个套件的结果。
+ * <p>
+ * 通过系统属性控制（Gradle 中用 -Pbenchmark.xxx 传入）：
+ * <ul>
+ *   <li>benchmark.run=true：运行基准，否则基准测试直接跳过，不拖慢平时的单元测试</li>
+ *   <li>benchmark.updateBaseline=true：用这次的结果覆盖基线</li>
+ *   <li>benchmark.failOnRegression=true：有回退时测试失败（默认只打印）</li>
+ *   <li>benchmark.threshold=0.25：允许的变慢比例</li>
+ * </ul>
+ */
+public final class BenchmarkReport {
+    private static final String CSV_HEADER = "name,size,iterations,median_ns,p90_ns,mean_ns";
+
+    /** 一项基准的结果；extra 是除耗时之外的指标（例如创建的 View 数、分配的字节数）。 */
+    public static final class Result {
+        public final String name;
+        public final int size;
+        public final int iterations;
+        public final long medianNanos;
+        public final long p90Nanos;
+        public final long meanNanos;
+        public final Map<String, Double> extra = new LinkedHashMap<>();
+
+        Result(String name, int size, long[] samples) {
+            this.name = name;
+            this.size = size;
+            this.iterations = samples.length;
+            long[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            medianNanos = sorted[sorted.length / 2];
+            p90Nanos = sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * 0.9) - 1)];
+            long total = 0;
+            for (long sample : sorted) total += sample;
+            meanNanos = total / sorted.length;
+        }
+
+        String key() {
+            return name + "@" + size;
+        }
+    }
+
+    private final String suite;
+    private final File reportDir;
+    private final File baselineFile;
+    private final List<Result> results = new ArrayList<>();
+
+    public BenchmarkReport(String suite) {
+        this(suite, new File("build/reports/benchmarks"), new File("src/test/benchmarks/" + suite + "-baseline.csv"));
+    }
+
+    public BenchmarkReport(String suite, File reportDir, File baselineFile) {
+        this.suite = suite;
+        this.reportDir = reportDir;
+        this.baselineFile = baselineFile;
+    }
+
+    public static boolean enabled() {
+        return Boolean.getBoolean("benchmark.run");
+    }
+
+    /**
+     * 预热 warmup 次后计时 iterations 次。每次计时前先执行 setup（不计入耗时），可以为 null。
+     */
+    public Result measure(String name, int size, int warmup, int iterations, Runnable setup, Runnable operation) {
+        for (int i = 0; i < warmup; i++) {
+            if (setup != null) setup.run();
+            operation.run();
+        }
+        long[] samples = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            if (setup != null) setup.run();
+            long start = System.nanoTime();
+            operation.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        return add(new Result(name, size, samples));
+    }
+
+    public Result measure(String name, int size, int warmup, int iterations, Runnable operation) {
+        return measure(name, size, warmup, iterations, null, operation);
+    }
+
+    /**
+     * 当前线程累计分配的字节数，两次调用相减得到中间分配的量。
+     * 只有 HotSpot 能按线程统计分配量，其他虚拟机返回 -1。
+     */
+    public static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    // 由调用方自己计时得到的样本
+    public Result add(String name, int size, long[] samples) {
+        return add(new Result(name, size, samples));
+    }
+
+    private Result add(Result result) {
+        results.add(result);
+        System.out.println(String.format(Locale.US, "[%s] %s n=%d: median %.3f ms, p90 %.3f ms", suite,
+                result.name, result.size, result.medianNanos / 1e6, result.p90Nanos / 1e6));
+        return result;
+    }
+
+    /**
+     * 写出报告并与基线比较。
+     *
+     * @return 回退的项，每项一行说明
+     * @throws AssertionError 没有基线文件且不是在更新基线时；有回退且要求失败时
+     */
+    public List<String> finish() throws IOException {
+        reportDir.mkdirs();
+        writeCsv(new File(reportDir, suite + ".csv"));
+        writeJson(new File(reportDir, suite + ".json"));
+
+        boolean updateBaseline = Boolean.getBoolean("benchmark.updateBaseline");
+        if (!updateBaseline && !baselineFile.isFile()) {
+            throw new AssertionError(suite + ": no baseline at " + baselineFile.getPath() +
+                    "; record one with -Pbenchmark.updateBaseline=true on the build machine and commit it");
+        }
+
+        Map<String, Long> baseline = readBaseline();
+        for (Result result : results) {
+            if (!baseline.containsKey(result.key()) && !updateBaseline) {
+                System.out.println("[" + suite + "] NO BASELINE " + result.name + " n=" + result.size);
+            }
+        }
+        List<String> regressions = compare(baseline, threshold());
+        for (String regression : regressions) {
+            System.out.println("[" + suite + "] REGRESSION " + regression);
+        }
+        if (updateBaseline) {
+            baselineFile.getParentFile().mkdirs();
+            writeBaseline();
+            System.out.println("[" + suite + "] baseline updated: " + baselineFile);
+        } else if (!regressions.isEmpty() && Boolean.getBoolean("benchmark.failOnRegression")) {
+            throw new AssertionError(suite + " regressed:\n" + String.join("\n", regressions));
+        }
+        return regressions;
+    }
+
+    List<String> compare(Map<String, Long> baseline, double threshold) {
+        List<String> regressions = new ArrayList<>();
+        for (Result result : results) {
+            Long base = baseline.get(result.key());
+            if (base == null || base <= 0) continue;
+            double ratio = (double) result.medianNanos / base;
+            if (ratio > 1 + threshold) {
+                regressions.add(String.format(Locale.US, "%s n=%d: %.3f ms vs baseline %.3f ms (%.2fx)",
+                        result.name, result.size, result.medianNanos / 1e6, base / 1e6, ratio));
+            }
+        }
+        return regressions;
+    }
+
+    private static double threshold() {
+        String value = System.getProperty("benchmark.threshold");
+        return value == null ? 0.25 : Double.parseDouble(value);
+    }
+
+    // 基线中每项的中位数；没有基线文件时为空（只在更新基线时走到这里）
+    private Map<String, Long> readBaseline() throws IOException {
+        Map<String, Long> baseline = new HashMap<>();
+        if (!baselineFile.isFile()) return baseline;
+        List<String> lines = Files.readAllLines(baselineFile.toPath(), StandardCharsets.UTF_8);
+        for (String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+            String[] columns = line.split(",");
+            if (columns.length < 4) continue;
+            baseline.put(columns[0] + "@" + columns[1], Long.parseLong(columns[3]));
+        }
+        return baseline;
+    }
+
+    private void writeCsv(File file) throws IOException {
+        List<String> extraColumns = extraColumns();
+        try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+            StringBuilder header = new StringBuilder(CSV_HEADER);
+            for (String column : extraColumns) header.append(',').append(column);
+            out.println(header);
+            for (Result result : results) {
+                out.println(csvLine(result, extraColumns));
+            }
+        }
+    }
+
+    // 基线按 name@size 合并：这次跑过的项替换旧值，没跑到的项（例如只运行了其中一个测试）原样保留。
+    // 基线只需要耗时，不写额外指标的列
+    private void writeBaseline() throws IOException {
+        Map<String, String> lines = new LinkedHashMap<>();
+        if (baselineFile.isFile()) {
+            List<String> old = Files.readAllLines(baselineFile.toPath(), StandardCharsets.UTF_8);
+            int columnCount = CSV_HEADER.split(",").length;
+            for (String line : old.subList(Math.min(1, old.size()), old.size())) {
+                String[] columns = line.split(",");
+                if (columns.length < 4) continue;
+                lines.put(columns[0] + "@" + columns[1],
+                        String.join(",", Arrays.copyOf(columns, Math.min(columnCount, columns.length))));
+            }
+        }
+        for (Result result : results) {
+            lines.put(result.key(), csvLine(result, new ArrayList<>()));
+        }
+        try (PrintWriter out = new PrintWriter(baselineFile, "UTF-8")) {
+            out.println(CSV_HEADER);
+            for (String line : lines.values()) out.println(line);
+        }
+    }
+
+    private static String csvLine(Result result, List<String> extraColumns) {
+        StringBuilder line = new StringBuilder();
+        line.append(result.name).append(',').append(result.size).append(',').append(result.iterations)
+                .append(',').append(result.medianNanos).append(',').append(result.p90Nanos)
+                .append(',').append(result.meanNanos);
+        for (String column : extraColumns) {
+            Double value = result.extra.get(column);
+            line.append(',').append(value == null ? "" : String.format(Locale.US, "%.1f", value));
+        }
+        return line.toString();
+    }
+
+    private void writeJson(File file) throws IOException {
+        try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+            out.println("[");
+            for (int i = 0; i < results.size(); i++) {
+                Result result = results.get(i);
+                StringBuilder line = new StringBuilder();
+                line.append(String.format(Locale.US,
+                        "  {\"name\": \"%s\", \"size\": %d, \"iterations\": %d, \"medianNanos\": %d, \"p90Nanos\": %d, \"meanNanos\": %d",
+                        result.name, result.size, result.iterations, result.medianNanos, result.p90Nanos, result.meanNanos));
+                for (Map.Entry<String, Double> entry : result.extra.entrySet()) {
+                    line.append(String.format(Locale.US, ", \"%s\": %.1f", entry.getKey(), entry.getValue()));
+                }
+                line.append(i == results.size() - 1 ? "}" : "},");
+                out.println(line);
+            }
+            out.println("]");
+        }
+    }
+
+    private List<String> extraColumns() {
+        List<String> columns = new ArrayList<>();
+        for (Result result : results) {
+            for (String key : result.extra.keySet()) {
+                if (!columns.contains(key)) columns.add(key);
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.todolist.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.todolist.model.DailyTask;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * 从版本 3 升级：周数据的第 0 周是最后一次打开应用的那一周，不一定是升级当天所在的周。
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class DailyTaskDbHelperTest {
+    private static final String DB_NAME = "daily_upgrade_test";
+
+    private Context context;
+    private Locale defaultLocale;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DB_NAME);
+        prefs().edit().clear().commit();
+        // 旧版本的周数按默认 Locale 计算，测试固定为一周从周日开始
+        defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(defaultLocale);
+        context.deleteDatabase(DB_NAME);
+        prefs().edit().clear().commit();
+    }
+
+    @Test
+    public void upgradeUsesTheLastRolledWeek() {
+        // 三周前最后一次打开应用：第 0 周周二打卡一次，第 1 周周五打卡两次
+        LocalDate lastOpened = LocalDate.now().minusWeeks(3);
+        long weekZero = DailyTaskDao.weekStartOf(lastOpened.toEpochDay());
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(lastOpened.getYear(), lastOpened.getMonthValue() - 1, lastOpened.getDayOfMonth());
+        prefs().edit()
+                .putInt(DailyTaskDbHelper.KEY_LEGACY_WEEK_NUMBER, calendar.get(Calendar.WEEK_OF_YEAR))
+                .putInt(DailyTaskDbHelper.KEY_LEGACY_YEAR, calendar.get(Calendar.YEAR))
+                .commit();
+        long taskId = createVersion3(LocalDate.ofEpochDay(weekZero + 2), 0, 2, 1, 5, 2);
+
+        Map<Long, Integer> history = upgradeAndReadHistory(taskId);
+        Map<Long, Integer> expected = new LinkedHashMap<>();
+        expected.put(weekZero - 7 + 5, 2);
+        expected.put(weekZero + 2, 1);
+        assertEquals(expected, history);
+    }
+
+    @Test
+    public void upgradeFallsBackToTheLastCompletedDate() {
+        long weekZero = DailyTaskDao.weekStartOf(LocalDate.now().minusWeeks(5).toEpochDay());
+        long taskId = createVersion3(LocalDate.ofEpochDay(weekZero + 4), 0, 4, 1);
+
+        Map<Long, Integer> history = upgradeAndReadHistory(taskId);
+        assertEquals(1, history.size());
+        assertEquals(Integer.valueOf(1), history.get(weekZero + 4));
+    }
+
+    @Test
+    public void upgradeResolvesTheWeekThatSpansNewYear() {
+        // 2024-12-31 属于 2025 年第 1 周，旧版本存为 (2024, 1)，与 2024 年 1 月初的第 1 周相同
+        prefs().edit()
+                .putInt(DailyTaskDbHelper.KEY_LEGACY_WEEK_NUMBER, 1)
+                .putInt(DailyTaskDbHelper.KEY_LEGACY_YEAR, 2024)
+                .commit();
+        LocalDate lastCompleted = LocalDate.of(2024, 12, 31);
+        long taskId = createVersion3(lastCompleted, 0, 2, 1);
+
+        Map<Long, Integer> history = upgradeAndReadHistory(taskId);
+        assertEquals(1, history.size());
+        assertEquals(Integer.valueOf(1), history.get(lastCompleted.toEpochDay()));
+    }
+
+    private SharedPreferences prefs() {
+        return context.getSharedPreferences(DailyTaskManager.PREF_NAME, Context.MODE_PRIVATE);
+    }
+
+    // 按版本 3 的表结构建一个任务；completions 依次为 (周, 周几, 次数)
+    private long createVersion3(LocalDate lastCompleted, int... completions) {
+        int[] counts = new int[WeeklyCompletionCodec.SIZE];
+        for (int i = 0; i < completions.length; i += 3) {
+            counts[completions[i] * DailyTask.DAYS_PER_WEEK + completions[i + 1]] = completions[i + 2];
+        }
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(context.getDatabasePath(DB_NAME), null);
+        try {
+            db.execSQL("CREATE TABLE daily_tasks (_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "content TEXT NOT NULL, completed_today INTEGER DEFAULT 0, last_completed_date TEXT, " +
+                    "created_date TEXT NOT NULL, weekly_data TEXT, weekly_blob BLOB)");
+            ContentValues values = new ContentValues();
+            values.put(DailyTaskDbHelper.COLUMN_CONTENT, "背单词");
+            values.put(DailyTaskDbHelper.COLUMN_LAST_COMPLETED_DATE, lastCompleted.toString());
+            values.put(DailyTaskDbHelper.COLUMN_CREATED_DATE, "2024-01-01");
+            values.put(DailyTaskDbHelper.COLUMN_WEEKLY_BLOB, WeeklyCompletionCodec.encode(counts));
+            long id = db.insert(DailyTaskDbHelper.TABLE_DAILY_TASKS, null, values);
+            db.setVersion(3);
+            return id;
+        } finally {
+            db.close();
+        }
+    }
+
+    private Map<Long, Integer> upgradeAndReadHistory(long taskId) {
+        DailyTaskDbHelper helper = new DailyTaskDbHelper(context, DB_NAME);
+        Map<Long, Integer> history = new LinkedHashMap<>();
+        try (Cursor cursor = helper.getReadableDatabase().query(DailyTaskDbHelper.TABLE_HISTORY,
+                new String[]{DailyTaskDbHelper.COLUMN_EPOCH_DAY, DailyTaskDbHelper.COLUMN_COUNT},
+                DailyTaskDbHelper.COLUMN_TASK_ID + " = ?", new String[]{String.valueOf(taskId)},
+                null, null, DailyTaskDbHelper.COLUMN_EPOCH_DAY)) {
+            while (cursor.moveToNext()) {
+                history.put(cursor.getLong(0), cursor.getInt(1));
+            }
+        } finally {
+            helper.close();
+        }
+        return history;
+    }
+}
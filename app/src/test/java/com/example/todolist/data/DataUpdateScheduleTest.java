@@ -0,0 +1,132 @@
+package com.example.todolist.data;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.todolist.model.Day;
+import com.example.todolist.model.Schedule;
+import com.example.todolist.model.Week;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Data.updateSchedule：只改数据库里的一行，备注正文没读出时保留原来的正文，
+ * 已经读出行程的每个 Day 都换成修改后的行程。
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class DataUpdateScheduleTest {
+    private static final String DB_NAME = "update_schedule_test";
+    private static final LocalDate DATE = LocalDate.of(2024, 9, 2);
+
+    private Context context;
+    private AppDatabase database;
+    private Data data;
+    private long scheduleId;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DB_NAME);
+        database = AppDatabase.build(context, DB_NAME);
+        data = new Data(database, null);
+
+        Day day = new Day(DATE);
+        Schedule math = new Schedule(480, 570, "高等数学",
+                new Schedule.Note("教室", "教学楼A101 带计算器"), 0xFF4CAF50, false);
+        day.addSchedule(math);
+        day.addSchedule(new Schedule(600, 690, "大学英语", null, 0xFF2196F3, false));
+        data.saveDay(day);
+        scheduleId = math.getDatabaseId();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void keepsNoteContentWhenItWasNotLoaded() {
+        Schedule fields = new Schedule(720, 810, "线性代数",
+                Schedule.Note.unloaded("地点"), 0xFFFF9800, false);
+        assertTrue(data.updateSchedule(scheduleId, fields));
+
+        assertEquals("教学楼A101 带计算器", database.scheduleDao().getNoteContent(scheduleId));
+        assertEquals("教学楼A101 带计算器", data.getNoteContent(scheduleId));
+        Schedule reloaded = data.getSchedule(scheduleId);
+        assertEquals(720, reloaded.getStartTime());
+        assertEquals(810, reloaded.getEndTime());
+        assertEquals("线性代数", reloaded.getName());
+        assertEquals("地点", reloaded.getNote().getName());
+        assertEquals(0xFFFF9800, reloaded.getColorArgb());
+    }
+
+    @Test
+    public void replacesNoteContentWhenGiven() {
+        Schedule fields = new Schedule(480, 570, "高等数学",
+                new Schedule.Note("教室", "改到 B203"), 0xFF4CAF50, false);
+        assertTrue(data.updateSchedule(scheduleId, fields));
+
+        assertEquals("改到 B203", database.scheduleDao().getNoteContent(scheduleId));
+        assertEquals("改到 B203", data.getNoteContent(scheduleId));
+    }
+
+    @Test
+    public void patchesEveryMaterializedDay() {
+        // 两个 Week 各有一个代表同一条规则的 Day 对象，都已经读出行程；第三个还没读出
+        Day first = loadDay();
+        Day second = loadDay();
+        Day notYetLoaded = loadDay();
+        Schedule oldInFirst = first.getSchedules().get(0);
+        Schedule oldInSecond = second.getSchedules().get(0);
+        assertFalse(notYetLoaded.isSchedulesLoaded());
+
+        Schedule fields = new Schedule(700, 760, "线性代数",
+                Schedule.Note.unloaded("教室"), 0xFFFF9800, false);
+        assertTrue(data.updateSchedule(scheduleId, fields));
+
+        for (Day day : new Day[]{first, second, notYetLoaded}) {
+            List<Schedule> schedules = day.getSchedules();
+            assertEquals(2, schedules.size());
+            // 开始时间改到 700 后排到英语（600）之后
+            assertEquals("大学英语", schedules.get(0).getName());
+            Schedule edited = schedules.get(1);
+            assertEquals(scheduleId, edited.getDatabaseId());
+            assertEquals(700, edited.getStartTime());
+            assertEquals(760, edited.getEndTime());
+            assertEquals("线性代数", edited.getName());
+            assertEquals(0xFFFF9800, edited.getColorArgb());
+            assertSame(edited, day.scheduleAt(730));
+        }
+        assertNotSame(oldInFirst, first.getSchedules().get(1));
+        assertNotSame(oldInSecond, second.getSchedules().get(1));
+        // 替换不算未保存的修改，之后仍然可以释放
+        assertTrue(first.unloadSchedules());
+    }
+
+    @Test
+    public void returnsFalseForAnUnknownSchedule() {
+        assertFalse(data.updateSchedule(scheduleId + 100, new Schedule(0, 30, "x")));
+        assertEquals("高等数学", data.getSchedule(scheduleId).getName());
+    }
+
+    private Day loadDay() {
+        Week week = new Week(DATE);
+        data.loadAllDataToWeek(week);
+        return week.getDayForDate(DATE);
+    }
+}
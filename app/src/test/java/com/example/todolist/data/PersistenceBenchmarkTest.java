@@ -0,0 +1,310 @@
+package com.example.todolist.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.todolist.benchmark.BenchmarkReport;
+import com.example.todolist.model.DailyTask;
+import com.example.todolist.model.Day;
+import com.example.todolist.model.RepeatRule;
+import com.example.todolist.model.Schedule;
+import com.example.todolist.model.TodoTask;
+import com.example.todolist.model.Week;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * 持久化路径在 JVM 上的基准：Robolectric 的原生 SQLite 模式使用真正的 SQLite，
+ * 在 10、1000、100000 行的数据量下分别计时 Data.loadAllDataToWeek、Data.saveDay、
+ * TodoDao.getAllTasks / updateTasksInTransaction 和 DailyTaskDao.getAllTasks；
+ * 另外用 2000 行的模拟学期记录课表库的文件大小和加载后共享的名称、备注实例数。
+ * <p>
+ * 运行：./gradlew :app:testDebugUnitTest --tests '*PersistenceBenchmarkTest' -Pbenchmark.run=true
+ * 报告在 app/build/reports/benchmarks/persistence.csv / .json，基线在 app/src/test/benchmarks。
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class PersistenceBenchmarkTest {
+    private static final int[] SIZES = {10, 1_000, 100_000};
+    private static final int SCHEDULES_PER_DAY = 10;
+    private static final LocalDate START = LocalDate.of(2024, 9, 2);
+    private static final int SEMESTER_DAYS = 100;
+    private static final int SEMESTER_ROWS = 2_000;
+    private static final String[] COURSES = {"高等数学", "线性代数", "大学英语", "大学物理", "程序设计", "数据结构",
+            "离散数学", "体育", "思想政治", "概率论", "电路原理", "计算机组成"};
+    private static final int[] COLORS = {0xFF4CAF50, 0xFF2196F3, 0xFFFF9800, 0xFFE91E63, 0xFF9C27B0, 0xFF009688};
+
+    private static BenchmarkReport report;
+
+    private Context context;
+
+    // 整个类共用一个报告，所有测试跑完后一起写出并与基线比较
+    @BeforeClass
+    public static void createReport() {
+        assumeTrue("pass -Pbenchmark.run=true to run benchmarks", BenchmarkReport.enabled());
+        report = new BenchmarkReport("persistence");
+    }
+
+    @AfterClass
+    public static void finishReport() throws Exception {
+        if (report != null) report.finish();
+        report = null;
+    }
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+    }
+
+    // 大数据量时每次要几百毫秒以上，减少次数
+    private static int warmup(int size) {
+        return size >= 100_000 ? 1 : 5;
+    }
+
+    private static int iterations(int size) {
+        return size >= 100_000 ? 5 : 20;
+    }
+
+    @Test
+    public void scheduleDatabase() {
+        for (int size : SIZES) {
+            String name = "schedule_bench_" + size;
+            context.deleteDatabase(name);
+            AppDatabase database = AppDatabase.build(context, name);
+            Data data = new Data(database, null);
+            Random random = new Random(size);
+
+            // size 行行程，每天 10 行，一半是每周重复的规则，一半是临时天
+            int dayCount = size / SCHEDULES_PER_DAY;
+            database.runInTransaction(() -> {
+                for (int i = 0; i < dayCount; i++) {
+                    data.saveDay(syntheticDay(START.plusDays(i % 365), i, random));
+                }
+            });
+
+            AtomicReference<Week> loaded = new AtomicReference<>();
+            report.measure("Data.loadAllDataToWeek", size, warmup(size), iterations(size), () -> {
+                Week week = new Week(START);
+                data.loadAllDataToWeek(week);
+                loaded.set(week);
+            });
+            // loadAllDataToWeek 只读规则，行程在这里逐天访问时才读出
+            int loadedSchedules = 0;
+            for (List<Day> column : loaded.get().getDays()) {
+                for (Day day : column) loadedSchedules += day.getSchedules().size();
+            }
+            assertEquals(size, loadedSchedules);
+
+            // 修改已有的一天并保存（先删后插这一天的全部行程）
+            Day edited = findAnyDay(loaded.get());
+            report.measure("Data.saveDay", size, warmup(size), iterations(size), () -> {
+                Schedule first = edited.getSchedules().get(0);
+                edited.removeSchedule(first);
+                edited.addSchedule(first);
+                data.saveDay(edited);
+            });
+
+            database.close();
+            context.deleteDatabase(name);
+        }
+    }
+
+    /**
+     * 模拟一个学期：100 天、每天 20 个行程，名称取自 12 门课，七成是默认备注。
+     * 额外记录 VACUUM 后的数据库大小、加载一次分配的字节数，以及加载结果里不同的名称 / Note 实例数。
+     */
+    @Test
+    public void scheduleDictionary() {
+        String name = "schedule_dictionary";
+        context.deleteDatabase(name);
+        AppDatabase database = AppDatabase.build(context, name);
+        Data data = new Data(database, null);
+        Random random = new Random(2024);
+        database.runInTransaction(() -> {
+            for (int i = 0; i < SEMESTER_DAYS; i++) {
+                data.saveDay(semesterDay(START.plusDays(i), random));
+            }
+        });
+
+        AtomicReference<Week> loaded = new AtomicReference<>();
+        BenchmarkReport.Result result = report.measure("Data.loadAllDataToWeek.semester", SEMESTER_ROWS, 5, 20, () -> {
+            Week week = new Week(START);
+            data.loadAllDataToWeek(week);
+            loaded.set(week);
+        });
+
+        Set<Object> names = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Object> notes = Collections.newSetFromMap(new IdentityHashMap<>());
+        int rows = 0;
+        for (List<Day> column : loaded.get().getDays()) {
+            for (Day day : column) {
+                for (Schedule schedule : day.getSchedules()) {
+                    names.add(schedule.getName());
+                    notes.add(schedule.getNote());
+                    rows++;
+                }
+            }
+        }
+        assertEquals(SEMESTER_ROWS, rows);
+        result.extra.put("distinct_name_objects", (double) names.size());
+        result.extra.put("distinct_note_objects", (double) notes.size());
+
+        long bytesBefore = BenchmarkReport.allocatedBytes();
+        data.loadAllDataToWeek(new Week(START));
+        if (bytesBefore >= 0) {
+            result.extra.put("bytes_allocated", (double) (BenchmarkReport.allocatedBytes() - bytesBefore));
+        }
+
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+        db.execSQL("VACUUM");
+        result.extra.put("db_bytes", (double) (pragma(db, "page_count") * pragma(db, "page_size")));
+
+        database.close();
+        context.deleteDatabase(name);
+    }
+
+    @Test
+    public void todoDatabase() {
+        for (int size : SIZES) {
+            String name = "todo_bench_" + size;
+            context.deleteDatabase(name);
+            seed(new TodoDbHelper(context, name), "INSERT INTO " + TodoDbHelper.TABLE_TODO_TASKS + " (" +
+                    TodoDbHelper.COLUMN_CONTENT + ", " + TodoDbHelper.COLUMN_PRIORITY + ", " +
+                    TodoDbHelper.COLUMN_CREATED_TIME + ") VALUES (?, ?, ?)", size, (statement, i) -> {
+                statement.bindString(1, "待办 " + i);
+                statement.bindLong(2, TodoRank.spread(i));
+                statement.bindLong(3, i);
+            });
+            TodoDao dao = new TodoDao(context, name);
+
+            AtomicReference<List<TodoTask>> tasks = new AtomicReference<>();
+            report.measure("TodoDao.getAllTasks", size, warmup(size), iterations(size),
+                    () -> tasks.set(dao.getAllTasks()));
+            assertEquals(size, tasks.get().size());
+
+            // 整表重写一次排序值
+            long[] round = {0};
+            report.measure("TodoDao.updateTasksInTransaction", size, warmup(size), iterations(size), () -> {
+                round[0]++;
+                List<TodoTask> all = tasks.get();
+                for (int i = 0; i < all.size(); i++) {
+                    all.get(i).setPriority(TodoRank.spread(i) + round[0]);
+                }
+                dao.updateTasksInTransaction(all);
+            });
+
+            context.deleteDatabase(name);
+        }
+    }
+
+    @Test
+    public void dailyTaskDatabase() {
+        for (int size : SIZES) {
+            String name = "daily_bench_" + size;
+            context.deleteDatabase(name);
+            seed(new DailyTaskDbHelper(context, name), "INSERT INTO " + DailyTaskDbHelper.TABLE_DAILY_TASKS + " (" +
+                    DailyTaskDbHelper.COLUMN_CONTENT + ", " + DailyTaskDbHelper.COLUMN_COMPLETED_TODAY + ", " +
+                    DailyTaskDbHelper.COLUMN_LAST_COMPLETED_DATE + ", " + DailyTaskDbHelper.COLUMN_CREATED_DATE +
+                    ") VALUES (?, 0, '', ?)", size, (statement, i) -> {
+                statement.bindString(1, "习惯 " + i);
+                statement.bindString(2, String.format(Locale.US, "2024-01-01 00:%02d:%02d", i / 60 % 60, i % 60));
+            });
+            DailyTaskDao dao = new DailyTaskDao(context, name);
+
+            AtomicReference<List<DailyTask>> tasks = new AtomicReference<>();
+            report.measure("DailyTaskDao.getAllTasks", size, warmup(size), iterations(size),
+                    () -> tasks.set(dao.getAllTasks()));
+            assertEquals(size, tasks.get().size());
+
+            context.deleteDatabase(name);
+        }
+    }
+
+    private interface Binder {
+        void bind(SQLiteStatement statement, int index);
+    }
+
+    // 直接用 SQL 批量写入种子数据，写完关闭，被测的 DAO 之后再打开
+    private static void seed(SQLiteOpenHelper helper, String sql, int count, Binder binder) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            SQLiteStatement statement = db.compileStatement(sql);
+            for (int i = 0; i < count; i++) {
+                statement.clearBindings();
+                binder.bind(statement, i);
+                statement.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        helper.close();
+    }
+
+    private static long pragma(SupportSQLiteDatabase db, String name) {
+        try (Cursor cursor = db.query("PRAGMA " + name)) {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        }
+    }
+
+    private static Day semesterDay(LocalDate date, Random random) {
+        Day day = new Day(date, false, new RepeatRule(RepeatRule.Mode.EVERY_N_WEEKS, 1, 0, null, null));
+        for (int i = 0; i < SEMESTER_ROWS / SEMESTER_DAYS; i++) {
+            int course = random.nextInt(COURSES.length);
+            Schedule.Note note = random.nextInt(10) < 7 ? new Schedule.Note()
+                    : new Schedule.Note("教室", "A" + (100 + random.nextInt(400)));
+            int start = 8 * 60 + i * 30;
+            day.addSchedule(new Schedule(start, start + 25, COURSES[course], note,
+                    COLORS[course % COLORS.length], false));
+        }
+        return day;
+    }
+
+    private static Day findAnyDay(Week week) {
+        for (List<Day> column : week.getDays()) {
+            if (!column.isEmpty()) return column.get(0);
+        }
+        throw new AssertionError("no day loaded");
+    }
+
+    private static Day syntheticDay(LocalDate date, int index, Random random) {
+        boolean temporary = index % 2 == 1;
+        RepeatRule rule = temporary ? new RepeatRule()
+                : new RepeatRule(RepeatRule.Mode.EVERY_N_WEEKS, 1, 0, null, null);
+        Day day = new Day(date, temporary, rule);
+        for (int i = 0; i < SCHEDULES_PER_DAY; i++) {
+            int start = 8 * 60 + i * 55;
+            day.addSchedule(new Schedule(start, start + 45, "课程 " + random.nextInt(50),
+                    new Schedule.Note("教室", "A" + random.nextInt(500)), 0xFF4CAF50, temporary));
+        }
+        return day;
+    }
+}
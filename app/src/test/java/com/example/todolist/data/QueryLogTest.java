@@ -0,0 +1,28 @@
+package com.example.todolist.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 查询日志按语句形状归类：参数不同的同一条语句应当得到相同的形状。
+ */
+public class QueryLogTest {
+
+    @Test
+    public void literalsAreReplaced() {
+        assertEquals("SELECT * FROM schedules WHERE day_id = ? ORDER BY startTime ASC",
+                QueryLog.shapeOf("SELECT * FROM schedules WHERE day_id = 42 ORDER BY startTime ASC"));
+        assertEquals("SELECT * FROM days WHERE originDate = ?",
+                QueryLog.shapeOf("SELECT * FROM days WHERE originDate = '2024-09-11'"));
+    }
+
+    @Test
+    public void whitespaceAndPlaceholderListsAreCollapsed() {
+        assertEquals("DELETE FROM t WHERE id IN (?, ...)",
+                QueryLog.shapeOf("DELETE FROM t\n   WHERE id IN (?,?, ?)"));
+        assertEquals(QueryLog.shapeOf("SELECT weekday_0 FROM stats WHERE task_id = 1"),
+                QueryLog.shapeOf("SELECT  weekday_0 FROM stats WHERE task_id = 7"));
+        assertTrue(QueryLog.shapeOf("SELECT weekday_0 FROM stats").contains("weekday_0"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.todolist.data;
+
+import com.example.todolist.model.Day;
+import com.example.todolist.model.RepeatRule;
+import com.example.todolist.model.Schedule;
+import com.example.todolist.model.Week;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 课表快照：编码后解码得到同样的显示内容，任何损坏都应被识别出来。
+ */
+public class ScheduleSnapshotTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 9, 11);
+
+    private static Week sampleWeek() {
+        Week week = new Week(TODAY);
+        // 每周三重复的课程
+        Day weekly = new Day(TODAY.minusWeeks(2), false,
+                new RepeatRule(RepeatRule.Mode.EVERY_N_WEEKS, 1, 0, null, null));
+        weekly.setActiveHours(7, 21);
+        weekly.addSchedule(new Schedule(480, 570, "高等数学", new Schedule.Note("教室", "A101"), 0xFF4CAF50, false));
+        weekly.addSchedule(new Schedule(600, 690, "英语", null, 0xFF2196F3, false));
+        week.addDay(weekly);
+        // 明天的临时安排
+        Day temporary = new Day(TODAY.plusDays(1), true, new RepeatRule());
+        temporary.addSchedule(new Schedule(900, 960, null, new Schedule.Note(null, null), 0xFFFF9800, true));
+        week.addDay(temporary);
+        return week;
+    }
+
+    @Test
+    public void roundTripKeepsResolvedDays() {
+        byte[] data = ScheduleSnapshot.encode(sampleWeek(), TODAY);
+        Week decoded = ScheduleSnapshot.decode(data, TODAY);
+        assertNotNull(decoded);
+
+        for (LocalDate date : new LocalDate[]{TODAY.minusDays(7), TODAY, TODAY.plusDays(7)}) {
+            Day day = decoded.getDayForDate(date);
+            assertNotNull(date.toString(), day);
+            assertEquals(7, day.getActiveStartHour());
+            assertEquals(21, day.getActiveEndHour());
+            List<Schedule> schedules = day.getSchedules();
+            assertEquals(2, schedules.size());
+            assertEquals("高等数学", schedules.get(0).getName());
+            assertEquals("教室", schedules.get(0).getNote().getName());
+            assertEquals(480, schedules.get(0).getStartTime());
+            assertEquals(570, schedules.get(0).getEndTime());
+            assertEquals(0xFF4CAF50, schedules.get(0).getColorArgb());
+        }
+        Day tomorrow = decoded.getDayForDate(TODAY.plusDays(1));
+        assertNull(tomorrow.getSchedules().get(0).getName());
+        assertNull(decoded.getDayForDate(TODAY.plusDays(2)));
+        // 快照范围之外没有数据
+        assertNull(decoded.getDayForDate(TODAY.plusDays(14)));
+    }
+
+    @Test
+    public void corruptedDataIsRejected() {
+        byte[] data = ScheduleSnapshot.encode(sampleWeek(), TODAY);
+        for (int i = 0; i < data.length; i++) {
+            byte[] corrupted = data.clone();
+            corrupted[i] ^= 0x10;
+            assertNull("flipped byte " + i, ScheduleSnapshot.decode(corrupted, TODAY));
+        }
+        byte[] truncated = new byte[data.length - 5];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        assertNull(ScheduleSnapshot.decode(truncated, TODAY));
+        assertNull(ScheduleSnapshot.decode(new byte[0], TODAY));
+        assertNull(ScheduleSnapshot.decode(null, TODAY));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.todolist.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.todolist.model.Day;
+import com.example.todolist.model.Schedule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 全文搜索：汉字按子串匹配（"数学"能搜到"高等数学"，"A101"能搜到"教学楼A101"），
+ * 返回的标题和片段里不带分词用的分隔符。
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class SearchRepositoryTest {
+    private static final String SCHEDULE_DB = "search_test_schedule";
+    private static final String TODO_DB = "search_test_todo";
+    private static final String DAILY_DB = "search_test_daily";
+
+    private Context context;
+    private AppDatabase scheduleDb;
+    private TodoDbHelper todoHelper;
+    private DailyTaskDbHelper dailyHelper;
+    private SearchRepository repository;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        for (String name : new String[]{SCHEDULE_DB, TODO_DB, DAILY_DB}) {
+            context.deleteDatabase(name);
+        }
+        scheduleDb = AppDatabase.build(context, SCHEDULE_DB);
+        todoHelper = new TodoDbHelper(context, TODO_DB);
+        dailyHelper = new DailyTaskDbHelper(context, DAILY_DB);
+        repository = new SearchRepository(scheduleDb.getOpenHelper(), todoHelper, dailyHelper);
+
+        Day day = new Day(LocalDate.of(2024, 9, 2));
+        day.addSchedule(new Schedule(480, 570, "高等数学",
+                new Schedule.Note("教室", "教学楼A101 带计算器"), 0xFF4CAF50, false));
+        day.addSchedule(new Schedule(600, 690, "大学英语", null, 0xFF2196F3, false));
+        new Data(scheduleDb, null).saveDay(day);
+
+        ContentValues values = new ContentValues();
+        values.put(TodoDbHelper.COLUMN_CONTENT, "复习线性代数");
+        values.put(TodoDbHelper.COLUMN_PRIORITY, 0);
+        values.put(TodoDbHelper.COLUMN_CREATED_TIME, 0);
+        todoHelper.getWritableDatabase().insert(TodoDbHelper.TABLE_TODO_TASKS, null, values);
+    }
+
+    @After
+    public void tearDown() {
+        scheduleDb.close();
+        todoHelper.close();
+        dailyHelper.close();
+        for (String name : new String[]{SCHEDULE_DB, TODO_DB, DAILY_DB}) {
+            context.deleteDatabase(name);
+        }
+    }
+
+    @Test
+    public void findsChineseSubstrings() {
+        for (String query : new String[]{"数学", "等数", "高等数学", "学楼", "计算"}) {
+            List<SearchResult> results = repository.search(query, 10);
+            assertEquals(query, 1, results.size());
+            assertEquals(SearchResult.Type.SCHEDULE, results.get(0).getType());
+            assertEquals("高等数学", results.get(0).getTitle());
+        }
+
+        List<SearchResult> todos = repository.search("代数", 10);
+        assertEquals(1, todos.size());
+        assertEquals(SearchResult.Type.TODO, todos.get(0).getType());
+        assertEquals("复习线性代数", todos.get(0).getTitle());
+        assertEquals("复习线性【代数】", todos.get(0).getSnippet());
+
+        assertTrue(repository.search("物理", 10).isEmpty());
+        assertTrue(repository.search("数英", 10).isEmpty());
+    }
+
+    @Test
+    public void findsRoomNumberInsideChineseText() {
+        List<SearchResult> results = repository.search("A101", 10);
+        assertEquals(1, results.size());
+        assertEquals("高等数学", results.get(0).getTitle());
+        assertEquals("教学楼【A101】 带计算器", results.get(0).getSnippet());
+
+        // 汉字和字母数字混在一个词里
+        assertEquals(1, repository.search("楼A1", 10).size());
+        assertEquals(1, repository.search("英语", 10).size());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.todolist.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 稀疏排序值：取中间值、间隔用尽时返回 null 触发重排、重排后的均匀间隔。
+ */
+public class TodoRankTest {
+
+    @Test
+    public void betweenTakesTheMidpoint() {
+        assertEquals(Long.valueOf(TodoRank.GAP / 2), TodoRank.between(0L, TodoRank.GAP));
+        assertEquals(Long.valueOf(-3L), TodoRank.between(-10L, 4L));
+
+        Long middle = TodoRank.between(100L, 103L);
+        assertNotNull(middle);
+        assertTrue(middle > 100L && middle < 103L);
+    }
+
+    @Test
+    public void betweenReturnsNullWhenTheGapIsExhausted() {
+        assertNull(TodoRank.between(5L, 6L));
+        assertNull(TodoRank.between(5L, 5L));
+        assertNotNull(TodoRank.between(5L, 7L));
+
+        // 一直往同一个位置插入，最终会用尽间隔
+        long before = 0L;
+        long after = TodoRank.GAP;
+        int inserts = 0;
+        Long rank;
+        while ((rank = TodoRank.between(before, after)) != null) {
+            after = rank;
+            inserts++;
+        }
+        assertEquals(20, inserts);
+    }
+
+    @Test
+    public void betweenHandlesOpenEnds() {
+        assertEquals(Long.valueOf(0L), TodoRank.between(null, null));
+        assertEquals(Long.valueOf(-TodoRank.GAP), TodoRank.between(null, 0L));
+        assertEquals(Long.valueOf(5 * TodoRank.GAP), TodoRank.between(4 * TodoRank.GAP, null));
+    }
+
+    @Test
+    public void spreadLeavesAFullGapBetweenNeighbours() {
+        assertEquals(0L, TodoRank.spread(0));
+        for (int i = 1; i < 100; i++) {
+            assertEquals(TodoRank.GAP, TodoRank.spread(i) - TodoRank.spread(i - 1));
+            assertNotNull(TodoRank.between(TodoRank.spread(i - 1), TodoRank.spread(i)));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.todolist.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 耗时样本：百分位只看最近的样本，次数和最大值一直累计。
+ */
+public class LatencyReservoirTest {
+
+    @Test
+    public void percentilesUseNearestRank() {
+        LatencyReservoir reservoir = new LatencyReservoir(100);
+        for (int i = 100; i >= 1; i--) {
+            reservoir.add(i);
+        }
+        assertEquals(50, reservoir.percentile(0.5));
+        assertEquals(95, reservoir.percentile(0.95));
+        assertEquals(100, reservoir.percentile(1.0));
+        assertEquals(1, reservoir.percentile(0.0));
+        assertEquals(50.5, reservoir.getMeanNanos(), 1e-9);
+    }
+
+    @Test
+    public void oldSamplesAreOverwritten() {
+        LatencyReservoir reservoir = new LatencyReservoir(4);
+        reservoir.add(1000);
+        for (int i = 0; i < 4; i++) {
+            reservoir.add(10);
+        }
+        assertEquals(10, reservoir.percentile(0.95));
+        assertEquals(5, reservoir.getCount());
+        assertEquals(1000, reservoir.getMaxNanos());
+
+        reservoir.clear();
+        assertEquals(0, reservoir.percentile(0.5));
+        assertEquals(0, reservoir.getCount());
+    }
+}
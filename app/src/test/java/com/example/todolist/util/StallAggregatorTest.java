@@ -0,0 +1,61 @@
+package com.example.todolist.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 卡顿汇总：同一栈顶的卡顿合并，保留最长那次的栈；记录数超过上限时丢掉总耗时最小的。
+ */
+public class StallAggregatorTest {
+    private static final StackTraceElement SQLITE =
+            new StackTraceElement("android.database.sqlite.SQLiteConnection", "nativeExecute", null, -2);
+    private static final StackTraceElement SAVE_DAY =
+            new StackTraceElement("com.example.todolist.data.Data", "saveDay", "Data.java", 120);
+    private static final StackTraceElement LOOPER =
+            new StackTraceElement("android.os.Looper", "loop", "Looper.java", 200);
+
+    @Test
+    public void stallsWithSameTopFrameAreMerged() {
+        StallAggregator aggregator = new StallAggregator("com.example.todolist.", 10);
+        List<StackTraceElement[]> samples = Collections.singletonList(
+                new StackTraceElement[]{SQLITE, SAVE_DAY, LOOPER});
+
+        aggregator.add(150, "short", samples, 1);
+        aggregator.add(400, "long", samples, 2);
+
+        List<StallAggregator.Report> reports = aggregator.getReports();
+        assertEquals(1, reports.size());
+        StallAggregator.Report report = reports.get(0);
+        assertEquals(2, report.count);
+        assertEquals(550, report.totalMillis);
+        assertEquals(400, report.maxMillis);
+        assertEquals("long", report.message);
+        assertEquals(SAVE_DAY.toString(), report.appFrame);
+        assertEquals(3, report.stack.size());
+    }
+
+    @Test
+    public void mostFrequentTopFrameWinsAndSmallestIsDropped() {
+        StallAggregator aggregator = new StallAggregator("com.example.todolist.", 2);
+        List<StackTraceElement[]> samples = Arrays.asList(
+                new StackTraceElement[]{LOOPER},
+                new StackTraceElement[]{SQLITE, SAVE_DAY},
+                new StackTraceElement[]{SQLITE, SAVE_DAY});
+
+        StallAggregator.Report report = aggregator.add(300, "m", samples, 1);
+        assertEquals(SQLITE.toString(), report.topFrame);
+
+        aggregator.add(120, "m", Collections.emptyList(), 2);
+        aggregator.add(500, "m", Collections.singletonList(new StackTraceElement[]{LOOPER}), 3);
+
+        List<StallAggregator.Report> reports = aggregator.getReports();
+        assertEquals(2, reports.size());
+        assertEquals(LOOPER.toString(), reports.get(0).topFrame);
+        assertEquals(SQLITE.toString(), reports.get(1).topFrame);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.todolist.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * 启动流水线：三个阶段应当同时执行，并且每个阶段都留下耗时记录。
+ */
+public class StartupPipelineTest {
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void stagesRunInParallel() throws Exception {
+        StartupPipeline pipeline = new StartupPipeline(executor);
+        // 每个阶段都要等到三个阶段全部开始后才能结束，串行执行会超时
+        CountDownLatch started = new CountDownLatch(3);
+        CompletableFuture<String> a = pipeline.stage("schedule", () -> awaitAll(started, "a"));
+        CompletableFuture<String> b = pipeline.stage("todo", () -> awaitAll(started, "b"));
+        CompletableFuture<String> c = pipeline.stage("daily", () -> awaitAll(started, "c"));
+
+        CompletableFuture.allOf(a, b, c).get(5, TimeUnit.SECONDS);
+        assertEquals("a", a.get());
+        assertEquals("b", b.get());
+        assertEquals("c", c.get());
+
+        StartupPipeline.StageTiming schedule = pipeline.getTiming("schedule");
+        StartupPipeline.StageTiming todo = pipeline.getTiming("todo");
+        // 两个阶段的执行区间有重叠
+        assertTrue(schedule.startNanos < todo.endNanos && todo.startNanos < schedule.endNanos);
+        assertNotEquals(schedule.threadName, todo.threadName);
+    }
+
+    @Test
+    public void recordsTimingForEveryStage() throws Exception {
+        StartupPipeline pipeline = new StartupPipeline(executor);
+        pipeline.stage("slow", () -> {
+            sleep(50);
+            return 1;
+        }).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, pipeline.getTimings().size());
+        StartupPipeline.StageTiming timing = pipeline.getTiming("slow");
+        assertFalse(timing.failed);
+        assertTrue(timing.startNanos >= 0);
+        assertTrue(timing.durationMillis() >= 50);
+        assertNull(pipeline.getTiming("missing"));
+    }
+
+    @Test
+    public void failedStageIsRecordedAndPropagated() throws Exception {
+        StartupPipeline pipeline = new StartupPipeline(executor);
+        CompletableFuture<Object> future = pipeline.stage("broken", () -> {
+            throw new IllegalStateException("db");
+        });
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof IllegalStateException);
+        }
+        assertTrue(pipeline.getTiming("broken").failed);
+    }
+
+    @Test
+    public void cancelSkipsStagesThatHaveNotStarted() throws Exception {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            StartupPipeline pipeline = new StartupPipeline(single);
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Integer> running = pipeline.stage("running", () -> {
+                try {
+                    release.await(2, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                return 1;
+            });
+            boolean[] ran = {false};
+            CompletableFuture<Integer> queued = pipeline.stage("queued", () -> {
+                ran[0] = true;
+                return 2;
+            });
+
+            pipeline.cancel();
+            release.countDown();
+            single.submit(() -> { }).get(5, TimeUnit.SECONDS); // 等单线程把队列里的任务都执行完
+
+            assertTrue(pipeline.isCancelled());
+            assertTrue(running.isCancelled());
+            assertTrue(queued.isCancelled());
+            assertFalse(ran[0]);
+            assertNull(pipeline.getTiming("queued"));
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    private static String awaitAll(CountDownLatch started, String result) {
+        started.countDown();
+        try {
+            if (!started.await(2, TimeUnit.SECONDS)) throw new AssertionError("stages did not overlap");
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+        return result;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
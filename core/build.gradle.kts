@@ -0,0 +1,84 @@
+import groovy.json.JsonSlurper
+
+// 纯 Java 模块：数据模型和排课规则计算，不依赖 Android，可以在普通 JVM 上测试和做基准
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
+
+// 基准测试：./gradlew :core:jmh，结果写到 build/results/jmh/results.json
+// 这些设置与基线 src/jmh/baseline.json 记录时相同；改了之后要重新记录基线，否则两边的误差范围不可比
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    warmupIterations.set(5)
+    warmup.set("1s")
+    iterations.set(10)
+    timeOnIteration.set("1s")
+    fork.set(5) // 不同 fork 之间 JIT 的结果会有差别，多跑几个 fork 误差范围才窄
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+}
+
+// 与仓库中的基线 src/jmh/baseline.json 逐项比较：./gradlew :core:jmh :core:jmhCompare
+// 用 JMH 给出的 99.9% 置信区间（score ± scoreError）判断：两次的区间不重叠才算变慢或变快，
+// 区间重叠说明差别在噪声范围内。只打印不让构建失败（不同机器之间的数据只能看相对变化）
+tasks.register("jmhCompare") {
+    val baselineFile = file("src/jmh/baseline.json")
+    val resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+    doLast {
+        data class Score(val score: Double, val error: Double, val settings: String) {
+            val low get() = score - error
+            val high get() = score + error
+        }
+
+        fun load(file: File): Map<String, Score> {
+            @Suppress("UNCHECKED_CAST")
+            val runs = JsonSlurper().parse(file) as List<Map<String, Any?>>
+            return runs.associate { run ->
+                @Suppress("UNCHECKED_CAST")
+                val params = (run["params"] as Map<String, Any?>?).orEmpty()
+                @Suppress("UNCHECKED_CAST")
+                val metric = run["primaryMetric"] as Map<String, Any?>
+                val key = run["benchmark"].toString().substringAfterLast(".benchmark.") +
+                        params.entries.sortedBy { it.key }.joinToString("") { " ${it.key}=${it.value}" }
+                // 误差只有一个样本时是 NaN，当作没有误差范围
+                val error = (metric["scoreError"] as? Number)?.toDouble()?.takeUnless { it.isNaN() } ?: 0.0
+                val settings = ("forks=${run["forks"]} warmup=${run["warmupIterations"]}x${run["warmupTime"]}" +
+                        " measurement=${run["measurementIterations"]}x${run["measurementTime"]}").replace(" s", "s")
+                key to Score((metric["score"] as Number).toDouble(), error, settings)
+            }
+        }
+
+        val baseline = load(baselineFile)
+        val current = load(resultsFile.get().asFile)
+        for ((key, now) in current.toSortedMap()) {
+            val line = String.format("%-70s %12.3f ± %-10.3f", key, now.score, now.error)
+            val base = baseline[key]
+            if (base == null) {
+                println("$line  (no baseline)")
+                continue
+            }
+            val verdict = when {
+                now.low > base.high -> "  SLOWER"
+                now.high < base.low -> "  faster"
+                else -> ""
+            }
+            val settings = if (now.settings != base.settings) "  (baseline ${base.settings}, now ${now.settings})" else ""
+            println(String.format("%s %6.2fx vs %.3f ± %.3f%s%s", line, now.score / base.score,
+                    base.score, base.error, verdict, settings))
+        }
+    }
+}
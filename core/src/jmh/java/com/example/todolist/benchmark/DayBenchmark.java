@@ -0,0 +1,43 @@
+package com.example.todolist.benchmark;
+
+import com.example.todolist.model.Day;
+import com.example.todolist.model.Schedule;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Day.addSchedule：把 scheduleCount 个开始时间乱序的行程逐个加入一个空的 Day。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DayBenchmark {
+
+    @Param({"8", "64", "512"})
+    public int scheduleCount;
+
+    private Schedule[] schedules;
+
+    @Setup
+    public void setUp() {
+        schedules = ScheduleDatasets.shuffledSchedules(scheduleCount, 3);
+    }
+
+    @Benchmark
+    public Day addSchedules() {
+        Day day = new Day(ScheduleDatasets.SEMESTER_START);
+        for (Schedule schedule : schedules) {
+            day.addSchedule(schedule);
+        }
+        return day;
+    }
+}
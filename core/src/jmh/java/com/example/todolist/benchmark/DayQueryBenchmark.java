@@ -0,0 +1,69 @@
+package com.example.todolist.benchmark;
+
+import com.example.todolist.model.Day;
+import com.example.todolist.model.Schedule;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Day 的有序行程列表：一天有 scheduleCount 个行程时，删除再加入一个行程、
+ * 查询一小时内的冲突（schedulesOverlapping）和点击命中（scheduleAt）的开销。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DayQueryBenchmark {
+    private static final int QUERIES = 1024; // 2 的幂，取下标时用位与
+
+    @Param({"5", "50", "500"})
+    public int scheduleCount;
+
+    private Day day;
+    private Schedule[] schedules;
+    private int[] minutes;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        schedules = ScheduleDatasets.shuffledSchedules(scheduleCount, 7);
+        day = new Day(ScheduleDatasets.SEMESTER_START);
+        for (Schedule schedule : schedules) {
+            day.addSchedule(schedule);
+        }
+        Random random = new Random(11);
+        minutes = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            minutes[i] = random.nextInt(23 * 60);
+        }
+    }
+
+    @Benchmark
+    public boolean removeAndAdd() {
+        Schedule schedule = schedules[counter++ % schedules.length];
+        boolean removed = day.removeSchedule(schedule);
+        day.addSchedule(schedule);
+        return removed;
+    }
+
+    @Benchmark
+    public List<Schedule> schedulesOverlapping() {
+        int from = minutes[counter++ & (QUERIES - 1)];
+        return day.schedulesOverlapping(from, from + 60);
+    }
+
+    @Benchmark
+    public Schedule scheduleAt() {
+        return day.scheduleAt(minutes[counter++ & (QUERIES - 1)]);
+    }
+}
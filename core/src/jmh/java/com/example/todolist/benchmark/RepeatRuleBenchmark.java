@@ -0,0 +1,50 @@
+package com.example.todolist.benchmark;
+
+import com.example.todolist.model.RepeatRule;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RepeatRule.occursOn：每种重复方式对学期内 1024 个日期各判断一次。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RepeatRuleBenchmark {
+    private static final int QUERIES = 1024;
+
+    @Param({"NONE", "EVERY_N_DAYS", "EVERY_N_WEEKS"})
+    public String mode;
+
+    private RepeatRule rule;
+    private LocalDate origin;
+    private LocalDate[] targets;
+
+    @Setup
+    public void setUp() {
+        origin = ScheduleDatasets.SEMESTER_START.minusWeeks(2);
+        rule = new RepeatRule(RepeatRule.Mode.valueOf(mode), 2, 0, null, null);
+        targets = ScheduleDatasets.queryDates(QUERIES, 1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int occursOn() {
+        int hits = 0;
+        for (LocalDate target : targets) {
+            if (rule.occursOn(origin, target)) hits++;
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.todolist.benchmark;
+
+import com.example.todolist.model.Schedule;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 构造一个 Schedule（含时间校验）的开销，加载课表时每一行都要构造一次。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScheduleBenchmark {
+    private Schedule.Note note;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        note = new Schedule.Note("教室", "A101");
+    }
+
+    @Benchmark
+    public Schedule construct() {
+        int start = counter++ & 1023;
+        return new Schedule(start, start + 45, "高等数学", note, 0xFF4CAF50, false);
+    }
+
+    @Benchmark
+    public Schedule constructWithDefaultNote() {
+        int start = counter++ & 1023;
+        return new Schedule(start, start + 45, "高等数学");
+    }
+}
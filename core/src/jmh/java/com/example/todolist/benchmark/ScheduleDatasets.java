@@ -0,0 +1,131 @@
+package com.example.todolist.benchmark;
+
+import com.example.todolist.model.Day;
+import com.example.todolist.model.RepeatRule;
+import com.example.todolist.model.Schedule;
+import com.example.todolist.model.Week;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * 基准用的合成数据。固定随机种子，每次生成的数据完全相同，结果才能和基线比较。
+ */
+final class ScheduleDatasets {
+    /** 学期第一天（周一）。 */
+    static final LocalDate SEMESTER_START = LocalDate.of(2024, 9, 2);
+    static final int SEMESTER_WEEKS = 18;
+
+    private static final int[] COLORS = {0xFF4CAF50, 0xFF2196F3, 0xFFFF9800, 0xFF9C27B0, 0xFFF44336};
+    private static final String[] COURSES = {"高等数学", "线性代数", "大学英语", "大学物理", "程序设计", "数据结构", "体育", "形势与政策"};
+
+    private ScheduleDatasets() {}
+
+    /**
+     * 一个普通学期：周一到周五每天一条每周重复的规则，每天 4~6 节课；
+     * 另外有几条单双周的规则和十几个临时调课的日子。
+     */
+    static Week semester(long seed) {
+        Random random = new Random(seed);
+        Week week = new Week(SEMESTER_START);
+        LocalDate end = SEMESTER_START.plusWeeks(SEMESTER_WEEKS).minusDays(1);
+        for (int weekday = 0; weekday < 5; weekday++) {
+            Day day = new Day(SEMESTER_START.plusDays(weekday), false,
+                    new RepeatRule(RepeatRule.Mode.EVERY_N_WEEKS, 1, 0, null, end));
+            fillCourses(day, 4 + random.nextInt(3), random);
+            week.addDay(day);
+        }
+        for (int i = 0; i < 3; i++) {
+            Day biweekly = new Day(SEMESTER_START.plusDays(random.nextInt(5)).plusWeeks(i % 2), false,
+                    new RepeatRule(RepeatRule.Mode.EVERY_N_WEEKS, 2, SEMESTER_WEEKS / 2, null, null));
+            fillCourses(biweekly, 2, random);
+            week.addDay(biweekly);
+        }
+        for (int i = 0; i < 15; i++) {
+            Day temporary = new Day(SEMESTER_START.plusDays(random.nextInt(SEMESTER_WEEKS * 7)), true, new RepeatRule());
+            fillCourses(temporary, 1 + random.nextInt(3), random);
+            week.addDay(temporary);
+        }
+        return week;
+    }
+
+    /**
+     * 压力数据：ruleCount 条规则平均分到 7 列，三种重复方式和临时天混合，
+     * 起始日期分散在学期之前的一年里，查询时每一列都要逐条判断。
+     */
+    static Week stress(int ruleCount, long seed) {
+        Random random = new Random(seed);
+        Week week = new Week(SEMESTER_START);
+        LocalDate earliest = SEMESTER_START.minusYears(1);
+        for (int i = 0; i < ruleCount; i++) {
+            LocalDate date = earliest.plusDays(random.nextInt(365 + SEMESTER_WEEKS * 7));
+            Day day;
+            switch (i % 4) {
+                case 0:
+                    day = new Day(date, true, new RepeatRule());
+                    break;
+                case 1:
+                    day = new Day(date, false, new RepeatRule(RepeatRule.Mode.EVERY_N_DAYS, 1 + random.nextInt(5), 0, null, null));
+                    break;
+                case 2:
+                    day = new Day(date, false, new RepeatRule(RepeatRule.Mode.EVERY_N_WEEKS, 1 + random.nextInt(3), 20, null, null));
+                    break;
+                default:
+                    day = new Day(date, false, new RepeatRule(RepeatRule.Mode.NONE, 1, 0, null, null));
+                    break;
+            }
+            fillCourses(day, 1 + random.nextInt(6), random);
+            week.addDay(day);
+        }
+        return week;
+    }
+
+    /** 学期内随机的查询日期。 */
+    static LocalDate[] queryDates(int count, long seed) {
+        Random random = new Random(seed);
+        LocalDate[] dates = new LocalDate[count];
+        for (int i = 0; i < count; i++) {
+            dates[i] = SEMESTER_START.plusDays(random.nextInt(SEMESTER_WEEKS * 7));
+        }
+        return dates;
+    }
+
+    /** 学期内每一周的周一。 */
+    static LocalDate[] semesterMondays() {
+        LocalDate[] mondays = new LocalDate[SEMESTER_WEEKS];
+        for (int i = 0; i < SEMESTER_WEEKS; i++) {
+            mondays[i] = SEMESTER_START.plusWeeks(i).with(DayOfWeek.MONDAY);
+        }
+        return mondays;
+    }
+
+    /** count 个互不重叠、开始时间打乱顺序的行程。 */
+    static Schedule[] shuffledSchedules(int count, long seed) {
+        Random random = new Random(seed);
+        Schedule[] schedules = new Schedule[count];
+        int slot = Math.max(1, 24 * 60 / count);
+        for (int i = 0; i < count; i++) {
+            int start = i * slot;
+            schedules[i] = new Schedule(start, start + Math.max(1, slot - 1), COURSES[i % COURSES.length],
+                    new Schedule.Note("教室", "A" + (100 + i)), COLORS[i % COLORS.length], false);
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Schedule tmp = schedules[i];
+            schedules[i] = schedules[j];
+            schedules[j] = tmp;
+        }
+        return schedules;
+    }
+
+    // 8:00 起每节 45 分钟、课间 10 分钟
+    private static void fillCourses(Day day, int count, Random random) {
+        for (int i = 0; i < count; i++) {
+            int start = 8 * 60 + i * 55;
+            day.addSchedule(new Schedule(start, start + 45, COURSES[random.nextInt(COURSES.length)],
+                    new Schedule.Note("教室", "A" + (100 + random.nextInt(400))),
+                    COLORS[random.nextInt(COLORS.length)], false));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.todolist.benchmark;
+
+import com.example.todolist.model.Day;
+import com.example.todolist.model.Week;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Week 的规则选取：单个日期的 getDayForDate 和整周的 getEffectiveDays。
+ * ruleCount 为 0 时使用普通学期数据，其余为压力数据中的规则条数。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WeekBenchmark {
+    private static final int QUERIES = 256;
+
+    @Param({"0", "10", "100", "1000"})
+    public int ruleCount;
+
+    private Week week;
+    private LocalDate[] dates;
+    private LocalDate[] mondays;
+
+    @Setup
+    public void setUp() {
+        week = ruleCount == 0 ? ScheduleDatasets.semester(7) : ScheduleDatasets.stress(ruleCount, 7);
+        dates = ScheduleDatasets.queryDates(QUERIES, 2);
+        mondays = ScheduleDatasets.semesterMondays();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void getDayForDate(Blackhole blackhole) {
+        for (LocalDate date : dates) {
+            blackhole.consume(week.getDayForDate(date));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ScheduleDatasets.SEMESTER_WEEKS)
+    public void getEffectiveDays(Blackhole blackhole) {
+        for (LocalDate monday : mondays) {
+            List<Day> days = week.getEffectiveDays(monday);
+            blackhole.consume(days);
+        }
+    }
+}
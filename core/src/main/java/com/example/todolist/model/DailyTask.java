@@ -0,0 +1,95 @@
+package com.example.todolist.model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+public class DailyTask implements Serializable {
+    public static final int WEEKS = 10;         // 保留最近 10 周
+    public static final int DAYS_PER_WEEK = 7;  // 周日=0, 周一=1, ...
+
+    private int id;
+    private String content;
+    private boolean completedToday;
+    private String lastCompletedDate; // 记录最后完成日期
+    // 最近 10 周每天的完成次数，按 [周 * 7 + 天] 平铺存放，第 0 周是本周
+    private int[] weeklyCompletion;
+    private HabitStats stats; // 连续天数等统计，由 DailyTaskManager 加载和维护
+    private static final long serialVersionUID = 1L;
+
+    public DailyTask(int id, String content) {
+        this.id = id;
+        this.content = content;
+        this.completedToday = false;
+        this.lastCompletedDate = "";
+        this.weeklyCompletion = new int[WEEKS * DAYS_PER_WEEK];
+    }
+
+    // Getters and Setters
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+    public boolean isCompletedToday() { return completedToday; }
+    public void setCompletedToday(boolean completed) { this.completedToday = completed; }
+    public String getLastCompletedDate() { return lastCompletedDate; }
+    public void setLastCompletedDate(String lastCompletedDate) { this.lastCompletedDate = lastCompletedDate; }
+
+    public HabitStats getStats() { return stats; }
+    public void setStats(HabitStats stats) { this.stats = stats; }
+
+    // 平铺的完成次数数组（长度 WEEKS * DAYS_PER_WEEK），直接返回内部数组，供编码使用
+    public int[] getWeeklyCompletion() { return weeklyCompletion; }
+
+    public void setWeeklyCompletion(int[] weeklyCompletion) {
+        // 长度不对时按位置截断或补零
+        this.weeklyCompletion = Arrays.copyOf(weeklyCompletion, WEEKS * DAYS_PER_WEEK);
+    }
+
+    // 标记某天完成
+    public void markCompleted(int weekIndex, int dayOfWeek) {
+        if (inRange(weekIndex, dayOfWeek)) {
+            weeklyCompletion[weekIndex * DAYS_PER_WEEK + dayOfWeek]++;
+        }
+    }
+
+    // 取消某天的完成记录
+    public void unmarkCompleted(int weekIndex, int dayOfWeek) {
+        if (inRange(weekIndex, dayOfWeek) && weeklyCompletion[weekIndex * DAYS_PER_WEEK + dayOfWeek] > 0) {
+            weeklyCompletion[weekIndex * DAYS_PER_WEEK + dayOfWeek]--;
+        }
+    }
+
+    private static boolean inRange(int weekIndex, int dayOfWeek) {
+        return weekIndex >= 0 && weekIndex < WEEKS && dayOfWeek >= 0 && dayOfWeek < DAYS_PER_WEEK;
+    }
+
+    // 获取某周的总完成次数（所有天完成次数的总和）
+    public int getWeekTotalCompletionCount(int weekIndex) {
+        if (weekIndex < 0 || weekIndex >= WEEKS) return 0;
+        int total = 0;
+        int start = weekIndex * DAYS_PER_WEEK;
+        for (int i = start; i < start + DAYS_PER_WEEK; i++) {
+            total += weeklyCompletion[i];
+        }
+        return total;
+    }
+
+    // 检查是否需要重置完成状态（新的一天）
+    public boolean needsReset(String today) {
+        return !today.equals(lastCompletedDate);
+    }
+
+    // 重置完成状态
+    public void resetCompletion() {
+        this.completedToday = false;
+    }
+
+    // 添加方法：获取指定周的完成情况（用于显示）
+    public int[] getWeekCompletion(int weekIndex) {
+        if (weekIndex >= 0 && weekIndex < WEEKS) {
+            int start = weekIndex * DAYS_PER_WEEK;
+            return Arrays.copyOfRange(weeklyCompletion, start, start + DAYS_PER_WEEK);
+        }
+        return new int[DAYS_PER_WEEK]; // 返回空数组
+    }
+}
@@ -0,0 +1,361 @@
+package com.example.todolist.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * 表示一天：包含日期、周号、周几、活动时段、当天的行程列表、重复规则等。
+ * <p>
+ * 设置了 {@link ScheduleLoader} 的 Day 只带规则本身，行程在第一次访问时才读出，
+ * 之后可以用 {@link #unloadSchedules()} 释放，下次访问时重新读取。
+ * 行程列表的读写都在 Day 的锁内完成，别的线程释放行程时不会插在"确认已读出"和"操作列表"之间。
+ */
+public class Day {
+    /**
+     * 按需读取一天的行程，由数据层实现。
+     */
+    public interface ScheduleLoader {
+        List<Schedule> load(Day day);
+
+        // 已读出的行程每次被访问时调用，用来维护最近使用的顺序
+        default void touched(Day day) {}
+    }
+
+    // 数据库 ID，0 表示尚未存入数据库
+    private long databaseId = 0;
+    
+    private LocalDate date;         // 创建天的日期（也可作为默认重复起始点）
+    private int weekIndex;          // 所在周索引（可由外部 Week 管理）
+    private DayOfWeek dayOfWeek;
+
+    private int activeStartHour = 8;   // 默认 8 点，单位小时，范围 [0,24]
+    private int activeEndHour = 22;    // 默认 22 点
+
+    private RepeatRule repeatRule = new RepeatRule(); // 默认不重复
+    private boolean isTemporaryDay = false; // 临时的天会暂时覆盖对应的重复逻辑（只在该天生效的日期有效），注意，这个变量只控制是否有覆盖优先性，具体的重复性由RepeatRule控制
+    
+    // 按开始时间排序（开始时间相同的按加入先后），插入和删除用二分查找定位。
+    // 释放时换成新的列表而不是清空，别的线程手里的只读视图不受影响
+    private List<Schedule> schedules = new ArrayList<>();
+    private int maxDuration = 0; // 行程的最长时长（分钟），区间查询时用来确定从哪里开始找
+    private ScheduleLoader scheduleLoader;     // null 表示行程全部在内存里
+    private boolean schedulesLoaded = true;
+    private boolean schedulesModified = false; // 读出后增删过、还没保存，这时不能释放
+
+    public Day(LocalDate date){
+        if (date == null) {
+            throw new IllegalArgumentException("date 不能为 null");
+        }
+        this.date = date;
+        this.dayOfWeek = date.getDayOfWeek();
+    }
+
+    public Day(LocalDate date, boolean istemporaryDay, RepeatRule repeatRule){
+        if (date == null) {
+            throw new IllegalArgumentException("date 不能为 null");
+        }
+        this.date = date;
+        this.dayOfWeek = date.getDayOfWeek();
+        this.isTemporaryDay = istemporaryDay;
+        this.repeatRule = repeatRule;
+    }
+
+    public long getDatabaseId() {
+        return databaseId;
+    }
+
+    public void setDatabaseId(long databaseId) {
+        this.databaseId = databaseId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public int getWeekIndex() {
+        return weekIndex;
+    }
+
+    public void setWeekIndex(int weekIndex) {
+        this.weekIndex = weekIndex;
+    }
+
+    public DayOfWeek getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public int getActiveStartHour() {
+        return activeStartHour;
+    }
+
+    public int getActiveEndHour() {
+        return activeEndHour;
+    }
+
+    /**
+     * 设置活动时间（小时）。限制在 0..24 范围，且 start < end。
+     */
+    public boolean setActiveHours(int startHour, int endHour){
+        if(startHour < 0 || endHour > 24 || startHour >= endHour) return false;
+        this.activeStartHour = startHour;
+        this.activeEndHour = endHour;
+        return true;
+    }
+
+    public List<Schedule> getSchedules() {
+        List<Schedule> list;
+        ScheduleLoader loader;
+        synchronized (this) {
+            loader = loadIfNeeded();
+            list = schedules;
+        }
+        touched(loader);
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * 按开始时间插入到对应位置，开始时间相同的排在已有行程之后。
+     * 行程加入后不要再直接修改它的时间，需要改时先移除再加入。
+     */
+    public void addSchedule(Schedule s){
+        if(s == null) return;
+        ScheduleLoader loader;
+        synchronized (this) {
+            loader = loadIfNeeded();
+            schedules.add(firstStartingAfter(s.getStartTime()), s);
+            maxDuration = Math.max(maxDuration, s.getEndTime() - s.getStartTime());
+            schedulesModified = true;
+        }
+        touched(loader);
+    }
+
+    // 按 Schedule.equals（开始、结束时间和名称）删除，只在开始时间相同的那一段里找
+    public boolean removeSchedule(Schedule s){
+        if (s == null) return false;
+        ScheduleLoader loader;
+        boolean removed = false;
+        synchronized (this) {
+            loader = loadIfNeeded();
+            List<Schedule> list = schedules;
+            for (int i = firstStartingAfter(s.getStartTime() - 1); i < list.size(); i++) {
+                Schedule candidate = list.get(i);
+                if (candidate.getStartTime() != s.getStartTime()) break;
+                if (candidate.equals(s)) {
+                    list.remove(i);
+                    schedulesModified = true;
+                    removed = true;
+                    break;
+                }
+            }
+        }
+        touched(loader);
+        return removed;
+    }
+
+    /**
+     * 已读出的行程里数据库 ID 为 databaseId 的那个。行程还没读出或没有时返回 null，不会触发读取。
+     */
+    public synchronized Schedule findLoadedSchedule(long databaseId) {
+        if (!schedulesLoaded) return null;
+        for (Schedule schedule : schedules) {
+            if (schedule.getDatabaseId() == databaseId) return schedule;
+        }
+        return null;
+    }
+
+    /**
+     * 把 old（按对象身份查找）换成 replacement，按新的开始时间放到对应位置。
+     * 用于数据库里已经改好的行程，不算未保存的修改。
+     *
+     * @return old 不在这一天里时返回 false
+     */
+    public synchronized boolean replaceSchedule(Schedule old, Schedule replacement) {
+        if (!schedulesLoaded || replacement == null) return false;
+        List<Schedule> list = schedules;
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == old) {
+                list.remove(i);
+                list.add(firstStartingAfter(replacement.getStartTime()), replacement);
+                maxDuration = Math.max(maxDuration, replacement.getEndTime() - replacement.getStartTime());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 与 [fromMinute, toMinute) 有重叠的行程，按开始时间排列。用于检查时间冲突。
+     */
+    public List<Schedule> schedulesOverlapping(int fromMinute, int toMinute) {
+        List<Schedule> result = new ArrayList<>();
+        ScheduleLoader loader;
+        synchronized (this) {
+            loader = loadIfNeeded();
+            if (fromMinute < toMinute) {
+                List<Schedule> list = schedules;
+                // 开始时间不晚于 fromMinute - maxDuration 的行程一定在 fromMinute 之前结束
+                int end = firstStartingAfter(toMinute - 1);
+                for (int i = firstStartingAfter(fromMinute - maxDuration); i < end; i++) {
+                    Schedule schedule = list.get(i);
+                    if (schedule.getEndTime() > fromMinute) result.add(schedule);
+                }
+            }
+        }
+        touched(loader);
+        return result;
+    }
+
+    /**
+     * minute 这一分钟所在的行程（开始 ≤ minute < 结束），用于点击命中。
+     * 有多个重叠时返回开始最晚的那个（显示时画在最上面）；没有时返回 null。
+     */
+    public Schedule scheduleAt(int minute) {
+        Schedule hit = null;
+        ScheduleLoader loader;
+        synchronized (this) {
+            loader = loadIfNeeded();
+            List<Schedule> list = schedules;
+            int lowest = firstStartingAfter(minute - maxDuration);
+            for (int i = firstStartingAfter(minute) - 1; i >= lowest; i--) {
+                Schedule schedule = list.get(i);
+                if (schedule.getEndTime() > minute) {
+                    hit = schedule;
+                    break;
+                }
+            }
+        }
+        touched(loader);
+        return hit;
+    }
+
+    // 第一个开始时间大于 minute 的位置（二分查找），调用时持有锁
+    private int firstStartingAfter(int minute) {
+        List<Schedule> list = schedules;
+        int low = 0;
+        int high = list.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (list.get(mid).getStartTime() <= minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    public synchronized void clearSchedules() {
+        schedules = new ArrayList<>();
+        maxDuration = 0;
+        schedulesLoaded = true;
+        schedulesModified = true;
+    }
+
+    /**
+     * 改为按需读取行程：丢掉内存里的行程，下次访问时通过 loader 读取。loader 为 null 时行程只在内存里。
+     */
+    public synchronized void setScheduleLoader(ScheduleLoader loader) {
+        this.scheduleLoader = loader;
+        schedules = new ArrayList<>();
+        maxDuration = 0;
+        schedulesLoaded = loader == null;
+        schedulesModified = false;
+    }
+
+    public synchronized boolean isSchedulesLoaded() {
+        return schedulesLoaded;
+    }
+
+    /**
+     * 释放已读出的行程，下次访问时重新读取。没有 loader、还没读出或有未保存的修改时不释放。
+     *
+     * @return 是否释放了
+     */
+    public synchronized boolean unloadSchedules() {
+        if (scheduleLoader == null || !schedulesLoaded || schedulesModified) return false;
+        schedules = new ArrayList<>();
+        maxDuration = 0;
+        schedulesLoaded = false;
+        return true;
+    }
+
+    // 行程已经写回数据库，之后可以释放
+    public synchronized void markSchedulesSaved() {
+        schedulesModified = false;
+    }
+
+    // 行程还没读出时通过 loader 读取，调用时持有锁；返回需要通知访问的 loader（没有时为 null）
+    private ScheduleLoader loadIfNeeded() {
+        ScheduleLoader loader = scheduleLoader;
+        if (loader != null && !schedulesLoaded) {
+            List<Schedule> loaded = new ArrayList<>(loader.load(this));
+            loaded.sort(Comparator.comparingInt(Schedule::getStartTime)); // 数据库已按开始时间排好，这里是线性的
+            int longest = 0;
+            for (Schedule schedule : loaded) {
+                longest = Math.max(longest, schedule.getEndTime() - schedule.getStartTime());
+            }
+            schedules = loaded;
+            maxDuration = longest;
+            schedulesLoaded = true;
+        }
+        return loader;
+    }
+
+    // 在锁外通知 loader：它会调整最近使用的顺序，可能释放别的 Day，不能在持有这个 Day 的锁时进行
+    private void touched(ScheduleLoader loader) {
+        if (loader != null) loader.touched(this);
+    }
+
+    public RepeatRule getRepeatRule() {
+        return repeatRule;
+    }
+
+    public void setRepeatRule(RepeatRule repeatRule) {
+        this.repeatRule = repeatRule == null ? new RepeatRule() : repeatRule;
+    }
+
+    public boolean isTemporaryDay() {
+        return isTemporaryDay;
+    }
+
+    public void setTemporaryDay(boolean temporaryDay) {
+        this.isTemporaryDay = temporaryDay;
+    }
+
+    /**
+     * 判断这个 Day 是否应在目标日期上出现。
+     * 逻辑：
+     *  - 如果 temporaryDay 且 date.equals(target) -> 出现（仅本日）
+     *  - 否则依据 repeatRule 判断（repeatRule 默认表示只出现创建日期这一天）
+     */
+    public boolean appearsOn(LocalDate target) {
+        if (target == null) return false;
+        if (isTemporaryDay && date.equals(target)) return true;
+        return repeatRule.occursOn(date, target);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Day day = (Day) o;
+        // 如果有数据库 ID，优先用 ID 判断是否为同一个对象
+        if (databaseId > 0 && day.databaseId > 0) {
+            return databaseId == day.databaseId;
+        }
+        // 否则根据创建日期和类型判断
+        return Objects.equals(date, day.date) && isTemporaryDay == day.isTemporaryDay;
+    }
+
+    @Override
+    public int hashCode() {
+        // 保持和 equals 一致
+        return Objects.hash(date, isTemporaryDay);
+    }
+}
\ No newline at end of file
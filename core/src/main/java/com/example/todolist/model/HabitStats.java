@@ -0,0 +1,142 @@
+package com.example.todolist.model;
+
+import java.io.Serializable;
+
+/**
+ * 单个每日任务的统计：当前连续天数、最长连续天数、按星期几的完成率、最近 30 天完成率。
+ * <p>
+ * 只保存能增量维护的聚合值，打卡 / 取消打卡（setDone）和跨天（advanceTo）都是 O(1)，
+ * 不需要重新扫描历史。"某天完成"指当天的完成次数大于 0。日期均为 epoch day，星期几以周日为 0。
+ */
+public class HabitStats implements Serializable {
+    public static final int WINDOW_DAYS = 30;
+    private static final int WINDOW_MASK = (1 << WINDOW_DAYS) - 1;
+    private static final long serialVersionUID = 1L;
+
+    private long startDay;          // 开始统计的那一天
+    private long day;               // 当前统计到的那一天（"今天"）
+    private boolean todayDone;
+    private int runBeforeToday;     // 截止到昨天的连续完成天数
+    private int longestBeforeToday; // 昨天及以前出现过的最长连续天数
+    private final int[] weekdayDone = new int[7]; // 每个星期几完成的天数（含今天）
+    private int recentMask;         // 第 i 位表示 day - i 是否完成，只保留 30 天
+
+    public HabitStats(long startDay) {
+        this.startDay = startDay;
+        this.day = startDay;
+    }
+
+    /**
+     * 从完整的历史重新计算（首次建立统计、以及测试中校验增量结果时使用）。
+     *
+     * @param doneDays 完成过的日期，可以无序，早于 startDay 或晚于 today 的会被忽略
+     */
+    public static HabitStats recompute(long startDay, long today, long[] doneDays) {
+        HabitStats stats = new HabitStats(startDay);
+        boolean[] done = new boolean[(int) Math.max(0, today - startDay + 1)];
+        for (long doneDay : doneDays) {
+            if (doneDay >= startDay && doneDay <= today) done[(int) (doneDay - startDay)] = true;
+        }
+
+        int run = 0;
+        int longest = 0;
+        for (int i = 0; i < done.length; i++) {
+            long current = startDay + i;
+            if (current == today) {
+                stats.runBeforeToday = run;
+                stats.longestBeforeToday = longest;
+            }
+            if (done[i]) {
+                run++;
+                longest = Math.max(longest, run);
+                stats.weekdayDone[weekday(current)]++;
+                if (today - current < WINDOW_DAYS) stats.recentMask |= 1 << (int) (today - current);
+            } else {
+                run = 0;
+            }
+        }
+        stats.day = Math.max(startDay, today);
+        stats.todayDone = done.length > 0 && done[done.length - 1];
+        return stats;
+    }
+
+    // 从持久化的字段恢复
+    public static HabitStats restore(long startDay, long day, boolean todayDone, int runBeforeToday,
+                                     int longestBeforeToday, int[] weekdayDone, int recentMask) {
+        HabitStats stats = new HabitStats(startDay);
+        stats.day = day;
+        stats.todayDone = todayDone;
+        stats.runBeforeToday = runBeforeToday;
+        stats.longestBeforeToday = longestBeforeToday;
+        System.arraycopy(weekdayDone, 0, stats.weekdayDone, 0, 7);
+        stats.recentMask = recentMask;
+        return stats;
+    }
+
+    /**
+     * 把"今天"推进到 newDay，中间没有打卡的日子都视为未完成。newDay 不晚于当前日期时不做任何事。
+     */
+    public void advanceTo(long newDay) {
+        long elapsed = newDay - day;
+        if (elapsed <= 0) return;
+
+        int runEndingToday = todayDone ? runBeforeToday + 1 : 0;
+        longestBeforeToday = Math.max(longestBeforeToday, runEndingToday);
+        runBeforeToday = elapsed == 1 ? runEndingToday : 0;
+        recentMask = elapsed >= WINDOW_DAYS ? 0 : (recentMask << elapsed) & WINDOW_MASK;
+        todayDone = false;
+        day = newDay;
+    }
+
+    /**
+     * 设置今天是否完成；重复设置同一个值不会重复计数，取消完成会撤销之前的累加。
+     */
+    public void setDone(boolean done) {
+        if (done == todayDone) return;
+        todayDone = done;
+        weekdayDone[weekday(day)] += done ? 1 : -1;
+        recentMask ^= 1;
+    }
+
+    // 当前连续天数：今天还没打卡时，截止到昨天的连续记录仍然有效
+    public int getCurrentStreak() {
+        return todayDone ? runBeforeToday + 1 : runBeforeToday;
+    }
+
+    public int getLongestStreak() {
+        return Math.max(longestBeforeToday, getCurrentStreak());
+    }
+
+    /**
+     * 某个星期几（周日=0）的完成率：完成的天数 / 统计区间内该星期几出现的天数。
+     */
+    public float getWeekdayRate(int weekday) {
+        long occurrences = weekdayOccurrences(weekday);
+        return occurrences == 0 ? 0f : (float) weekdayDone[weekday] / occurrences;
+    }
+
+    // 最近 30 天（含今天）的完成率；统计不足 30 天时按实际天数计算
+    public float getMovingAverage() {
+        long days = Math.min(WINDOW_DAYS, day - startDay + 1);
+        return days <= 0 ? 0f : (float) Integer.bitCount(recentMask) / days;
+    }
+
+    // [startDay, day] 中星期几为 weekday 的天数
+    private long weekdayOccurrences(int weekday) {
+        long first = startDay + Math.floorMod(weekday - weekday(startDay), 7);
+        return first > day ? 0 : (day - first) / 7 + 1;
+    }
+
+    // 1970-01-01 是周四
+    public static int weekday(long epochDay) {
+        return (int) Math.floorMod(epochDay + 4, 7L);
+    }
+
+    public long getStartDay() { return startDay; }
+    public long getDay() { return day; }
+    public boolean isTodayDone() { return todayDone; }
+    public int getRunBeforeToday() { return runBeforeToday; }
+    public int getLongestBeforeToday() { return longestBeforeToday; }
+    public int getWeekdayDone(int weekday) { return weekdayDone[weekday]; }
+    public int getRecentMask() { return recentMask; }
+}
@@ -0,0 +1,21 @@
+package com.example.todolist.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内的字符串池：内容相同的字符串只保留一个实例。
+ * 课表里同一门课每周都有一行，名称和备注标题大量重复，加载时经过这里就不会为每一行各建一个 String。
+ * <p>
+ * 只用于名称这类取值有限的短字符串，池里的字符串不会被释放。
+ */
+public final class Interner {
+    private static final ConcurrentHashMap<String, String> POOL = new ConcurrentHashMap<>();
+
+    private Interner() {}
+
+    public static String intern(String value) {
+        if (value == null) return null;
+        String existing = POOL.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.todolist.model;
 
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Schedule {
     private int startTime;  // 从0点开始，每一分钟为单位，比如：12:00 = 720，00:01 = 1
@@ -9,24 +10,37 @@ public class Schedule {
     private Note note;
     private int colorArgb;  // 颜色，使用 ARGB 整数表示
     private boolean isTemporarySchedule; // 是否为临时行程
+    private long databaseId = 0; // 对应数据库中的行程 ID，0 表示尚未保存
 
     public Schedule(int startTime, int endTime, String name, Note note, int colorArgb, boolean isTemporarySchedule){
         validateTimes(startTime, endTime);
         this.startTime = startTime;
         this.endTime = endTime;
         this.name = name;
-        this.note = note == null ? new Note() : note;
+        this.note = note == null ? Note.DEFAULT : note;
         this.colorArgb = colorArgb;
         this.isTemporarySchedule = isTemporarySchedule;
     }
 
     public Schedule(int startTime, int endTime, String name){
-        this(startTime, endTime, name, new Note(), 0xFF2196F3, false); // 默认颜色蓝色
+        this(startTime, endTime, name, Note.DEFAULT, 0xFF2196F3, false); // 默认颜色蓝色
     }
 
+    /**
+     * 备注，创建后不可修改。批量加载课表时不读取备注正文，此时 content 为 null，
+     * 需要显示时再通过 Data.getNoteContent 按行程 ID 读取。
+     * <p>
+     * Note 不可变，可以在行程之间共享：没有备注的行程共用 {@link #DEFAULT}，
+     * 加载时未读正文的备注按标题从 {@link #unloaded} 取共享实例。
+     */
     public static class Note {
-        private String name = null;
-        private String content = null;
+        /** 默认的空备注"备注"。 */
+        public static final Note DEFAULT = new Note();
+        private static final Note UNLOADED_UNTITLED = new Note(null, null);
+        private static final ConcurrentHashMap<String, Note> UNLOADED = new ConcurrentHashMap<>();
+
+        private final String name;
+        private final String content;
 
         public Note(){
             this.name = "备注";
@@ -43,17 +57,34 @@ public class Schedule {
             this.content = content;
         }
 
+        /**
+         * 正文还没有读出、标题为 name 的备注。同一标题返回同一个实例，标题经过 {@link Interner}。
+         */
+        public static Note unloaded(String name) {
+            if (name == null) return UNLOADED_UNTITLED;
+            Note note = UNLOADED.get(name);
+            if (note != null) return note;
+            note = new Note(Interner.intern(name), null);
+            Note existing = UNLOADED.putIfAbsent(note.name, note);
+            return existing != null ? existing : note;
+        }
+
         public String getName() {
             return name;
         }
 
+        // 正文还没有从数据库读出时返回 null
         public String getContent() {
             return content;
         }
 
+        public boolean isContentLoaded() {
+            return content != null;
+        }
+
         @Override
         public String toString(){
-            return name + ":" + "\n" + content;
+            return content == null ? name : name + ":" + "\n" + content;
         }
     }
 
@@ -83,7 +114,7 @@ public class Schedule {
     }
 
     public void setNote(Note note) {
-        this.note = note == null ? new Note() : note;
+        this.note = note == null ? Note.DEFAULT : note;
     }
 
     public int getStartTime() {
@@ -99,7 +130,7 @@ public class Schedule {
     }
 
     public Note getNote() {
-        if (note == null) note = new Note();
+        if (note == null) note = Note.DEFAULT;
         return note;
     }
 
@@ -111,6 +142,14 @@ public class Schedule {
         return isTemporarySchedule;
     }
 
+    public long getDatabaseId() {
+        return databaseId;
+    }
+
+    public void setDatabaseId(long databaseId) {
+        this.databaseId = databaseId;
+    }
+
     public void setColorArgb(int colorArgb) {
         this.colorArgb = colorArgb;
     }
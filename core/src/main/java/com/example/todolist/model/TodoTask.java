@@ -1,14 +1,11 @@
 package com.example.todolist.model;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-
 import java.io.Serializable;
 
 public class TodoTask implements Serializable {
     private int id;
     private String content;
-    private int priority; // 优先级，数值越小优先级越高
+    private long priority; // 排序值（稀疏），数值越小越靠前
     private long createdTime;
     private static final long serialVersionUID = 1L;
 
@@ -19,7 +16,7 @@ public class TodoTask implements Serializable {
         this.createdTime = System.currentTimeMillis();
     }
 
-    public TodoTask(int id, String content, int priority, long createdTime) {
+    public TodoTask(int id, String content, long priority, long createdTime) {
         this.id = id;
         this.content = content;
         this.priority = priority;
@@ -33,8 +30,8 @@ public class TodoTask implements Serializable {
     public String getContent() { return content; }
     public void setContent(String content) { this.content = content; }
 
-    public int getPriority() { return priority; }
-    public void setPriority(int priority) { this.priority = priority; }
+    public long getPriority() { return priority; }
+    public void setPriority(long priority) { this.priority = priority; }
 
     public long getCreatedTime() { return createdTime; }
     public void setCreatedTime(long createdTime) { this.createdTime = createdTime; }
@@ -0,0 +1,225 @@
+package com.example.todolist.model;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Day 的有序行程列表：二分插入、删除、原地替换和区间查询的结果必须与逐个比较的结果一致；
+ * 按需读取的行程可以释放，但有未保存的修改时不释放，修改也不会落到已经释放的列表上。
+ */
+public class DayTest {
+    private static final LocalDate DATE = LocalDate.of(2024, 9, 2);
+
+    @Test
+    public void keepsSchedulesSortedAndStableOnEqualStarts() {
+        Day day = new Day(DATE);
+        Schedule first = new Schedule(600, 660, "a");
+        Schedule second = new Schedule(600, 630, "b");
+        day.addSchedule(first);
+        day.addSchedule(new Schedule(480, 540, "c"));
+        day.addSchedule(second);
+        day.addSchedule(new Schedule(900, 960, "d"));
+
+        List<Schedule> schedules = day.getSchedules();
+        assertEquals("c", schedules.get(0).getName());
+        assertSame(first, schedules.get(1));
+        assertSame(second, schedules.get(2));
+        assertEquals("d", schedules.get(3).getName());
+
+        assertTrue(day.removeSchedule(new Schedule(600, 630, "b")));
+        assertFalse(day.removeSchedule(new Schedule(600, 630, "b")));
+        assertEquals(3, day.getSchedules().size());
+    }
+
+    @Test
+    public void rangeQueriesMatchLinearScanOnRandomDays() {
+        Random random = new Random(2024);
+        for (int round = 0; round < 200; round++) {
+            Day day = new Day(DATE);
+            List<Schedule> all = new ArrayList<>();
+            int count = random.nextInt(40);
+            for (int i = 0; i < count; i++) {
+                int start = random.nextInt(24 * 60 - 1);
+                int end = start + 1 + random.nextInt(Math.min(240, 24 * 60 - start));
+                Schedule schedule = new Schedule(start, end, "s" + i);
+                day.addSchedule(schedule);
+                all.add(schedule);
+            }
+            // 随机删掉一些
+            for (int i = 0; i < count / 4; i++) {
+                Schedule removed = all.remove(random.nextInt(all.size()));
+                assertTrue(day.removeSchedule(removed));
+            }
+
+            List<Schedule> sorted = day.getSchedules();
+            for (int i = 1; i < sorted.size(); i++) {
+                assertTrue(sorted.get(i - 1).getStartTime() <= sorted.get(i).getStartTime());
+            }
+            assertEquals(all.size(), sorted.size());
+
+            for (int query = 0; query < 50; query++) {
+                int from = random.nextInt(24 * 60);
+                int to = from + 1 + random.nextInt(120);
+                List<Schedule> expected = new ArrayList<>();
+                for (Schedule schedule : sorted) {
+                    if (schedule.getStartTime() < to && schedule.getEndTime() > from) expected.add(schedule);
+                }
+                assertEquals(expected, day.schedulesOverlapping(from, to));
+
+                Schedule expectedAt = null;
+                for (Schedule schedule : sorted) {
+                    if (schedule.getStartTime() <= from && schedule.getEndTime() > from) expectedAt = schedule;
+                }
+                assertSame(expectedAt, day.scheduleAt(from));
+            }
+        }
+    }
+
+    @Test
+    public void replaceScheduleMovesToTheNewStart() {
+        Day day = new Day(DATE);
+        Schedule early = new Schedule(480, 540, "a");
+        Schedule middle = new Schedule(600, 660, "b");
+        Schedule late = new Schedule(900, 960, "c");
+        day.addSchedule(early);
+        day.addSchedule(middle);
+        day.addSchedule(late);
+
+        // 往后移：排到开始时间对应的位置
+        Schedule moved = new Schedule(700, 760, "a");
+        assertTrue(day.replaceSchedule(early, moved));
+        assertEquals(List.of(middle, moved, late), day.getSchedules());
+
+        // 往前移到最前面
+        Schedule first = new Schedule(300, 360, "c");
+        assertTrue(day.replaceSchedule(late, first));
+        assertEquals(List.of(first, middle, moved), day.getSchedules());
+
+        // 按对象身份查找：equals 相同但不是同一个对象时不替换
+        assertFalse(day.replaceSchedule(new Schedule(600, 660, "b"), new Schedule(0, 30, "x")));
+        assertEquals(3, day.getSchedules().size());
+    }
+
+    @Test
+    public void replaceScheduleKeepsEqualStartsInInsertionOrder() {
+        Day day = new Day(DATE);
+        Schedule a = new Schedule(600, 660, "a");
+        Schedule b = new Schedule(600, 630, "b");
+        Schedule c = new Schedule(600, 690, "c");
+        day.addSchedule(a);
+        day.addSchedule(b);
+        day.addSchedule(c);
+
+        // 开始时间不变的修改和 addSchedule 一样排到同一开始时间的最后；其余行程的先后不变
+        Schedule editedA = new Schedule(600, 700, "a2");
+        assertTrue(day.replaceSchedule(a, editedA));
+        assertEquals(List.of(b, c, editedA), day.getSchedules());
+
+        Schedule other = new Schedule(480, 540, "d");
+        day.addSchedule(other);
+        Schedule movedIn = new Schedule(600, 610, "d2");
+        assertTrue(day.replaceSchedule(other, movedIn));
+        assertEquals(List.of(b, c, editedA, movedIn), day.getSchedules());
+    }
+
+    @Test
+    public void replaceScheduleWidensTheRangeQueries() {
+        Day day = new Day(DATE);
+        Schedule shortOne = new Schedule(480, 510, "short");
+        day.addSchedule(shortOne);
+        day.addSchedule(new Schedule(540, 560, "other"));
+
+        // 拉长到 480-780：远在原来最长时长之外的分钟也要能命中
+        Schedule longOne = new Schedule(480, 780, "long");
+        assertTrue(day.replaceSchedule(shortOne, longOne));
+        assertSame(longOne, day.scheduleAt(700));
+        assertEquals(List.of(longOne), day.schedulesOverlapping(720, 740));
+        assertEquals(2, day.schedulesOverlapping(545, 550).size());
+    }
+
+    @Test
+    public void replaceScheduleDoesNotLoadOrMarkModified() {
+        AtomicInteger loads = new AtomicInteger();
+        Schedule stored = new Schedule(480, 540, "stored");
+        stored.setDatabaseId(7);
+        Day day = new Day(DATE);
+        day.setScheduleLoader(d -> {
+            loads.incrementAndGet();
+            List<Schedule> list = new ArrayList<>();
+            list.add(stored);
+            return list;
+        });
+
+        // 还没读出时既找不到也不替换，不会触发读取
+        assertNull(day.findLoadedSchedule(7));
+        assertFalse(day.replaceSchedule(stored, new Schedule(600, 660, "edited")));
+        assertEquals(0, loads.get());
+
+        day.getSchedules();
+        assertSame(stored, day.findLoadedSchedule(7));
+        assertNull(day.findLoadedSchedule(8));
+        Schedule edited = new Schedule(600, 660, "edited");
+        assertTrue(day.replaceSchedule(stored, edited));
+        assertEquals(List.of(edited), day.getSchedules());
+        // 数据库里已经改好了，替换后仍然可以释放
+        assertTrue(day.unloadSchedules());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void unloadKeepsUnsavedChanges() {
+        AtomicInteger loads = new AtomicInteger();
+        Day day = new Day(DATE);
+        day.setScheduleLoader(d -> {
+            loads.incrementAndGet();
+            List<Schedule> stored = new ArrayList<>();
+            stored.add(new Schedule(480, 540, "stored"));
+            return stored;
+        });
+        assertFalse(day.isSchedulesLoaded());
+        assertEquals(1, day.getSchedules().size());
+        assertTrue(day.unloadSchedules());
+
+        // 释放后修改：先重新读出，再在读出的列表上修改
+        day.addSchedule(new Schedule(600, 660, "added"));
+        assertEquals(2, loads.get());
+        assertEquals(2, day.getSchedules().size());
+        assertFalse(day.unloadSchedules());
+
+        day.markSchedulesSaved();
+        assertTrue(day.unloadSchedules());
+        assertFalse(day.isSchedulesLoaded());
+    }
+
+    @Test
+    public void concurrentUnloadNeverLosesAChange() throws InterruptedException {
+        Day day = new Day(DATE);
+        day.setScheduleLoader(d -> new ArrayList<>());
+        AtomicBoolean done = new AtomicBoolean(false);
+        Thread unloader = new Thread(() -> {
+            while (!done.get()) day.unloadSchedules();
+        });
+        unloader.start();
+        try {
+            for (int i = 0; i < 20_000; i++) {
+                Schedule schedule = new Schedule(i % 1000, i % 1000 + 30, "s" + i);
+                day.addSchedule(schedule);
+                assertTrue(day.getSchedules().contains(schedule));
+                assertTrue(day.removeSchedule(schedule));
+                // 模拟保存：修改写回后（加载器读出的仍是空列表）允许释放
+                day.markSchedulesSaved();
+            }
+        } finally {
+            done.set(true);
+            unloader.join();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.todolist.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * HabitStats 增量维护的结果必须与按完整历史重新计算的结果一致。
+ */
+public class HabitStatsTest {
+
+    @Test
+    public void incrementalMatchesRecomputeOnRandomHistories() {
+        Random random = new Random(2024);
+        for (int round = 0; round < 200; round++) {
+            long startDay = 19000 + random.nextInt(7);
+            HabitStats stats = new HabitStats(startDay);
+            List<Long> doneDays = new ArrayList<>();
+            long today = startDay;
+            boolean todayDone = false;
+
+            int steps = 50 + random.nextInt(300);
+            for (int step = 0; step < steps; step++) {
+                int action = random.nextInt(10);
+                if (action < 6) {
+                    // 勾选或取消（包括重复勾选同一个状态）
+                    boolean done = random.nextBoolean();
+                    stats.setDone(done);
+                    if (done && !todayDone) doneDays.add(today);
+                    if (!done && todayDone) doneDays.remove(Long.valueOf(today));
+                    todayDone = done;
+                } else {
+                    // 前进 1 天，偶尔跳过很多天（超过 30 天窗口）
+                    int elapsed = action < 9 ? 1 : 1 + random.nextInt(40);
+                    today += elapsed;
+                    stats.advanceTo(today);
+                    todayDone = false;
+                }
+                assertSameStats(recompute(startDay, today, doneDays), stats);
+            }
+        }
+    }
+
+    @Test
+    public void uncheckRollsBackStreak() {
+        HabitStats stats = new HabitStats(100);
+        for (long day = 100; day < 105; day++) {
+            stats.advanceTo(day);
+            stats.setDone(true);
+        }
+        assertEquals(5, stats.getCurrentStreak());
+        stats.setDone(false);
+        assertEquals(4, stats.getCurrentStreak());
+        assertEquals(4, stats.getLongestStreak());
+        stats.setDone(true);
+
+        // 今天还没打卡时连续记录保持，漏掉一天后清零
+        stats.advanceTo(105);
+        assertEquals(5, stats.getCurrentStreak());
+        stats.advanceTo(107);
+        assertEquals(0, stats.getCurrentStreak());
+        assertEquals(5, stats.getLongestStreak());
+    }
+
+    @Test
+    public void weekdayRateCountsOccurrences() {
+        // 1970-01-04 (epoch day 3) 是周日
+        assertEquals(0, HabitStats.weekday(3));
+        HabitStats stats = new HabitStats(3);
+        stats.setDone(true);
+        stats.advanceTo(10); // 第二个周日，没有打卡
+        assertEquals(0.5f, stats.getWeekdayRate(0), 1e-6);
+        assertEquals(0f, stats.getWeekdayRate(1), 1e-6);
+        assertEquals(1f / 8, stats.getMovingAverage(), 1e-6);
+    }
+
+    private static HabitStats recompute(long startDay, long today, List<Long> doneDays) {
+        long[] days = new long[doneDays.size()];
+        for (int i = 0; i < days.length; i++) days[i] = doneDays.get(i);
+        return HabitStats.recompute(startDay, today, days);
+    }
+
+    private static void assertSameStats(HabitStats expected, HabitStats actual) {
+        assertEquals(expected.getDay(), actual.getDay());
+        assertEquals(expected.isTodayDone(), actual.isTodayDone());
+        assertEquals(expected.getCurrentStreak(), actual.getCurrentStreak());
+        assertEquals(expected.getLongestStreak(), actual.getLongestStreak());
+        assertEquals(expected.getRecentMask(), actual.getRecentMask());
+        assertEquals(expected.getMovingAverage(), actual.getMovingAverage(), 1e-6);
+        for (int weekday = 0; weekday < 7; weekday++) {
+            assertEquals(expected.getWeekdayDone(weekday), actual.getWeekdayDone(weekday));
+            assertEquals(expected.getWeekdayRate(weekday), actual.getWeekdayRate(weekday), 1e-6);
+        }
+    }
+}
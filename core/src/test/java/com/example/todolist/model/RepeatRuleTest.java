@@ -0,0 +1,52 @@
+package com.example.todolist.model;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.Assert.*;
+
+/**
+ * 重复规则和一周内 Day 的选取规则。
+ */
+public class RepeatRuleTest {
+    private static final LocalDate MONDAY = LocalDate.of(2024, 9, 2);
+
+    @Test
+    public void occursOnEachMode() {
+        RepeatRule none = new RepeatRule();
+        assertTrue(none.occursOn(MONDAY, MONDAY));
+        assertFalse(none.occursOn(MONDAY, MONDAY.plusDays(7)));
+
+        RepeatRule everyThreeDays = new RepeatRule(RepeatRule.Mode.EVERY_N_DAYS, 3, 0, null, null);
+        assertTrue(everyThreeDays.occursOn(MONDAY, MONDAY.plusDays(9)));
+        assertFalse(everyThreeDays.occursOn(MONDAY, MONDAY.plusDays(10)));
+        assertFalse(everyThreeDays.occursOn(MONDAY, MONDAY.minusDays(3)));
+
+        // 隔周一次，共 3 次
+        RepeatRule biweekly = new RepeatRule(RepeatRule.Mode.EVERY_N_WEEKS, 2, 3, null, null);
+        assertTrue(biweekly.occursOn(MONDAY, MONDAY.plusWeeks(4)));
+        assertFalse(biweekly.occursOn(MONDAY, MONDAY.plusWeeks(1)));
+        assertFalse(biweekly.occursOn(MONDAY, MONDAY.plusWeeks(6)));
+        assertFalse(biweekly.occursOn(MONDAY, MONDAY.plusWeeks(2).plusDays(1)));
+
+        RepeatRule untilEnd = new RepeatRule(RepeatRule.Mode.EVERY_N_WEEKS, 1, 0, null, MONDAY.plusWeeks(2));
+        assertTrue(untilEnd.occursOn(MONDAY, MONDAY.plusWeeks(2)));
+        assertFalse(untilEnd.occursOn(MONDAY, MONDAY.plusWeeks(3)));
+    }
+
+    @Test
+    public void temporaryDayOverridesRepeatingDay() {
+        Week week = new Week(MONDAY);
+        Day weekly = new Day(MONDAY, false, new RepeatRule(RepeatRule.Mode.EVERY_N_WEEKS, 1, 0, null, null));
+        Day temporary = new Day(MONDAY.plusWeeks(1), true, new RepeatRule());
+        week.addDay(weekly);
+        week.addDay(temporary);
+
+        assertSame(weekly, week.getDayForDate(MONDAY));
+        assertSame(temporary, week.getDayForDate(MONDAY.plusWeeks(1)));
+        assertSame(weekly, week.getDayForDate(MONDAY.plusWeeks(2)));
+        assertNull(week.getDayForDate(MONDAY.plusDays(1)));
+        assertEquals(7, week.getEffectiveDays(MONDAY.plusDays(3)).size());
+    }
+}
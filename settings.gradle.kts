@@ -21,3 +21,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "ToDoList"
 include(":app")
+include(":core")